@@ -1,5 +1,6 @@
 plugins {
 	java
+	id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "io.github.skylot"
@@ -24,6 +25,51 @@ dependencies {
 	
 	// JetBrains annotations
 	compileOnly("org.jetbrains:annotations:26.0.2")
+
+	// Differential tests of the hand-written scanners and data file format tests
+	testImplementation(platform("org.junit:junit-bom:5.10.2"))
+	testImplementation("org.junit.jupiter:junit-jupiter")
+	testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+	// MagicStringsData implements JADX types, so tests need the compileOnly APIs too
+	testImplementation("io.github.skylot:jadx-core:1.5.2")
+	testImplementation("org.slf4j:slf4j-api:2.0.17")
+
+	// Benchmarks run the analysis outside of JADX, so they need the compileOnly APIs at runtime
+	jmh("io.github.skylot:jadx-core:1.5.2")
+	jmh("org.slf4j:slf4j-api:2.0.17")
+	// Loads the synthetic DEX files of the scaling benchmark (baksmali is only used for smali output)
+	jmh("io.github.skylot:jadx-dex-input:1.5.2") {
+		exclude(group = "com.android.tools.smali")
+	}
+}
+
+jmh {
+	jmhVersion.set("1.37")
+	profilers.set(listOf("gc"))
+	resultFormat.set("JSON")
+}
+
+tasks.register<JavaExec>("scalingBenchmark") {
+	description = "Runs ExtractStringsPass on synthetic inputs of growing size"
+	group = "benchmark"
+	classpath = sourceSets["jmh"].runtimeClasspath
+	mainClass.set("jadx.plugins.magicstrings.pass.ScalingBenchmark")
+	maxHeapSize = "4g"
+	val scalingArgs = providers.gradleProperty("scaling.args").orNull
+	if (scalingArgs != null) {
+		args(scalingArgs.split(" ").filter { it.isNotBlank() })
+	}
+}
+
+tasks.register<JavaExec>("buildStoplist") {
+	description = "Compiles plain text word lists into a stoplist file for memory mapping"
+	group = "build"
+	classpath = sourceSets["main"].runtimeClasspath
+	mainClass.set("jadx.plugins.magicstrings.stoplist.StoplistBuilder")
+	val stoplistArgs = providers.gradleProperty("stoplist.args").orNull
+	if (stoplistArgs != null) {
+		args(stoplistArgs.split(" ").filter { it.isNotBlank() })
+	}
 }
 
 tasks {
@@ -31,12 +77,17 @@ tasks {
 		options.encoding = "UTF-8"
 	}
 	
+	test {
+		useJUnitPlatform()
+	}
+
 	jar {
 		manifest {
 			attributes(
 				"Plugin-Id" to "magic-strings",
 				"Plugin-Name" to "Magic Strings",
-				"Plugin-Version" to version
+				"Plugin-Version" to version,
+				"Implementation-Version" to version
 			)
 		}
 	}
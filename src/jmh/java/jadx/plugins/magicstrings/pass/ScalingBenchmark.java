@@ -0,0 +1,252 @@
+/**
+ * End-to-end scaling harness for ExtractStringsPass.
+ *
+ * For every size step it generates synthetic DEX files (see {@link SyntheticDex}) with strings
+ * sampled from the benchmark corpus, loads them with the regular jadx dex input plugin and runs
+ * the pass headlessly (extraction and filtering, results cache disabled). Reported per step:
+ * wall time of the pass, peak heap while it runs and retained size of MagicStringsData
+ * (heap difference after full GC with and without the data, so only approximate for small steps).
+ * The last column is time per method relative to the first step: a flat curve means linear scaling.
+ *
+ * <pre>
+ * ./gradlew scalingBenchmark -Pscaling.args="--steps 1000,10000,100000 --density 4 --duplication 0.3"
+ * </pre>
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.pass;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import jadx.api.JadxArgs;
+import jadx.api.JadxDecompiler;
+import jadx.core.dex.nodes.RootNode;
+import jadx.plugins.magicstrings.MagicStringsPlugin;
+import jadx.plugins.magicstrings.data.MagicStringsData;
+
+public final class ScalingBenchmark {
+	private static final String[] STRING_CLASSES = { "LOG", "PATH", "JSON", "BASE64", "IDENTIFIER", "TEXT" };
+	private static final int MAX_METHODS_PER_DEX = 60000; // Keep method ids in 16-bit range like real multidex
+	private static final long MB = 1024 * 1024;
+
+	private int[] steps = { 1000, 5000, 20000, 100000, 500000 };
+	private double density = 3; // Average const strings per method
+	private double duplication = 0.5; // Share of strings taken verbatim from the corpus pool
+	private int methodsPerClass = 20;
+	private long seed = 1;
+
+	private String[] pool;
+
+	public static void main(String[] args) throws Exception {
+		ScalingBenchmark benchmark = new ScalingBenchmark();
+		benchmark.parseArgs(args);
+		benchmark.run();
+	}
+
+	private void parseArgs(String[] args) {
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			String value = args[i + 1];
+			switch (args[i]) {
+				case "--steps":
+					steps = Stream.of(value.split(",")).mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+					break;
+				case "--density":
+					density = Double.parseDouble(value);
+					break;
+				case "--duplication":
+					duplication = Double.parseDouble(value);
+					break;
+				case "--methods-per-class":
+					methodsPerClass = Integer.parseInt(value);
+					break;
+				case "--seed":
+					seed = Long.parseLong(value);
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown option: " + args[i]);
+			}
+		}
+	}
+
+	private void run() throws Exception {
+		List<String> poolList = new ArrayList<>();
+		for (String stringClass : STRING_CLASSES) {
+			Collections.addAll(poolList, StringCorpus.load(stringClass));
+		}
+		pool = poolList.toArray(new String[0]);
+
+		// Untimed run of the smallest step, so the first row is not dominated by class loading and JIT
+		runStep(steps[0]);
+
+		System.out.printf(Locale.ROOT, "density=%.1f duplication=%.2f methodsPerClass=%d seed=%d%n",
+				density, duplication, methodsPerClass, seed);
+		System.out.printf(Locale.ROOT, "%10s %10s %10s %10s %10s %10s %12s %12s %10s%n",
+				"methods", "strings", "unique", "filtered", "pass ms", "ns/method", "peak heap MB", "retained MB",
+				"vs first");
+		double firstNsPerMethod = 0;
+		for (int step : steps) {
+			StepResult result = runStep(step);
+			double nsPerMethod = result.passNanos / (double) step;
+			if (firstNsPerMethod == 0) {
+				firstNsPerMethod = nsPerMethod;
+			}
+			System.out.printf(Locale.ROOT, "%10d %10d %10d %10d %10d %10.0f %12d %12.1f %10.2f%n",
+					step, result.strings, result.uniqueStrings, result.filtered, result.passNanos / 1_000_000,
+					nsPerMethod, result.peakHeap / MB, result.retained / (double) MB, nsPerMethod / firstNsPerMethod);
+		}
+	}
+
+	private static final class StepResult {
+		long strings;
+		long uniqueStrings;
+		int filtered;
+		long passNanos;
+		long peakHeap;
+		long retained;
+	}
+
+	private StepResult runStep(int methodsCount) throws IOException {
+		StepResult result = new StepResult();
+		Path dir = Files.createTempDirectory("magic-strings-scaling");
+		try {
+			List<File> inputs = generate(dir, methodsCount, result);
+			JadxArgs args = new JadxArgs();
+			args.setInputFiles(inputs);
+			// Pass is invoked directly below, loading it as a plugin would run it twice
+			args.setDisabledPlugins(Collections.singleton(MagicStringsPlugin.PLUGIN_ID));
+			try (JadxDecompiler jadx = new JadxDecompiler(args)) {
+				jadx.load();
+				RootNode root = jadx.getRoot();
+
+				collectGarbage();
+				resetPeakHeap();
+				long start = System.nanoTime();
+				new ExtractStringsPass().init(root);
+				result.passNanos = System.nanoTime() - start;
+				result.peakHeap = peakHeap();
+
+				MagicStringsData data = MagicStringsData.getData(root);
+				result.filtered = data.getFilteredCandidates().size();
+				data = null;
+				collectGarbage();
+				long withData = usedHeap();
+				MagicStringsData.setData(root, new MagicStringsData());
+				collectGarbage();
+				result.retained = Math.max(0, withData - usedHeap());
+			}
+		} finally {
+			deleteDir(dir);
+		}
+		return result;
+	}
+
+	/**
+	 * Write DEX files with {@code methodsCount} methods, split like a multidex app
+	 */
+	private List<File> generate(Path dir, int methodsCount, StepResult result) throws IOException {
+		Random random = new Random(seed);
+		Set<String> unique = new HashSet<>();
+		List<File> files = new ArrayList<>();
+		List<SyntheticDex.ClassSpec> classes = new ArrayList<>();
+		int dexMethods = 0;
+		int uniqueCounter = 0;
+		for (int m = 0; m < methodsCount; m++) {
+			if (m % methodsPerClass == 0) {
+				if (dexMethods + methodsPerClass > MAX_METHODS_PER_DEX) {
+					files.add(writeDex(dir, files.size(), classes));
+					classes.clear();
+					dexMethods = 0;
+				}
+				classes.add(new SyntheticDex.ClassSpec("Lbench/" + shortName(m / methodsPerClass) + "/C;"));
+			}
+			int count = random.nextInt((int) Math.round(density * 2) + 1);
+			String[] strings = new String[count];
+			for (int s = 0; s < count; s++) {
+				String str = pool[random.nextInt(pool.length)];
+				if (random.nextDouble() >= duplication) {
+					str = str + '#' + Integer.toString(uniqueCounter++, 36);
+				}
+				strings[s] = str;
+				unique.add(str);
+			}
+			result.strings += count;
+			classes.get(classes.size() - 1).methods.add(
+					new SyntheticDex.MethodSpec(shortName(m % methodsPerClass), strings));
+			dexMethods++;
+		}
+		if (!classes.isEmpty()) {
+			files.add(writeDex(dir, files.size(), classes));
+		}
+		result.uniqueStrings = unique.size();
+		return files;
+	}
+
+	private static File writeDex(Path dir, int index, List<SyntheticDex.ClassSpec> classes) throws IOException {
+		Path file = dir.resolve(index == 0 ? "classes.dex" : "classes" + (index + 1) + ".dex");
+		Files.write(file, SyntheticDex.build(classes));
+		return file.toFile();
+	}
+
+	/**
+	 * Obfuscator style name: a, b, ..., z, aa, ab, ...
+	 */
+	private static String shortName(int index) {
+		StringBuilder sb = new StringBuilder();
+		int i = index;
+		do {
+			sb.append((char) ('a' + i % 26));
+			i = i / 26 - 1;
+		} while (i >= 0);
+		return sb.reverse().toString();
+	}
+
+	private static void collectGarbage() {
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+	}
+
+	private static long usedHeap() {
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+
+	private static void resetPeakHeap() {
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				pool.resetPeakUsage();
+			}
+		}
+	}
+
+	private static long peakHeap() {
+		long peak = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				peak += pool.getPeakUsage().getUsed();
+			}
+		}
+		return peak;
+	}
+
+	private static void deleteDir(Path dir) throws IOException {
+		try (Stream<Path> files = Files.walk(dir)) {
+			files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		}
+	}
+}
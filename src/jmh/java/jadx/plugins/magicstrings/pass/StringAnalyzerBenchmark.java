@@ -0,0 +1,195 @@
+/**
+ * Benchmarks for the string analysis hot path of ExtractStringsPass.
+ *
+ * Every invocation analyses one string of the selected class, cycling through the corpus,
+ * so Throughput gives strings per microsecond and SampleTime gives the latency distribution
+ * (p99 included) per string class. Run with the gc profiler (enabled in the build script)
+ * to get the allocation rate:
+ *
+ * <pre>
+ * ./gradlew jmh
+ * </pre>
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.pass;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StringAnalyzerBenchmark {
+
+	@Param({ "LOG", "PATH", "JSON", "BASE64", "IDENTIFIER", "TEXT" })
+	public String stringClass;
+
+	// Patterns replaced by CamelCaseScanner, to compare both on the same tokens
+	private static final Pattern METHOD_NAMES_REGEXP = Pattern.compile(
+			"^[a-z][a-z0-9_]*([A-Z][a-z0-9_]*)*$");
+	private static final Pattern METHOD_NAMES_FIND_PATTERN = Pattern.compile(
+			"\\b[a-z][a-z0-9_]*(?:[A-Z][a-z0-9_]*)+\\b");
+
+	private final StringAnalyzer analyzer = new StringAnalyzer();
+	private final Matcher exactMatcher = METHOD_NAMES_REGEXP.matcher("");
+	private final Matcher findMatcher = METHOD_NAMES_FIND_PATTERN.matcher("");
+	private final CamelCaseScanner camelCaseScanner = new CamelCaseScanner();
+
+	private String[] strings;
+	private String[] tokens;
+	private ScoreInput[] scoreInputs;
+	private int stringIndex;
+	private int tokenIndex;
+	private int scoreIndex;
+
+	/**
+	 * Arguments of one real scoreCandidate call, collected from the corpus
+	 */
+	private static final class ScoreInput {
+		final String str;
+		final int candidateStart;
+		final int candidateEnd;
+		final int tokenIndex;
+
+		ScoreInput(String str, int candidateStart, int candidateEnd, int tokenIndex) {
+			this.str = str;
+			this.candidateStart = candidateStart;
+			this.candidateEnd = candidateEnd;
+			this.tokenIndex = tokenIndex;
+		}
+	}
+
+	@Setup
+	public void setup() {
+		strings = StringCorpus.load(stringClass);
+		List<String> allTokens = new ArrayList<>();
+		List<ScoreInput> inputs = new ArrayList<>();
+		for (String str : strings) {
+			int[] bounds = analyzer.tokenBounds(str);
+			for (int i = 0; i < bounds.length; i += 2) {
+				allTokens.add(str.substring(bounds[i], bounds[i + 1]).trim());
+			}
+			StringAnalysis analysis = analyzer.checkMethodNames(str);
+			for (int c = 0; c < analysis.getCandidatesCount(); c++) {
+				String candidate = analysis.getCandidate(c);
+				for (int i = 0; i < bounds.length; i += 2) {
+					int pos = str.substring(bounds[i], bounds[i + 1]).indexOf(candidate);
+					if (pos >= 0) {
+						int start = bounds[i] + pos;
+						inputs.add(new ScoreInput(str, start, start + candidate.length(), i / 2));
+						break;
+					}
+				}
+			}
+		}
+		if (inputs.isEmpty()) {
+			// No candidates in this class (e.g. base64), score whole tokens to still measure the rejection path
+			for (String str : strings) {
+				int[] bounds = analyzer.tokenBounds(str);
+				if (bounds.length != 0) {
+					inputs.add(new ScoreInput(str, bounds[0], bounds[1], 0));
+				}
+			}
+		}
+		tokens = allTokens.toArray(new String[0]);
+		scoreInputs = inputs.toArray(new ScoreInput[0]);
+	}
+
+	private String nextString() {
+		String str = strings[stringIndex];
+		stringIndex = stringIndex + 1 == strings.length ? 0 : stringIndex + 1;
+		return str;
+	}
+
+	@Benchmark
+	public StringAnalysis analyze() {
+		return analyzer.analyze(nextString());
+	}
+
+	@Benchmark
+	public int tokenize() {
+		return analyzer.tokenize(nextString());
+	}
+
+	private String nextToken() {
+		String token = tokens[tokenIndex];
+		tokenIndex = tokenIndex + 1 == tokens.length ? 0 : tokenIndex + 1;
+		return token;
+	}
+
+	@Benchmark
+	public boolean isExcludedToken() {
+		return analyzer.isExcludedToken(nextToken());
+	}
+
+	/**
+	 * Regexes replaced by {@link CamelCaseScanner}, baseline of camelCaseScanner()
+	 */
+	@Benchmark
+	public int camelCaseRegex() {
+		String token = nextToken();
+		if (exactMatcher.reset(token).matches()) {
+			return 1;
+		}
+		int count = 0;
+		findMatcher.reset(token);
+		while (findMatcher.find()) {
+			count++;
+		}
+		return count;
+	}
+
+	@Benchmark
+	public int camelCaseScanner() {
+		String token = nextToken();
+		if (CamelCaseScanner.isMethodName(token, 0, token.length())) {
+			return 1;
+		}
+		int count = 0;
+		CamelCaseScanner scanner = camelCaseScanner.reset(token, 0, token.length());
+		while (scanner.find()) {
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Includes tokenization of the string, scoring needs the neighbouring tokens
+	 */
+	@Benchmark
+	public int scoreCandidate() {
+		ScoreInput in = scoreInputs[scoreIndex];
+		scoreIndex = scoreIndex + 1 == scoreInputs.length ? 0 : scoreIndex + 1;
+		return analyzer.scoreCandidate(in.str, in.candidateStart, in.candidateEnd, in.tokenIndex);
+	}
+
+	@Benchmark
+	public String checkSourceFile() {
+		return analyzer.checkSourceFile(nextString());
+	}
+
+	@Benchmark
+	public StringAnalysis checkMethodNames() {
+		return analyzer.checkMethodNames(nextString());
+	}
+}
@@ -0,0 +1,75 @@
+/**
+ * Benchmark input: checked-in corpus of string constants grouped by string class.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.pass;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+final class StringCorpus {
+	private static final String RESOURCE = "/corpus/strings.tsv";
+
+	private StringCorpus() {
+	}
+
+	/**
+	 * All strings of one class ("LOG", "PATH", "JSON", "BASE64", "IDENTIFIER", "TEXT") in file order
+	 */
+	static String[] load(String stringClass) {
+		List<String> result = new ArrayList<>();
+		try (InputStream in = StringCorpus.class.getResourceAsStream(RESOURCE)) {
+			if (in == null) {
+				throw new IllegalStateException("Corpus resource not found: " + RESOURCE);
+			}
+			BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.isEmpty() || line.startsWith("#")) {
+					continue;
+				}
+				int tab = line.indexOf('\t');
+				if (tab > 0 && line.substring(0, tab).equals(stringClass)) {
+					result.add(unescape(line.substring(tab + 1)));
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		if (result.isEmpty()) {
+			throw new IllegalArgumentException("Unknown string class: " + stringClass);
+		}
+		return result.toArray(new String[0]);
+	}
+
+	private static String unescape(String value) {
+		if (value.indexOf('\\') == -1) {
+			return value;
+		}
+		StringBuilder sb = new StringBuilder(value.length());
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '\\' && i + 1 < value.length()) {
+				char next = value.charAt(++i);
+				if (next == 't') {
+					sb.append('\t');
+				} else if (next == 'n') {
+					sb.append('\n');
+				} else {
+					sb.append(next);
+				}
+			} else {
+				sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+}
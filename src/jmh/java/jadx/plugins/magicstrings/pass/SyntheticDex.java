@@ -0,0 +1,390 @@
+/**
+ * Minimal DEX file writer for synthetic benchmark inputs.
+ *
+ * Produces classes extending java.lang.Object with public static void no-arg methods,
+ * each method body is a sequence of const-string instructions followed by return-void.
+ * That is all ExtractStringsPass looks at, so the output can be loaded by the regular
+ * jadx dex input plugin without any other tooling.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.pass;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.zip.Adler32;
+
+final class SyntheticDex {
+	private static final int HEADER_SIZE = 0x70;
+	private static final int ENDIAN_CONSTANT = 0x12345678;
+	private static final int NO_INDEX = -1;
+	private static final int ACC_PUBLIC = 0x1;
+	private static final int ACC_STATIC = 0x8;
+	private static final int OP_RETURN_VOID = 0x0e;
+	private static final int OP_CONST_STRING = 0x1a;
+	private static final int OP_CONST_STRING_JUMBO = 0x1b;
+
+	private static final int TYPE_HEADER_ITEM = 0x0000;
+	private static final int TYPE_STRING_ID_ITEM = 0x0001;
+	private static final int TYPE_TYPE_ID_ITEM = 0x0002;
+	private static final int TYPE_PROTO_ID_ITEM = 0x0003;
+	private static final int TYPE_METHOD_ID_ITEM = 0x0005;
+	private static final int TYPE_CLASS_DEF_ITEM = 0x0006;
+	private static final int TYPE_MAP_LIST = 0x1000;
+	private static final int TYPE_CLASS_DATA_ITEM = 0x2000;
+	private static final int TYPE_CODE_ITEM = 0x2001;
+	private static final int TYPE_STRING_DATA_ITEM = 0x2002;
+
+	private static final String OBJECT_TYPE = "Ljava/lang/Object;";
+	private static final String VOID_TYPE = "V";
+
+	static final class ClassSpec {
+		final String type;
+		final List<MethodSpec> methods = new ArrayList<>();
+
+		ClassSpec(String type) {
+			this.type = type;
+		}
+	}
+
+	static final class MethodSpec {
+		final String name;
+		final String[] strings;
+
+		MethodSpec(String name, String[] strings) {
+			this.name = name;
+			this.strings = strings;
+		}
+	}
+
+	private SyntheticDex() {
+	}
+
+	/**
+	 * Build a complete DEX file (version 035) with the given classes
+	 */
+	static byte[] build(List<ClassSpec> classes) {
+		// Strings must be sorted (ids are assigned in sorted order), all other ids refer to them
+		TreeSet<String> allStrings = new TreeSet<>();
+		allStrings.add(VOID_TYPE);
+		allStrings.add(OBJECT_TYPE);
+		for (ClassSpec cls : classes) {
+			allStrings.add(cls.type);
+			for (MethodSpec mth : cls.methods) {
+				allStrings.add(mth.name);
+				allStrings.addAll(Arrays.asList(mth.strings));
+			}
+		}
+		String[] strings = allStrings.toArray(new String[0]);
+		Map<String, Integer> stringIds = new HashMap<>(strings.length * 2);
+		for (int i = 0; i < strings.length; i++) {
+			stringIds.put(strings[i], i);
+		}
+
+		// Types sorted by string id
+		TreeSet<Integer> typeStrings = new TreeSet<>();
+		typeStrings.add(stringIds.get(VOID_TYPE));
+		typeStrings.add(stringIds.get(OBJECT_TYPE));
+		for (ClassSpec cls : classes) {
+			typeStrings.add(stringIds.get(cls.type));
+		}
+		int[] types = typeStrings.stream().mapToInt(Integer::intValue).toArray();
+		Map<Integer, Integer> typeIds = new HashMap<>();
+		for (int i = 0; i < types.length; i++) {
+			typeIds.put(types[i], i);
+		}
+
+		// Methods sorted by (class type id, name string id), all share the single "()V" proto
+		List<long[]> methodKeys = new ArrayList<>();
+		Map<MethodSpec, Integer> methodOwner = new HashMap<>();
+		for (ClassSpec cls : classes) {
+			int classType = typeIds.get(stringIds.get(cls.type));
+			for (MethodSpec mth : cls.methods) {
+				methodKeys.add(new long[] { classType, stringIds.get(mth.name) });
+				methodOwner.put(mth, classType);
+			}
+		}
+		methodKeys.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+		Map<Long, Integer> methodIds = new HashMap<>(methodKeys.size() * 2);
+		for (int i = 0; i < methodKeys.size(); i++) {
+			long[] key = methodKeys.get(i);
+			methodIds.put(key[0] << 32 | key[1], i);
+		}
+
+		List<ClassSpec> sortedClasses = new ArrayList<>(classes);
+		sortedClasses.sort((a, b) -> Integer.compare(stringIds.get(a.type), stringIds.get(b.type)));
+
+		int stringIdsOff = HEADER_SIZE;
+		int typeIdsOff = stringIdsOff + strings.length * 4;
+		int protoIdsOff = typeIdsOff + types.length * 4;
+		int methodIdsOff = protoIdsOff + 12;
+		int classDefsOff = methodIdsOff + methodKeys.size() * 8;
+		int dataOff = classDefsOff + sortedClasses.size() * 32;
+
+		Output out = new Output(dataOff + methodKeys.size() * 16);
+		out.position(dataOff);
+
+		// Code items
+		int codeStart = out.position();
+		Map<MethodSpec, Integer> codeOffsets = new HashMap<>(methodKeys.size() * 2);
+		for (ClassSpec cls : sortedClasses) {
+			for (MethodSpec mth : cls.methods) {
+				out.align(4);
+				codeOffsets.put(mth, out.position());
+				int insnsSize = 1;
+				for (String str : mth.strings) {
+					insnsSize += stringIds.get(str) > 0xFFFF ? 3 : 2;
+				}
+				out.u2(1); // registers
+				out.u2(0); // ins
+				out.u2(0); // outs
+				out.u2(0); // tries
+				out.u4(0); // debug info
+				out.u4(insnsSize);
+				for (String str : mth.strings) {
+					int id = stringIds.get(str);
+					if (id > 0xFFFF) {
+						out.u2(OP_CONST_STRING_JUMBO);
+						out.u4(id);
+					} else {
+						out.u2(OP_CONST_STRING);
+						out.u2(id);
+					}
+				}
+				out.u2(OP_RETURN_VOID);
+			}
+		}
+
+		// Class data
+		int classDataStart = out.position();
+		int[] classDataOffsets = new int[sortedClasses.size()];
+		for (int c = 0; c < sortedClasses.size(); c++) {
+			ClassSpec cls = sortedClasses.get(c);
+			classDataOffsets[c] = out.position();
+			List<MethodSpec> methods = new ArrayList<>(cls.methods);
+			methods.sort((a, b) -> Integer.compare(stringIds.get(a.name), stringIds.get(b.name)));
+			out.uleb(0); // static fields
+			out.uleb(0); // instance fields
+			out.uleb(methods.size()); // direct methods
+			out.uleb(0); // virtual methods
+			int prevId = 0;
+			for (MethodSpec mth : methods) {
+				int id = methodIds.get((long) methodOwner.get(mth) << 32 | stringIds.get(mth.name));
+				out.uleb(id - prevId);
+				out.uleb(ACC_PUBLIC | ACC_STATIC);
+				out.uleb(codeOffsets.get(mth));
+				prevId = id;
+			}
+		}
+
+		// String data
+		int stringDataStart = out.position();
+		int[] stringDataOffsets = new int[strings.length];
+		for (int i = 0; i < strings.length; i++) {
+			stringDataOffsets[i] = out.position();
+			out.uleb(strings[i].length());
+			out.bytes(mutf8(strings[i]));
+			out.u1(0);
+		}
+
+		out.align(4);
+		int mapOff = out.position();
+		int[][] mapItems = {
+				{ TYPE_HEADER_ITEM, 1, 0 },
+				{ TYPE_STRING_ID_ITEM, strings.length, stringIdsOff },
+				{ TYPE_TYPE_ID_ITEM, types.length, typeIdsOff },
+				{ TYPE_PROTO_ID_ITEM, 1, protoIdsOff },
+				{ TYPE_METHOD_ID_ITEM, methodKeys.size(), methodIdsOff },
+				{ TYPE_CLASS_DEF_ITEM, sortedClasses.size(), classDefsOff },
+				{ TYPE_CODE_ITEM, methodKeys.size(), codeStart },
+				{ TYPE_CLASS_DATA_ITEM, sortedClasses.size(), classDataStart },
+				{ TYPE_STRING_DATA_ITEM, strings.length, stringDataStart },
+				{ TYPE_MAP_LIST, 1, mapOff },
+		};
+		int mapSize = 0;
+		for (int[] item : mapItems) {
+			if (item[1] != 0) {
+				mapSize++;
+			}
+		}
+		out.u4(mapSize);
+		for (int[] item : mapItems) {
+			if (item[1] != 0) {
+				out.u2(item[0]);
+				out.u2(0);
+				out.u4(item[1]);
+				out.u4(item[2]);
+			}
+		}
+		int fileSize = out.position();
+
+		// Id sections
+		out.position(stringIdsOff);
+		for (int offset : stringDataOffsets) {
+			out.u4(offset);
+		}
+		for (int type : types) {
+			out.u4(type);
+		}
+		out.u4(stringIds.get(VOID_TYPE)); // shorty
+		out.u4(typeIds.get(stringIds.get(VOID_TYPE))); // return type
+		out.u4(0); // no parameters
+		for (long[] key : methodKeys) {
+			out.u2((int) key[0]);
+			out.u2(0); // proto
+			out.u4((int) key[1]);
+		}
+		for (int c = 0; c < sortedClasses.size(); c++) {
+			out.u4(typeIds.get(stringIds.get(sortedClasses.get(c).type)));
+			out.u4(ACC_PUBLIC);
+			out.u4(typeIds.get(stringIds.get(OBJECT_TYPE)));
+			out.u4(0); // interfaces
+			out.u4(NO_INDEX); // source file
+			out.u4(0); // annotations
+			out.u4(classDataOffsets[c]);
+			out.u4(0); // static values
+		}
+
+		// Header, checksum and signature last
+		out.position(0);
+		out.bytes("dex\n035\0".getBytes(StandardCharsets.US_ASCII));
+		out.position(32);
+		out.u4(fileSize);
+		out.u4(HEADER_SIZE);
+		out.u4(ENDIAN_CONSTANT);
+		out.u4(0); // link size
+		out.u4(0); // link offset
+		out.u4(mapOff);
+		out.u4(strings.length);
+		out.u4(stringIdsOff);
+		out.u4(types.length);
+		out.u4(typeIdsOff);
+		out.u4(1);
+		out.u4(protoIdsOff);
+		out.u4(0); // fields
+		out.u4(0);
+		out.u4(methodKeys.size());
+		out.u4(methodIdsOff);
+		out.u4(sortedClasses.size());
+		out.u4(classDefsOff);
+		out.u4(fileSize - dataOff);
+		out.u4(dataOff);
+
+		byte[] dex = Arrays.copyOf(out.data, fileSize);
+		System.arraycopy(sha1(dex, 32), 0, dex, 12, 20);
+		Adler32 adler = new Adler32();
+		adler.update(dex, 12, dex.length - 12);
+		int checksum = (int) adler.getValue();
+		dex[8] = (byte) checksum;
+		dex[9] = (byte) (checksum >>> 8);
+		dex[10] = (byte) (checksum >>> 16);
+		dex[11] = (byte) (checksum >>> 24);
+		return dex;
+	}
+
+	/**
+	 * Modified UTF-8 as used by DEX: no zero bytes, surrogates encoded separately
+	 */
+	private static byte[] mutf8(String str) {
+		byte[] result = new byte[str.length() * 3];
+		int len = 0;
+		for (int i = 0; i < str.length(); i++) {
+			char c = str.charAt(i);
+			if (c != 0 && c < 0x80) {
+				result[len++] = (byte) c;
+			} else if (c < 0x800) {
+				result[len++] = (byte) (0xC0 | (c >> 6));
+				result[len++] = (byte) (0x80 | (c & 0x3F));
+			} else {
+				result[len++] = (byte) (0xE0 | (c >> 12));
+				result[len++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+				result[len++] = (byte) (0x80 | (c & 0x3F));
+			}
+		}
+		return Arrays.copyOf(result, len);
+	}
+
+	private static byte[] sha1(byte[] data, int from) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			digest.update(data, from, data.length - from);
+			return digest.digest();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Little-endian growable byte buffer with random access
+	 */
+	private static final class Output {
+		private byte[] data;
+		private int pos;
+
+		Output(int capacity) {
+			data = new byte[capacity];
+		}
+
+		int position() {
+			return pos;
+		}
+
+		void position(int position) {
+			pos = position;
+		}
+
+		void u1(int value) {
+			ensure(1);
+			data[pos++] = (byte) value;
+		}
+
+		void u2(int value) {
+			ensure(2);
+			data[pos++] = (byte) value;
+			data[pos++] = (byte) (value >>> 8);
+		}
+
+		void u4(int value) {
+			ensure(4);
+			data[pos++] = (byte) value;
+			data[pos++] = (byte) (value >>> 8);
+			data[pos++] = (byte) (value >>> 16);
+			data[pos++] = (byte) (value >>> 24);
+		}
+
+		void uleb(int value) {
+			int v = value;
+			while ((v & ~0x7F) != 0) {
+				u1((v & 0x7F) | 0x80);
+				v >>>= 7;
+			}
+			u1(v);
+		}
+
+		void bytes(byte[] bytes) {
+			ensure(bytes.length);
+			System.arraycopy(bytes, 0, data, pos, bytes.length);
+			pos += bytes.length;
+		}
+
+		void align(int alignment) {
+			while (pos % alignment != 0) {
+				u1(0);
+			}
+		}
+
+		private void ensure(int size) {
+			if (pos + size > data.length) {
+				data = Arrays.copyOf(data, Math.max(pos + size, data.length * 2));
+			}
+		}
+	}
+}
@@ -0,0 +1,92 @@
+/**
+ * Plugin options (set from jadx-cli with -P or in jadx-gui plugin preferences).
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import jadx.api.plugins.options.impl.BasePluginOptionsBuilder;
+
+public class MagicStringsOptions extends BasePluginOptionsBuilder {
+	public static final boolean DEFAULT_BLOB_FILTER = true;
+	public static final int DEFAULT_MIN_BLOB_LENGTH = 64;
+	public static final int DEFAULT_MAX_ANALYZE_LENGTH = 8192;
+	public static final int DEFAULT_MAX_STORED_LENGTH = 4096;
+	public static final boolean DEFAULT_DETAILED_TIMING = false;
+
+	private boolean blobFilter = DEFAULT_BLOB_FILTER;
+	private int minBlobLength = DEFAULT_MIN_BLOB_LENGTH;
+	private int maxAnalyzeLength = DEFAULT_MAX_ANALYZE_LENGTH;
+	private int maxStoredLength = DEFAULT_MAX_STORED_LENGTH;
+	private String stoplists = "";
+	private boolean detailedTiming = DEFAULT_DETAILED_TIMING;
+
+	@Override
+	public void registerOptions() {
+		boolOption(MagicStringsPlugin.PLUGIN_ID + ".blob-filter")
+				.description("skip analysis of base64, hex, large JSON and high-entropy strings")
+				.defaultValue(DEFAULT_BLOB_FILTER)
+				.setter(v -> blobFilter = v);
+		intOption(MagicStringsPlugin.PLUGIN_ID + ".min-blob-length")
+				.description("shorter strings are never classified as blobs")
+				.defaultValue(DEFAULT_MIN_BLOB_LENGTH)
+				.setter(v -> minBlobLength = v);
+		intOption(MagicStringsPlugin.PLUGIN_ID + ".max-analyze-length")
+				.description("analyze only this many leading chars of longer strings, 0 - no limit")
+				.defaultValue(DEFAULT_MAX_ANALYZE_LENGTH)
+				.setter(v -> maxAnalyzeLength = v);
+		intOption(MagicStringsPlugin.PLUGIN_ID + ".max-stored-length")
+				.description("truncate longer strings in results, 0 - no limit")
+				.defaultValue(DEFAULT_MAX_STORED_LENGTH)
+				.setter(v -> maxStoredLength = v);
+		strOption(MagicStringsPlugin.PLUGIN_ID + ".stoplists")
+				.description("extra stoplist files (compiled or word lists) separated by " + File.pathSeparator)
+				.defaultValue("")
+				.setter(v -> stoplists = v);
+		boolOption(MagicStringsPlugin.PLUGIN_ID + ".detailed-timing")
+				.description("time every analysed string and its phases (slower), otherwise only methods and classes are timed")
+				.defaultValue(DEFAULT_DETAILED_TIMING)
+				.setter(v -> detailedTiming = v);
+	}
+
+	public boolean isBlobFilter() {
+		return blobFilter;
+	}
+
+	public int getMinBlobLength() {
+		return minBlobLength;
+	}
+
+	public int getMaxAnalyzeLength() {
+		return maxAnalyzeLength;
+	}
+
+	public int getMaxStoredLength() {
+		return maxStoredLength;
+	}
+
+	public boolean isDetailedTiming() {
+		return detailedTiming;
+	}
+
+	/**
+	 * Paths of extra stoplist files, empty if not set
+	 */
+	public List<Path> getStoplists() {
+		List<Path> paths = new ArrayList<>();
+		for (String path : stoplists.split(Pattern.quote(File.pathSeparator))) {
+			if (!path.isBlank()) {
+				paths.add(Paths.get(path.trim()));
+			}
+		}
+		return paths;
+	}
+}
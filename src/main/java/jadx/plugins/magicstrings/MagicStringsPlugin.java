@@ -28,6 +28,16 @@ public class MagicStringsPlugin implements JadxPlugin {
 	private static final Logger LOG = LoggerFactory.getLogger(MagicStringsPlugin.class);
 	public static final String PLUGIN_ID = "magic-strings";
 
+	private final MagicStringsOptions options = new MagicStringsOptions();
+
+	/**
+	 * Plugin version from the jar manifest, "dev" when running from classes
+	 */
+	public static String getVersion() {
+		String version = MagicStringsPlugin.class.getPackage().getImplementationVersion();
+		return version != null ? version : "dev";
+	}
+
 	@Override
 	public JadxPluginInfo getPluginInfo() {
 		JadxPluginInfo info = new JadxPluginInfo(PLUGIN_ID, "Magic Strings",
@@ -40,7 +50,8 @@ public class MagicStringsPlugin implements JadxPlugin {
 	@Override
 	public void init(JadxPluginContext context) {
 		LOG.debug("Magic Strings Plugin: init() called - registering ExtractStringsPass");
-		context.addPass(new ExtractStringsPass());
+		context.registerOptions(options);
+		context.addPass(new ExtractStringsPass(context, options));
 		LOG.info("Magic Strings Plugin started");
 
 		JadxGuiContext guiContext = context.getGuiContext();
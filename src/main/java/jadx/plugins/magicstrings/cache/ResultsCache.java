@@ -0,0 +1,253 @@
+/**
+ * Persistent cache of extraction results.
+ *
+ * Finished MagicStringsData is stored in the JADX plugin cache directory under a key built from
+ * the content of the loaded input files, the plugin version and all settings which can change
+ * the result. Reopening the same inputs memory-maps the stored file instead of running the
+ * extraction again. A cache hit is not zero-copy: the whole file is decoded into a new MagicStringsData
+ * on load (symbols interned, rarity rebuilt), which is still much cheaper than the extraction.
+ *
+ * Each set of input paths also keeps a pointer to its latest entry, so after the inputs change
+ * (e.g. a reload after rebuilding the APK) the previous results can be updated incrementally.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jadx.api.JadxArgs;
+import jadx.api.JadxDecompiler;
+import jadx.api.data.ICodeData;
+import jadx.api.data.ICodeRename;
+import jadx.api.data.IJavaNodeRef;
+import jadx.plugins.magicstrings.data.MagicStringsData;
+
+public class ResultsCache {
+	private static final Logger LOG = LoggerFactory.getLogger(ResultsCache.class);
+
+	private static final String FILE_EXT = ".msd";
+	private static final String LINEAGE_EXT = ".latest";
+	private static final int MAX_ENTRIES = 16; // Oldest results are removed when exceeded
+	private static final int READ_BUFFER_SIZE = 1 << 16;
+
+	private final Path cacheDir;
+
+	public ResultsCache(Path cacheDir) {
+		this.cacheDir = cacheDir;
+	}
+
+	/**
+	 * Build cache key: SHA-256 of input files content, plugin version and settings.
+	 * JADX code args hash covers decompilation, deobfuscation and plugin options,
+	 * user renames are added separately because they change stored class and method names.
+	 */
+	public static String buildKey(JadxArgs args, JadxDecompiler decompiler, String pluginVersion, String settings)
+			throws IOException {
+		MessageDigest digest = newDigest();
+		update(digest, "plugin:" + pluginVersion);
+		update(digest, "settings:" + settings);
+		if (decompiler != null) {
+			update(digest, "args:" + args.makeCodeArgsHash(decompiler));
+		}
+		ICodeData codeData = args.getCodeData();
+		if (codeData != null) {
+			for (ICodeRename rename : codeData.getRenames()) {
+				IJavaNodeRef nodeRef = rename.getNodeRef();
+				if (rename.getCodeRef() == null && nodeRef != null) {
+					update(digest, "rename:" + nodeRef.getType() + ':' + nodeRef.getDeclaringClass()
+							+ ':' + nodeRef.getShortId() + ':' + rename.getNewName());
+				}
+			}
+		}
+		byte[] buffer = new byte[READ_BUFFER_SIZE];
+		for (File file : args.getInputFiles()) {
+			update(digest, "input:" + file.length());
+			try (InputStream in = Files.newInputStream(file.toPath())) {
+				int read;
+				while ((read = in.read(buffer)) != -1) {
+					digest.update(buffer, 0, read);
+				}
+			}
+		}
+		return toHex(digest.digest());
+	}
+
+	/**
+	 * Build lineage key: SHA-256 of input file paths, plugin version and settings.
+	 * Unlike {@link #buildKey} it doesn't depend on the content, so it stays the same when inputs are rebuilt.
+	 */
+	public static String buildLineageKey(JadxArgs args, String pluginVersion, String settings) {
+		MessageDigest digest = newDigest();
+		update(digest, "plugin:" + pluginVersion);
+		update(digest, "settings:" + settings);
+		for (File file : args.getInputFiles()) {
+			update(digest, "path:" + file.getAbsolutePath());
+		}
+		return toHex(digest.digest());
+	}
+
+	/**
+	 * Load the latest results saved for the lineage key or return null if there are none
+	 */
+	public MagicStringsData loadPrevious(String lineageKey) {
+		Path file = cacheDir.resolve(lineageKey + LINEAGE_EXT);
+		if (!Files.isRegularFile(file)) {
+			return null;
+		}
+		String key;
+		try {
+			key = new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim();
+		} catch (IOException e) {
+			LOG.debug("Magic Strings: Failed to read cache lineage file {}", file, e);
+			return null;
+		}
+		// Only a key written by saveLineage is accepted as a file name
+		return key.matches("[0-9a-f]{64}") ? load(key) : null;
+	}
+
+	/**
+	 * Point the lineage key to the entry saved under {@code key}
+	 */
+	public void saveLineage(String lineageKey, String key) {
+		Path file = cacheDir.resolve(lineageKey + LINEAGE_EXT);
+		try {
+			Files.createDirectories(cacheDir);
+			Files.write(file, key.getBytes(StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			LOG.warn("Magic Strings: Failed to save cache lineage to {}", file, e);
+		}
+	}
+
+	/**
+	 * Load cached results or return null if there is no valid entry for the key.
+	 * The mapped file is decoded eagerly, the returned data doesn't reference it.
+	 */
+	public MagicStringsData load(String key) {
+		Path file = entryPath(key);
+		if (!Files.isRegularFile(file)) {
+			return null;
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			MagicStringsData data = MagicStringsData.readFrom(buf);
+			// Keep recently used entries from being pruned
+			Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+			return data;
+		} catch (Exception e) {
+			LOG.warn("Magic Strings: Failed to load cached results from {}, removing it", file, e);
+			deleteQuietly(file);
+			return null;
+		}
+	}
+
+	public void save(String key, MagicStringsData data) {
+		Path file = entryPath(key);
+		Path tmpFile = null;
+		try {
+			Files.createDirectories(cacheDir);
+			tmpFile = Files.createTempFile(cacheDir, key, ".tmp");
+			try (OutputStream out = Files.newOutputStream(tmpFile)) {
+				data.writeTo(out);
+			}
+			try {
+				Files.move(tmpFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+			tmpFile = null;
+			prune();
+		} catch (Exception e) {
+			LOG.warn("Magic Strings: Failed to save results to cache dir {}", cacheDir, e);
+		} finally {
+			if (tmpFile != null) {
+				deleteQuietly(tmpFile);
+			}
+		}
+	}
+
+	private void prune() throws IOException {
+		List<Path> entries;
+		try (Stream<Path> files = Files.list(cacheDir)) {
+			entries = files.filter(p -> p.getFileName().toString().endsWith(FILE_EXT))
+					.collect(Collectors.toCollection(ArrayList::new));
+		}
+		if (entries.size() <= MAX_ENTRIES) {
+			return;
+		}
+		entries.sort(Comparator.comparing(ResultsCache::lastModified).reversed());
+		for (Path entry : entries.subList(MAX_ENTRIES, entries.size())) {
+			deleteQuietly(entry);
+		}
+	}
+
+	private Path entryPath(String key) {
+		return cacheDir.resolve(key + FILE_EXT);
+	}
+
+	private static FileTime lastModified(Path file) {
+		try {
+			return Files.getLastModifiedTime(file);
+		} catch (IOException e) {
+			return FileTime.fromMillis(0);
+		}
+	}
+
+	private static void deleteQuietly(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			// Mapped files can't be deleted on some platforms, will be retried on next prune
+			LOG.debug("Magic Strings: Failed to delete cache file {}", file, e);
+		}
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	private static void update(MessageDigest digest, String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		digest.update((byte) (bytes.length >>> 24));
+		digest.update((byte) (bytes.length >>> 16));
+		digest.update((byte) (bytes.length >>> 8));
+		digest.update((byte) bytes.length);
+		digest.update(bytes);
+	}
+
+	private static String toHex(byte[] bytes) {
+		StringBuilder sb = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+			sb.append(Character.forDigit(b & 0xF, 16));
+		}
+		return sb.toString();
+	}
+}
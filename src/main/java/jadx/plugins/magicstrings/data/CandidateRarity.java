@@ -0,0 +1,58 @@
+/**
+ * Number of methods using each candidate, indexed by candidate symbol id.
+ *
+ * Only the count is needed for filtering, so no per-candidate set of methods is kept.
+ * Alongside the count the xor of all user method ids is stored: while a candidate has
+ * a single user it is exactly that method id, which is enough to mark the method dirty
+ * when its candidate stops (or starts) being unique.
+ *
+ * Not thread-safe: the owner is responsible for guarding access.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.data;
+
+import java.util.Arrays;
+
+final class CandidateRarity {
+	private static final int[] EMPTY = new int[0];
+
+	private int[] counts = EMPTY;
+	private int[] usersXor = EMPTY;
+
+	/**
+	 * Count a new (candidate, method) pair, each pair must be added only once
+	 */
+	void addUser(int candidateId, int methodId) {
+		if (candidateId >= counts.length) {
+			int capacity = Math.max(candidateId + 1, counts.length * 2);
+			counts = Arrays.copyOf(counts, capacity);
+			usersXor = Arrays.copyOf(usersXor, capacity);
+		}
+		counts[candidateId]++;
+		usersXor[candidateId] ^= methodId;
+	}
+
+	/**
+	 * Uncount a (candidate, method) pair added before
+	 */
+	void removeUser(int candidateId, int methodId) {
+		counts[candidateId]--;
+		usersXor[candidateId] ^= methodId;
+	}
+
+	/**
+	 * Number of methods using the candidate
+	 */
+	int count(int candidateId) {
+		return candidateId >= 0 && candidateId < counts.length ? counts[candidateId] : 0;
+	}
+
+	/**
+	 * The only method using the candidate, valid only while {@code count(candidateId) == 1}
+	 */
+	int soleUser(int candidateId) {
+		return usersXor[candidateId];
+	}
+}
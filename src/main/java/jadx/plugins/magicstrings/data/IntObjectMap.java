@@ -0,0 +1,128 @@
+/**
+ * Insertion-ordered map from int id to value.
+ *
+ * Entries are kept in parallel arrays and can be walked by position,
+ * which gives a deterministic iteration order (first insertion wins).
+ *
+ * Not thread-safe: the owner is responsible for guarding access.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.data;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+final class IntObjectMap<V> {
+	private static final int INITIAL_CAPACITY = 16;
+
+	private int[] keys = new int[INITIAL_CAPACITY];
+	private Object[] values = new Object[INITIAL_CAPACITY];
+	private int size;
+
+	// Open addressing index, stores (position + 1), 0 for empty slot
+	private int[] slots = new int[INITIAL_CAPACITY * 2];
+
+	V get(int key) {
+		int index = indexOf(key);
+		return index >= 0 ? valueAt(index) : null;
+	}
+
+	V computeIfAbsent(int key, IntFunction<V> factory) {
+		int mask = slots.length - 1;
+		int slot = IntSet.spread(key) & mask;
+		while (true) {
+			int entry = slots[slot];
+			if (entry == 0) {
+				break;
+			}
+			if (keys[entry - 1] == key) {
+				return valueAt(entry - 1);
+			}
+			slot = (slot + 1) & mask;
+		}
+		V value = factory.apply(key);
+		int index = size;
+		if (index == keys.length) {
+			keys = Arrays.copyOf(keys, index * 2);
+			values = Arrays.copyOf(values, index * 2);
+		}
+		keys[index] = key;
+		values[index] = value;
+		size++;
+		slots[slot] = index + 1;
+		if (size * 2 > slots.length) {
+			rehash(slots.length * 2);
+		}
+		return value;
+	}
+
+	/**
+	 * Position of the key in insertion order or -1 if absent
+	 */
+	int indexOf(int key) {
+		int mask = slots.length - 1;
+		int slot = IntSet.spread(key) & mask;
+		while (true) {
+			int entry = slots[slot];
+			if (entry == 0) {
+				return -1;
+			}
+			if (keys[entry - 1] == key) {
+				return entry - 1;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	/**
+	 * Remove entries with keys contained in {@code removeKeys}, keeping insertion order of the rest
+	 */
+	void removeAll(IntSet removeKeys) {
+		int kept = 0;
+		for (int i = 0; i < size; i++) {
+			if (!removeKeys.contains(keys[i])) {
+				keys[kept] = keys[i];
+				values[kept] = values[i];
+				kept++;
+			}
+		}
+		if (kept == size) {
+			return;
+		}
+		Arrays.fill(values, kept, size, null);
+		size = kept;
+		int capacity = INITIAL_CAPACITY * 2;
+		while (capacity < size * 2) {
+			capacity *= 2;
+		}
+		rehash(Math.max(capacity, slots.length / 4));
+	}
+
+	int keyAt(int index) {
+		return keys[index];
+	}
+
+	@SuppressWarnings("unchecked")
+	V valueAt(int index) {
+		return (V) values[index];
+	}
+
+	int size() {
+		return size;
+	}
+
+	private void rehash(int capacity) {
+		int[] newSlots = new int[capacity];
+		int mask = capacity - 1;
+		for (int i = 0; i < size; i++) {
+			int slot = IntSet.spread(keys[i]) & mask;
+			while (newSlots[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			newSlots[slot] = i + 1;
+		}
+		slots = newSlots;
+	}
+}
@@ -0,0 +1,142 @@
+/**
+ * Insertion-ordered set of int ids.
+ *
+ * Small sets (the common case: candidates or raw strings of one method) are plain arrays
+ * searched linearly, a hash index is built only when the set grows past a few elements.
+ *
+ * Not thread-safe: the owner is responsible for guarding access.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.data;
+
+import java.util.Arrays;
+
+final class IntSet {
+	private static final int[] EMPTY = new int[0];
+	private static final int LINEAR_SEARCH_LIMIT = 8;
+
+	private int[] items = EMPTY;
+	private int size;
+
+	// Open addressing index, stores (position + 1), null while the set is small
+	private int[] slots;
+
+	/**
+	 * Add value if not present
+	 *
+	 * @return position of the value in insertion order
+	 */
+	int add(int value) {
+		int index = indexOf(value);
+		if (index >= 0) {
+			return index;
+		}
+		index = size;
+		if (index == items.length) {
+			items = Arrays.copyOf(items, Math.max(4, index * 2));
+		}
+		items[index] = value;
+		size++;
+		if (slots != null) {
+			if (size * 2 > slots.length) {
+				rebuildIndex(slots.length * 2);
+			} else {
+				insertSlot(slots, value, index);
+			}
+		} else if (size > LINEAR_SEARCH_LIMIT) {
+			rebuildIndex(Integer.highestOneBit(size) * 4);
+		}
+		return index;
+	}
+
+	/**
+	 * Position of the value in insertion order or -1 if absent
+	 */
+	int indexOf(int value) {
+		if (slots == null) {
+			for (int i = 0; i < size; i++) {
+				if (items[i] == value) {
+					return i;
+				}
+			}
+			return -1;
+		}
+		int mask = slots.length - 1;
+		int slot = spread(value) & mask;
+		while (true) {
+			int entry = slots[slot];
+			if (entry == 0) {
+				return -1;
+			}
+			if (items[entry - 1] == value) {
+				return entry - 1;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	/**
+	 * Remove all values contained in {@code values}, keeping insertion order of the rest
+	 *
+	 * @return number of removed values
+	 */
+	int removeAll(IntSet values) {
+		int kept = 0;
+		for (int i = 0; i < size; i++) {
+			int value = items[i];
+			if (!values.contains(value)) {
+				items[kept++] = value;
+			}
+		}
+		int removed = size - kept;
+		if (removed != 0) {
+			size = kept;
+			slots = null;
+			if (size > LINEAR_SEARCH_LIMIT) {
+				rebuildIndex(Integer.highestOneBit(size) * 4);
+			}
+		}
+		return removed;
+	}
+
+	void clear() {
+		size = 0;
+		slots = null;
+	}
+
+	boolean contains(int value) {
+		return indexOf(value) >= 0;
+	}
+
+	int get(int index) {
+		return items[index];
+	}
+
+	int size() {
+		return size;
+	}
+
+	private void rebuildIndex(int capacity) {
+		int[] newSlots = new int[capacity];
+		for (int i = 0; i < size; i++) {
+			insertSlot(newSlots, items[i], i);
+		}
+		slots = newSlots;
+	}
+
+	private static void insertSlot(int[] table, int value, int index) {
+		int mask = table.length - 1;
+		int slot = spread(value) & mask;
+		while (table[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+		table[slot] = index + 1;
+	}
+
+	static int spread(int value) {
+		int h = value * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
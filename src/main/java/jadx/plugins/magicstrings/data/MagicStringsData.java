@@ -8,6 +8,7 @@
  * - Candidate rarity: How many methods use each candidate (for filtering)
  * - Filtered candidates: High-confidence method name candidates
  * - All strings: Complete list of all extracted string constants
+ * - Metrics: Timings and counters of the pass run which produced the data
  * 
  * The data is stored as an attribute on the RootNode and can be accessed
  * by the GUI components for display and interaction.
@@ -17,44 +18,129 @@
  */
 package jadx.plugins.magicstrings.data;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import jadx.api.plugins.input.data.attributes.IJadxAttrType;
 import jadx.api.plugins.input.data.attributes.IJadxAttribute;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.MethodNode;
 import jadx.core.dex.nodes.RootNode;
+import jadx.plugins.magicstrings.metrics.JfrEvents;
+import jadx.plugins.magicstrings.metrics.PassMetrics;
 
 /**
- * Data structure to hold extracted information from string constants
+ * Data structure to hold extracted information from string constants.
+ * <p>
+ * All strings are interned into a {@link SymbolTable} and the internal maps are keyed by
+ * symbol ids, so a method ref or a candidate shared by many entries is stored only once.
+ * Getters expose read-only String views over this storage.
+ * <p>
+ * Writes go through {@link MagicStringsSink}. A shared instance ({@link #MagicStringsData()}) accepts
+ * them from any number of threads without a global lock: each producer thread appends to one of
+ * a few striped shards under that stripe's monitor only. Staged writes are published into the main
+ * storage under the exclusive side of {@code lock} by the next read, {@link #snapshot()},
+ * {@link #mergeFrom}, {@link #retractClasses} or candidates filtering. Writes of one thread are
+ * published in order, writes of different threads in no particular order. Views returned by getters
+ * show the state as of the last publish.
+ * <p>
+ * A shard ({@link #createShard()}) has a single producer and stores writes directly, without staging.
+ * Extraction workers fill their own shards and hand them to {@link #mergeFrom} in class order.
+ * <p>
+ * Only publishing, {@link #mergeFrom}, {@link #retractClasses} and candidates filtering take
+ * the exclusive side of {@code lock}, readers (views, {@link #snapshot()}) take the shared side.
  */
-public class MagicStringsData implements IJadxAttribute {
+public class MagicStringsData implements IJadxAttribute, MagicStringsSink {
 	private static final IJadxAttrType<MagicStringsData> DATA = IJadxAttrType.create();
 
+	private static final int MIN_METHODS_PER_TASK = 1024; // Smallest method chunk handed to a filtering worker
+	private static final int STRIPES_COUNT = 16; // Power of two, producer threads are spread by thread id
+	// Compact when at least this many symbols and this share of all symbols are no longer referenced
+	private static final int MIN_STALE_SYMBOLS = 4096;
+	private static final int MAX_STALE_SYMBOLS_PERCENT = 25;
+
+	// Reused top-k buffers for selecting kept candidates
+	private static final ThreadLocal<KeptSelection> KEPT_SELECTION = ThreadLocal.withInitial(KeptSelection::new);
+
+	// All stored strings, everything below refers to them by id
+	private final SymbolTable symbols = new SymbolTable();
+
 	// Map from source file path to list of [method reference, method name, string data]
-	private final Map<String, List<SourceFileReference>> sourceFiles = new HashMap<>();
+	private final IntObjectMap<SourceRefs> sourceFiles = new IntObjectMap<>();
+
+	// Map from method to its candidates, their scores and raw strings that reference it
+	private final IntObjectMap<MethodRecord> methods = new IntObjectMap<>();
+
+	// Number of methods using each candidate (for rarity calculation)
+	private final CandidateRarity candidateRarity = new CandidateRarity();
+
+	// Filtered list of method candidates (only candidates with rarity == 1), replaced as a whole
+	private volatile List<MethodCandidate> filteredCandidates = Collections.emptyList();
+
+	// Methods whose filtered candidates must be recomputed (new candidates or rarity == 1 status changed)
+	private final IntSet dirtyMethods = new IntSet();
 
-	// Map from method to candidate function names
-	private final Map<String, Set<String>> methodCandidates = new HashMap<>();
+	// Set by a full recompute, then every method is treated as dirty
+	private boolean allMethodsDirty;
 
-	// Map from method to raw strings that reference it
-	private final Map<String, Set<String>> methodRawStrings = new HashMap<>();
+	// Map from class name to its contribution record (fingerprint and methods), used for incremental updates
+	private final IntObjectMap<ClassRecord> classes = new IntObjectMap<>();
 
-	// Map from candidate name to set of methods that use it (for rarity calculation)
-	private final Map<String, Set<String>> candidateRarity = new HashMap<>();
+	// All extracted strings, one (string, method, class) row per occurrence
+	private final StringColumns allStrings = new StringColumns();
 
-	// Map from method to candidate scores (candidate -> score)
-	private final Map<String, Map<String, Integer>> candidateScores = new HashMap<>();
+	// Publishing, merging, retraction and filtering hold the write lock (exclusive), readers hold the read lock (shared)
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
 
-	// Filtered list of method candidates (only candidates with rarity == 1)
-	private final List<MethodCandidate> filteredCandidates = new ArrayList<>();
+	// Shards of staged producer writes, null for a single producer shard
+	private final Stripe[] stripes;
 
-	// All extracted strings
-	private final List<StringInfo> allStrings = new ArrayList<>();
+	// Set after a staged write, cleared when publishing starts
+	private volatile boolean staged;
 
+	private volatile boolean extractionComplete;
+
+	// Metrics of the last pass run, not stored in the results cache
+	private volatile PassMetrics metrics;
+
+	// Method nodes by method id, bound to a root node on first lookup
+	private volatile MethodNodes methodNodes;
+
+	/**
+	 * Shared data, writes may come from many threads at once
+	 */
 	public MagicStringsData() {
+		this(true);
+	}
+
+	private MagicStringsData(boolean shared) {
+		if (shared) {
+			stripes = new Stripe[STRIPES_COUNT];
+			for (int i = 0; i < STRIPES_COUNT; i++) {
+				stripes[i] = new Stripe();
+			}
+		} else {
+			stripes = null;
+		}
+	}
+
+	/**
+	 * Data written by a single thread, writes are stored directly. Combine shards with {@link #mergeFrom}.
+	 */
+	public static MagicStringsData createShard() {
+		return new MagicStringsData(false);
 	}
 
 	public static MagicStringsData getData(RootNode root) {
@@ -66,142 +152,883 @@ public class MagicStringsData implements IJadxAttribute {
 		return data;
 	}
 
+	/**
+	 * Attach data to the root node, replacing any previous instance
+	 */
+	public static void setData(RootNode root, MagicStringsData data) {
+		root.getAttributes().add(data);
+	}
+
 	@Override
 	public IJadxAttrType<MagicStringsData> getAttrType() {
 		return DATA;
 	}
 
+	@Override
+	public void addString(String value, String methodRef, String className) {
+		if (stripes != null) {
+			Stripe stripe = stripe();
+			synchronized (stripe) {
+				stripe.shard().addString(value, methodRef, className);
+			}
+			markStaged();
+			return;
+		}
+		int methodId = symbols.intern(methodRef);
+		int classId = symbols.intern(className);
+		allStrings.add(symbols.intern(value), methodId, classId);
+		classes.computeIfAbsent(classId, k -> new ClassRecord()).methods.add(methodId);
+	}
+
+	@Override
+	public void addSourceFileRef(String filePath, String methodRef, String methodName, String stringData) {
+		if (stripes != null) {
+			Stripe stripe = stripe();
+			synchronized (stripe) {
+				stripe.shard().addSourceFileRef(filePath, methodRef, methodName, stringData);
+			}
+			markStaged();
+			return;
+		}
+		sourceFiles.computeIfAbsent(symbols.intern(filePath), k -> new SourceRefs())
+				.add(symbols.intern(methodRef), symbols.intern(methodName), symbols.intern(stringData));
+	}
+
+	@Override
+	public void addCandidate(String methodRef, String candidate, int score, String rawString) {
+		if (stripes != null) {
+			Stripe stripe = stripe();
+			synchronized (stripe) {
+				stripe.shard().addCandidate(methodRef, candidate, score, rawString);
+			}
+			markStaged();
+			return;
+		}
+		int methodId = symbols.intern(methodRef);
+		MethodRecord record = methods.computeIfAbsent(methodId, k -> new MethodRecord());
+		addCandidate(methodId, record, symbols.intern(candidate), score);
+		record.rawStrings.add(symbols.intern(rawString));
+	}
+
+	void addCandidate(int methodId, MethodRecord record, int candidateId, int score) {
+		int knownCount = record.candidates.size();
+		int index = record.candidates.add(candidateId);
+		record.setScore(index, score);
+		dirtyMethods.add(methodId);
+		if (index == knownCount) {
+			// Track rarity (how many methods use this candidate)
+			if (candidateRarity.count(candidateId) == 1) {
+				// Candidate is no longer unique for the method which used it first
+				dirtyMethods.add(candidateRarity.soleUser(candidateId));
+			}
+			candidateRarity.addUser(candidateId, methodId);
+		}
+	}
+
+	/**
+	 * Store content fingerprint of a class, unchanged classes can be skipped on the next extraction
+	 */
+	@Override
+	public void setClassFingerprint(String className, long fingerprint) {
+		if (stripes != null) {
+			Stripe stripe = stripe();
+			synchronized (stripe) {
+				stripe.shard().setClassFingerprint(className, fingerprint);
+			}
+			markStaged();
+			return;
+		}
+		ClassRecord record = classes.computeIfAbsent(symbols.intern(className), k -> new ClassRecord());
+		record.fingerprint = fingerprint;
+		record.hasFingerprint = true;
+	}
+
+	/**
+	 * Stripe of the calling producer thread
+	 */
+	private Stripe stripe() {
+		long threadId = Thread.currentThread().getId();
+		return stripes[(int) (threadId ^ (threadId >>> 32)) & (STRIPES_COUNT - 1)];
+	}
+
+	private void markStaged() {
+		if (!staged) {
+			staged = true;
+		}
+	}
+
+	/**
+	 * Move staged writes into the main storage, stripe by stripe.
+	 * Must not be called while holding the read lock.
+	 */
+	private void publishStaged() {
+		if (!staged) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			// Cleared first, so a write staged during publishing sets it again
+			staged = false;
+			for (Stripe stripe : stripes) {
+				MagicStringsData shard;
+				synchronized (stripe) {
+					shard = stripe.shard;
+					stripe.shard = null;
+				}
+				if (shard != null) {
+					append(shard, null);
+				}
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Fingerprints of all classes with a stored fingerprint (class name -> fingerprint)
+	 */
+	public Map<String, Long> getClassFingerprints() {
+		publishStaged();
+		lock.readLock().lock();
+		try {
+			Map<String, Long> result = new LinkedHashMap<>(classes.size() * 2);
+			for (int i = 0; i < classes.size(); i++) {
+				ClassRecord record = classes.valueAt(i);
+				if (record.hasFingerprint) {
+					result.put(symbols.get(classes.keyAt(i)), record.fingerprint);
+				}
+			}
+			return result;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Remove everything contributed by the given classes: string occurrences, source file references,
+	 * method candidates and their rarity. Methods whose rarity == 1 status changed are marked
+	 * for {@link #updateFilteredCandidates()}.
+	 *
+	 * @return number of retracted classes
+	 */
+	public int retractClasses(Collection<String> classNames) {
+		publishStaged();
+		lock.writeLock().lock();
+		try {
+			IntSet classIds = new IntSet();
+			IntSet methodIds = new IntSet();
+			for (String className : classNames) {
+				int classId = symbols.find(className);
+				ClassRecord record = classId >= 0 ? classes.get(classId) : null;
+				if (record != null) {
+					classIds.add(classId);
+					for (int m = 0; m < record.methods.size(); m++) {
+						methodIds.add(record.methods.get(m));
+					}
+				}
+			}
+			if (classIds.size() == 0) {
+				return 0;
+			}
+			IntSet affectedCandidates = new IntSet();
+			for (int m = 0; m < methodIds.size(); m++) {
+				int methodId = methodIds.get(m);
+				MethodRecord record = methods.get(methodId);
+				if (record != null) {
+					for (int c = 0; c < record.candidates.size(); c++) {
+						int candidateId = record.candidates.get(c);
+						candidateRarity.removeUser(candidateId, methodId);
+						affectedCandidates.add(candidateId);
+					}
+				}
+			}
+			for (int c = 0; c < affectedCandidates.size(); c++) {
+				int candidateId = affectedCandidates.get(c);
+				if (candidateRarity.count(candidateId) == 1) {
+					// Candidate became unique for the remaining method
+					dirtyMethods.add(candidateRarity.soleUser(candidateId));
+				}
+			}
+			methods.removeAll(methodIds);
+			dirtyMethods.removeAll(methodIds);
+
+			IntSet emptyFiles = new IntSet();
+			for (int i = 0; i < sourceFiles.size(); i++) {
+				SourceRefs refs = sourceFiles.valueAt(i);
+				refs.removeMethods(methodIds);
+				if (refs.size == 0) {
+					emptyFiles.add(sourceFiles.keyAt(i));
+				}
+			}
+			sourceFiles.removeAll(emptyFiles);
+			allStrings.removeClasses(classIds);
+			classes.removeAll(classIds);
+			return classIds.size();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Live read-only view, safe to read concurrently with writers.
+	 * Use {@link #snapshot()} to get a consistent state while extraction is running.
+	 */
 	public Map<String, List<SourceFileReference>> getSourceFiles() {
-		return sourceFiles;
+		publishStaged();
+		return SymbolViews.map(sourceFiles, symbols, lock.readLock(), this::sourceRefsView);
 	}
 
 	public Map<String, Set<String>> getMethodCandidates() {
-		return methodCandidates;
+		publishStaged();
+		return SymbolViews.map(methods, symbols, lock.readLock(), r -> SymbolViews.set(r.candidates, symbols, lock.readLock()));
 	}
 
 	public Map<String, Set<String>> getMethodRawStrings() {
-		return methodRawStrings;
+		publishStaged();
+		return SymbolViews.map(methods, symbols, lock.readLock(), this::rawStringsView);
 	}
 
+	/**
+	 * Read-only view, entries are created on access from the columnar storage
+	 */
 	public List<StringInfo> getAllStrings() {
-		return allStrings;
+		publishStaged();
+		return SymbolViews.list(lock.readLock(), allStrings::size, i -> new StringInfo(
+				symbols.get(allStrings.getStringId(i)),
+				allStrings.getMethodId(i),
+				symbols.get(allStrings.getMethodId(i)),
+				symbols.get(allStrings.getClassId(i))));
+	}
+
+	/**
+	 * Number of methods using the candidate, 0 for unknown candidates
+	 */
+	public int getCandidateRarity(String candidate) {
+		publishStaged();
+		lock.readLock().lock();
+		try {
+			return candidateRarity.count(symbols.find(candidate));
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Stable handle of a recorded method, -1 if the method is unknown.
+	 * Handles are valid for this instance (and its snapshots) and never change once assigned.
+	 */
+	public int getMethodId(String methodRef) {
+		publishStaged();
+		lock.readLock().lock();
+		try {
+			return symbols.find(methodRef);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public String getMethodRef(int methodId) {
+		publishStaged();
+		lock.readLock().lock();
+		try {
+			return symbols.get(methodId);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Node of a recorded method, null if the root has no such method.
+	 * All methods are bound in one pass over the root on first call, later calls are a map lookup.
+	 */
+	public MethodNode getMethodNode(RootNode root, int methodId) {
+		if (methodId < 0) {
+			return null;
+		}
+		MethodNodes bound = methodNodes;
+		if (bound == null || bound.root != root || methodId >= bound.symbolsCount) {
+			bound = bindMethodNodes(root, methodId);
+		}
+		return bound.nodes.get(methodId);
 	}
 
-	public Map<String, Set<String>> getCandidateRarity() {
-		return candidateRarity;
+	private synchronized MethodNodes bindMethodNodes(RootNode root, int methodId) {
+		publishStaged();
+		lock.readLock().lock();
+		try {
+			MethodNodes bound = methodNodes;
+			// Ids past the bound symbols are rebound only if they were added since (extraction still running)
+			if (bound != null && bound.root == root
+					&& (methodId < bound.symbolsCount || bound.symbolsCount == symbols.size())) {
+				return bound;
+			}
+			// Keyed by method symbol ids, so it holds only the recorded methods of the root
+			IntObjectMap<MethodNode> nodes = new IntObjectMap<>();
+			for (ClassNode cls : root.getClasses()) {
+				for (MethodNode mth : cls.getMethods()) {
+					int id = symbols.find(mth.getMethodInfo().getFullId());
+					if (id >= 0) {
+						nodes.computeIfAbsent(id, k -> mth);
+					}
+				}
+			}
+			bound = new MethodNodes(root, nodes, symbols.size());
+			methodNodes = bound;
+			return bound;
+		} finally {
+			lock.readLock().unlock();
+		}
 	}
 
 	public Map<String, Map<String, Integer>> getCandidateScores() {
-		return candidateScores;
+		publishStaged();
+		return SymbolViews.map(methods, symbols, lock.readLock(), this::scoresView);
 	}
 
 	public List<MethodCandidate> getFilteredCandidates() {
 		return filteredCandidates;
 	}
 
+	public boolean isExtractionComplete() {
+		return extractionComplete;
+	}
+
+	public void setExtractionComplete(boolean extractionComplete) {
+		this.extractionComplete = extractionComplete;
+	}
+
+	/**
+	 * Metrics of the pass run which produced (or loaded) this data, null if not collected
+	 */
+	public PassMetrics getMetrics() {
+		return metrics;
+	}
+
+	public void setMetrics(PassMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	private List<SourceFileReference> sourceRefsView(SourceRefs refs) {
+		return SymbolViews.list(lock.readLock(), () -> refs.size, i -> new SourceFileReference(refs.methodIds[i],
+				symbols.get(refs.methodIds[i]), symbols.get(refs.methodNameIds[i]), symbols.get(refs.stringIds[i])));
+	}
+
+	private Set<String> rawStringsView(MethodRecord record) {
+		return SymbolViews.set(record.rawStrings, symbols, lock.readLock());
+	}
+
+	private Map<String, Integer> scoresView(MethodRecord record) {
+		return SymbolViews.positionValues(record.candidates, i -> record.scores[i], symbols, lock.readLock());
+	}
+
+	/**
+	 * Write the complete state (including filtered candidates) in the binary format,
+	 * see {@link MagicStringsFormat} for the layout
+	 */
+	public void writeTo(OutputStream out) throws IOException {
+		publishStaged();
+		lock.readLock().lock();
+		try {
+			MagicStringsFileWriter.write(this, out);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Restore data written by {@link #writeTo(OutputStream)}, the whole buffer is decoded
+	 * and the result doesn't reference it
+	 *
+	 * @throws IOException if buffer content is not a supported data format
+	 */
+	public static MagicStringsData readFrom(ByteBuffer buf) throws IOException {
+		return MagicStringsFileReader.open(buf).toData();
+	}
+
+	// Internal storage access for the binary format, callers must hold the lock or own an unpublished instance
+
+	SymbolTable symbols() {
+		return symbols;
+	}
+
+	IntObjectMap<SourceRefs> sourceFilesMap() {
+		return sourceFiles;
+	}
+
+	IntObjectMap<MethodRecord> methodsMap() {
+		return methods;
+	}
+
+	StringColumns stringColumns() {
+		return allStrings;
+	}
+
+	IntObjectMap<ClassRecord> classesMap() {
+		return classes;
+	}
+
+	/**
+	 * Restore a stored filtered candidate, call {@link #publishFilteredCandidates()} when done
+	 *
+	 * @return false if method has no candidates record
+	 */
+	boolean addFilteredCandidate(int methodId, int candidateId) {
+		MethodRecord record = methods.get(methodId);
+		if (record == null) {
+			return false;
+		}
+		record.addKept(new MethodCandidate(methodId, symbols.get(methodId), symbols.get(candidateId),
+				rawStringsView(record)));
+		return true;
+	}
+
+	/**
+	 * Publish restored filtered candidates as up to date
+	 */
+	void publishFilteredCandidates() {
+		dirtyMethods.clear();
+		allMethodsDirty = false;
+		filteredCandidates = collectKeptCandidates();
+	}
+
+	/**
+	 * Consistent copy of the current state. Writers are paused only for the duration of the copy.
+	 */
+	public MagicStringsData snapshot() {
+		MagicStringsData copy = new MagicStringsData();
+		publishStaged();
+		lock.readLock().lock();
+		try {
+			copy.append(this, null); // Copy is not published yet
+			copy.filteredCandidates = filteredCandidates;
+			copy.extractionComplete = extractionComplete;
+			copy.metrics = metrics;
+		} finally {
+			lock.readLock().unlock();
+		}
+		return copy;
+	}
+
+	/**
+	 * Append all data from another instance (used to combine per-worker shards).
+	 * Symbols of {@code other} are interned in id order and entries are added in its insertion order,
+	 * so merging shards in class order gives the same ids and order as a single-threaded run.
+	 */
+	public void mergeFrom(MagicStringsData other) {
+		publishStaged();
+		other.publishStaged();
+		other.lock.readLock().lock();
+		lock.writeLock().lock();
+		try {
+			append(other, null);
+		} finally {
+			lock.writeLock().unlock();
+			other.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Copy without symbols left over from retracted classes, or this instance if only a few symbols are stale.
+	 * Retraction keeps symbols (ids must stay valid), so with incremental updates the symbol table
+	 * and the stored results would otherwise grow with every reload. Method handles of the copy differ.
+	 */
+	public MagicStringsData compactIfStale(int threads) {
+		publishStaged();
+		MagicStringsData copy = new MagicStringsData();
+		lock.readLock().lock();
+		try {
+			BitSet live = liveSymbols();
+			int stale = symbols.size() - live.cardinality();
+			if (stale < MIN_STALE_SYMBOLS || stale * 100L < (long) symbols.size() * MAX_STALE_SYMBOLS_PERCENT) {
+				return this;
+			}
+			copy.append(this, live); // Copy is not published yet
+			copy.extractionComplete = extractionComplete;
+			copy.metrics = metrics;
+		} finally {
+			lock.readLock().unlock();
+		}
+		copy.processFilteredCandidates(threads);
+		return copy;
+	}
+
+	/**
+	 * Symbols referenced by the stored data, call with the lock held
+	 */
+	private BitSet liveSymbols() {
+		BitSet live = new BitSet(symbols.size());
+		for (int i = 0; i < sourceFiles.size(); i++) {
+			live.set(sourceFiles.keyAt(i));
+			SourceRefs refs = sourceFiles.valueAt(i);
+			for (int r = 0; r < refs.size; r++) {
+				live.set(refs.methodIds[r]);
+				live.set(refs.methodNameIds[r]);
+				live.set(refs.stringIds[r]);
+			}
+		}
+		for (int i = 0; i < methods.size(); i++) {
+			live.set(methods.keyAt(i));
+			MethodRecord record = methods.valueAt(i);
+			setAll(live, record.candidates);
+			setAll(live, record.rawStrings);
+		}
+		for (int i = 0; i < classes.size(); i++) {
+			live.set(classes.keyAt(i));
+			setAll(live, classes.valueAt(i).methods);
+		}
+		for (int i = 0; i < allStrings.size(); i++) {
+			live.set(allStrings.getStringId(i));
+			live.set(allStrings.getMethodId(i));
+			live.set(allStrings.getClassId(i));
+		}
+		return live;
+	}
+
+	private static void setAll(BitSet bits, IntSet values) {
+		for (int i = 0; i < values.size(); i++) {
+			bits.set(values.get(i));
+		}
+	}
+
+	/**
+	 * Append storage of another instance, callers hold the write lock (or own an unpublished instance)
+	 * and the other instance can't change meanwhile. Only symbols in {@code otherSymbolsUsed}
+	 * are copied (all if null), it must include every symbol the other storage refers to.
+	 */
+	private void append(MagicStringsData other, BitSet otherSymbolsUsed) {
+		SymbolTable otherSymbols = other.symbols;
+		int[] remap = new int[otherSymbols.size()];
+		for (int id = 0; id < remap.length; id++) {
+			if (otherSymbolsUsed == null || otherSymbolsUsed.get(id)) {
+				remap[id] = symbols.intern(otherSymbols.get(id));
+			}
+		}
+		for (int i = 0; i < other.sourceFiles.size(); i++) {
+			SourceRefs otherRefs = other.sourceFiles.valueAt(i);
+			SourceRefs refs = sourceFiles.computeIfAbsent(remap[other.sourceFiles.keyAt(i)], k -> new SourceRefs());
+			for (int r = 0; r < otherRefs.size; r++) {
+				refs.add(remap[otherRefs.methodIds[r]], remap[otherRefs.methodNameIds[r]], remap[otherRefs.stringIds[r]]);
+			}
+		}
+		for (int i = 0; i < other.methods.size(); i++) {
+			MethodRecord otherRecord = other.methods.valueAt(i);
+			int methodId = remap[other.methods.keyAt(i)];
+			MethodRecord record = methods.computeIfAbsent(methodId, k -> new MethodRecord());
+			// Rarity is rebuilt while adding candidates
+			for (int c = 0; c < otherRecord.candidates.size(); c++) {
+				addCandidate(methodId, record, remap[otherRecord.candidates.get(c)], otherRecord.scores[c]);
+			}
+			for (int r = 0; r < otherRecord.rawStrings.size(); r++) {
+				record.rawStrings.add(remap[otherRecord.rawStrings.get(r)]);
+			}
+		}
+		for (int i = 0; i < other.classes.size(); i++) {
+			ClassRecord otherRecord = other.classes.valueAt(i);
+			ClassRecord record = classes.computeIfAbsent(remap[other.classes.keyAt(i)], k -> new ClassRecord());
+			if (otherRecord.hasFingerprint) {
+				record.fingerprint = otherRecord.fingerprint;
+				record.hasFingerprint = true;
+			}
+			for (int m = 0; m < otherRecord.methods.size(); m++) {
+				record.methods.add(remap[otherRecord.methods.get(m)]);
+			}
+		}
+		StringColumns otherStrings = other.allStrings;
+		for (int i = 0; i < otherStrings.size(); i++) {
+			allStrings.add(remap[otherStrings.getStringId(i)], remap[otherStrings.getMethodId(i)],
+					remap[otherStrings.getClassId(i)]);
+		}
+	}
+
 	public void processFilteredCandidates() {
-		filteredCandidates.clear();
-		int totalMethods = methodCandidates.size();
-		int processed = 0;
-		int logInterval = Math.max(1000, totalMethods / 10); // Log every 10% or every 1000 methods
-
-		for (Map.Entry<String, Set<String>> entry : methodCandidates.entrySet()) {
-			processed++;
-			if (processed % logInterval == 0) {
-				org.slf4j.LoggerFactory.getLogger(MagicStringsData.class)
-						.debug("Magic Strings: Processing candidates {}/{}", processed, totalMethods);
-			}
-
-			String methodRef = entry.getKey();
-			Set<String> candidates = entry.getValue();
-			Set<String> rawStrings = methodRawStrings.getOrDefault(methodRef, Set.of());
-			Map<String, Integer> scores = candidateScores.getOrDefault(methodRef, new HashMap<>());
-
-			// Collect all candidates with their scores and rarity
-			List<ScoredCandidate> allScoredCandidates = new ArrayList<>();
-			for (String candidate : candidates) {
-				Set<String> methodsUsingCandidate = candidateRarity.get(candidate);
-				int rarity = methodsUsingCandidate != null ? methodsUsingCandidate.size() : 0;
-				int score = scores.getOrDefault(candidate, 0);
-				allScoredCandidates.add(new ScoredCandidate(candidate, score, rarity));
-			}
-
-			// Sort by: rarity == 1 first, then by score (descending)
-			allScoredCandidates.sort((a, b) -> {
-				// Prioritize candidates with rarity == 1
-				if (a.rarity == 1 && b.rarity != 1) {
-					return -1;
-				}
-				if (a.rarity != 1 && b.rarity == 1) {
-					return 1;
-				}
-				// If same rarity priority, sort by score
-				return Integer.compare(b.score, a.score);
-			});
-
-			// Keep only the strongest candidates: prioritize rarity == 1 with high scores
-			if (!allScoredCandidates.isEmpty()) {
-				ScoredCandidate topCandidate = allScoredCandidates.get(0);
-				int topScore = topCandidate.score;
-
-				// Strict filtering: only keep candidates with:
-				// 1. Rarity == 1 and score >= 10 (unique to this method, high confidence)
-				// 2. Or rarity == 1 and score >= 8 (unique to this method, good confidence)
-				// 3. Or score >= 20 (very high-scoring candidates even if used by multiple methods)
-				// 4. Or score >= topScore - 2 (within 2 points of highest, if topScore >= 15)
-				// Limit to top 1-2 candidates per method
-				int keptCount = 0;
-				int maxKeep = 2; // Maximum candidates to keep per method
-				
-				for (ScoredCandidate sc : allScoredCandidates) {
-					if (keptCount >= maxKeep) {
-						break; // Already kept enough candidates
-					}
-					
-					boolean shouldKeep = false;
-					if (sc.rarity == 1 && sc.score >= 10) {
-						shouldKeep = true; // Unique and high confidence
-					} else if (sc.rarity == 1 && sc.score >= 8) {
-						shouldKeep = true; // Unique and good confidence
-					} else if (sc.score >= 20) {
-						shouldKeep = true; // Very high score
-					} else if (topScore >= 15 && sc.score >= topScore - 2 && keptCount == 0) {
-						// Only keep if it's the top candidate and within 2 points
-						shouldKeep = true;
-					}
+		processFilteredCandidates(1);
+	}
 
-					if (shouldKeep) {
-						filteredCandidates.add(new MethodCandidate(methodRef, sc.candidate, rawStrings));
-						keptCount++;
-					}
+	/**
+	 * Recompute kept candidates of all methods, using up to {@code threads} threads
+	 */
+	public void processFilteredCandidates(int threads) {
+		publishStaged();
+		lock.writeLock().lock();
+		try {
+			allMethodsDirty = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+		updateFilteredCandidates(threads);
+	}
+
+	public void updateFilteredCandidates() {
+		updateFilteredCandidates(1);
+	}
+
+	/**
+	 * Recompute kept candidates only for methods changed since the last call
+	 * and rebuild the filtered list from the per-method results (in method order).
+	 * Methods are split into contiguous chunks processed in parallel, each chunk collects
+	 * its kept candidates and the chunk lists are joined in chunk order,
+	 * so the result is the same for any number of threads.
+	 */
+	public void updateFilteredCandidates(int threads) {
+		publishStaged();
+		List<MethodCandidate> filtered;
+		JfrEvents.FilteringEvent event = JfrEvents.beginFiltering();
+		lock.writeLock().lock();
+		try {
+			int methodsCount = methods.size();
+			int recomputedCount = allMethodsDirty ? methodsCount : dirtyMethods.size();
+			int chunksCount = ParallelChunks.chunksCount(methodsCount, threads, MIN_METHODS_PER_TASK);
+			List<List<MethodCandidate>> chunkResults = new ArrayList<>(Collections.nCopies(chunksCount, null));
+			ParallelChunks.forEach(methodsCount, threads, MIN_METHODS_PER_TASK,
+					(chunk, from, to) -> chunkResults.set(chunk, filterMethods(from, to)));
+			int total = 0;
+			for (List<MethodCandidate> chunkResult : chunkResults) {
+				total += chunkResult.size();
+			}
+			List<MethodCandidate> joined = new ArrayList<>(total);
+			for (List<MethodCandidate> chunkResult : chunkResults) {
+				joined.addAll(chunkResult);
+			}
+			org.slf4j.LoggerFactory.getLogger(MagicStringsData.class)
+					.debug("Magic Strings: Processed candidates of {} methods in {} chunks", methodsCount, chunksCount);
+			dirtyMethods.clear();
+			allMethodsDirty = false;
+			filtered = Collections.unmodifiableList(joined);
+			JfrEvents.endFiltering(event, methodsCount, recomputedCount, total, chunksCount, threads);
+		} finally {
+			lock.writeLock().unlock();
+		}
+		filteredCandidates = filtered;
+	}
+
+	/**
+	 * Select kept candidates of dirty methods in [from, to) and collect kept candidates of all of them.
+	 * Writes only records of these methods, so disjoint ranges can run concurrently under the write lock.
+	 */
+	private List<MethodCandidate> filterMethods(int from, int to) {
+		List<MethodCandidate> filtered = new ArrayList<>();
+		for (int m = from; m < to; m++) {
+			int methodId = methods.keyAt(m);
+			MethodRecord record = methods.valueAt(m);
+			if (allMethodsDirty || dirtyMethods.contains(methodId)) {
+				selectKeptCandidates(methodId, record);
+			}
+			for (int k = 0; k < record.keptCount; k++) {
+				filtered.add(record.kept[k]);
+			}
+		}
+		return filtered;
+	}
+
+	private List<MethodCandidate> collectKeptCandidates() {
+		return Collections.unmodifiableList(filterMethods(0, methods.size()));
+	}
+
+	private void selectKeptCandidates(int methodId, MethodRecord record) {
+		record.keptCount = 0;
+		IntSet candidates = record.candidates;
+		int count = candidates.size();
+		if (count == 0) {
+			return;
+		}
+
+		// Candidates are ranked by: rarity == 1 first, then by score (descending), then by position.
+		// Top candidate score (used for the relative threshold) is the score of the highest rank
+		long topKey = Long.MIN_VALUE;
+		for (int c = 0; c < count; c++) {
+			topKey = Math.max(topKey, rankKey(record, c));
+		}
+		int topScore = scoreOfKey(topKey);
+
+		// Strict filtering: only keep candidates with:
+		// 1. Rarity == 1 and score >= 10 (unique to this method, high confidence)
+		// 2. Or rarity == 1 and score >= 8 (unique to this method, good confidence)
+		// 3. Or score >= 20 (very high-scoring candidates even if used by multiple methods)
+		// 4. Or score >= topScore - 2 (within 2 points of highest, if topScore >= 15), only as the first one
+		// Limit to top 1-2 candidates per method: the best ranked candidate passing any rule
+		// and the next best ranked one passing rules 1-3
+		KeptSelection selection = KEPT_SELECTION.get();
+		TopK first = selection.first;
+		TopK strong = selection.strong;
+		first.clear();
+		strong.clear();
+		for (int c = 0; c < count; c++) {
+			int score = record.scores[c];
+			boolean isStrong = (isUnique(candidates.get(c)) && score >= 8) || score >= 20;
+			if (isStrong || (topScore >= 15 && score >= topScore - 2)) {
+				long key = rankKey(record, c);
+				first.offer(key, c);
+				if (isStrong) {
+					strong.offer(key, c);
 				}
 			}
 		}
+		if (first.size() == 0) {
+			return;
+		}
+		int firstPos = (int) first.value(0);
+		int secondPos = -1;
+		if (strong.size() != 0 && strong.value(0) != firstPos) {
+			// First candidate passed only rule 4, so every strong candidate ranks after it
+			secondPos = (int) strong.value(0);
+		} else if (strong.size() > 1) {
+			secondPos = (int) strong.value(1);
+		}
+		Set<String> rawStrings = rawStringsView(record);
+		String methodRef = symbols.get(methodId);
+		record.addKept(new MethodCandidate(methodId, methodRef, symbols.get(candidates.get(firstPos)), rawStrings));
+		if (secondPos != -1) {
+			record.addKept(new MethodCandidate(methodId, methodRef, symbols.get(candidates.get(secondPos)), rawStrings));
+		}
 	}
 
-	private static class ScoredCandidate {
-		final String candidate;
-		final int score;
-		final int rarity;
+	private boolean isUnique(int candidateId) {
+		return candidateRarity.count(candidateId) == 1;
+	}
 
-		ScoredCandidate(String candidate, int score, int rarity) {
-			this.candidate = candidate;
-			this.score = score;
-			this.rarity = rarity;
+	/**
+	 * Primitive rank of a candidate: unique flag in the high half, score in the low half
+	 */
+	private long rankKey(MethodRecord record, int position) {
+		long uniqueBit = isUnique(record.candidates.get(position)) ? 1L << 32 : 0;
+		return uniqueBit | ((long) record.scores[position] - Integer.MIN_VALUE);
+	}
+
+	private static int scoreOfKey(long key) {
+		return (int) ((key & 0xFFFFFFFFL) + Integer.MIN_VALUE);
+	}
+
+	/**
+	 * Method nodes of one root by method id, not changed once published
+	 */
+	private static final class MethodNodes {
+		final RootNode root;
+		final IntObjectMap<MethodNode> nodes;
+		// Symbols count at binding, larger ids were not known then
+		final int symbolsCount;
+
+		MethodNodes(RootNode root, IntObjectMap<MethodNode> nodes, int symbolsCount) {
+			this.root = root;
+			this.nodes = nodes;
+			this.symbolsCount = symbolsCount;
+		}
+	}
+
+	/**
+	 * Staged writes of the producer threads mapped to this stripe, guarded by the stripe
+	 */
+	private static final class Stripe {
+		MagicStringsData shard;
+
+		MagicStringsData shard() {
+			if (shard == null) {
+				shard = createShard();
+			}
+			return shard;
+		}
+	}
+
+	/**
+	 * Reusable top-k buffers of kept candidates selection
+	 */
+	private static final class KeptSelection {
+		final TopK first = new TopK(1);
+		final TopK strong = new TopK(2);
+	}
+
+	/**
+	 * Candidates of one method (with scores at the same positions) and raw strings referencing it
+	 */
+	static final class MethodRecord {
+		final IntSet candidates = new IntSet();
+		final IntSet rawStrings = new IntSet();
+		int[] scores = new int[1];
+		// Filtered candidates selected for this method, valid while the method is not dirty
+		MethodCandidate[] kept;
+		int keptCount;
+
+		void setScore(int index, int score) {
+			if (index >= scores.length) {
+				scores = Arrays.copyOf(scores, Math.max(index + 1, scores.length * 2));
+			}
+			scores[index] = score;
+		}
+
+		void addKept(MethodCandidate candidate) {
+			if (kept == null) {
+				kept = new MethodCandidate[2];
+			} else if (keptCount == kept.length) {
+				kept = Arrays.copyOf(kept, keptCount * 2);
+			}
+			kept[keptCount++] = candidate;
+		}
+	}
+
+	/**
+	 * Content fingerprint of a class and methods it contributed strings for
+	 */
+	static final class ClassRecord {
+		final IntSet methods = new IntSet();
+		long fingerprint;
+		boolean hasFingerprint;
+	}
+
+	/**
+	 * Source file references stored as parallel id arrays
+	 */
+	static final class SourceRefs {
+		int[] methodIds = new int[2];
+		int[] methodNameIds = new int[2];
+		int[] stringIds = new int[2];
+		int size;
+
+		void add(int methodId, int methodNameId, int stringId) {
+			if (size == methodIds.length) {
+				int capacity = size * 2;
+				methodIds = Arrays.copyOf(methodIds, capacity);
+				methodNameIds = Arrays.copyOf(methodNameIds, capacity);
+				stringIds = Arrays.copyOf(stringIds, capacity);
+			}
+			methodIds[size] = methodId;
+			methodNameIds[size] = methodNameId;
+			stringIds[size] = stringId;
+			size++;
+		}
+
+		void removeMethods(IntSet removeMethodIds) {
+			int kept = 0;
+			for (int i = 0; i < size; i++) {
+				if (!removeMethodIds.contains(methodIds[i])) {
+					methodIds[kept] = methodIds[i];
+					methodNameIds[kept] = methodNameIds[i];
+					stringIds[kept] = stringIds[i];
+					kept++;
+				}
+			}
+			size = kept;
 		}
 	}
 
 	public static class MethodCandidate {
+		private final int methodId;
 		private final String methodRef;
 		private final String candidate;
 		private final Set<String> rawStrings;
 
-		public MethodCandidate(String methodRef, String candidate, Set<String> rawStrings) {
+		public MethodCandidate(int methodId, String methodRef, String candidate, Set<String> rawStrings) {
+			this.methodId = methodId;
 			this.methodRef = methodRef;
 			this.candidate = candidate;
 			this.rawStrings = rawStrings;
 		}
 
+		/**
+		 * Handle of the method in the data instance which produced this entry
+		 */
+		public int getMethodId() {
+			return methodId;
+		}
+
 		public String getMethodRef() {
 			return methodRef;
 		}
@@ -216,16 +1043,22 @@ public class MagicStringsData implements IJadxAttribute {
 	}
 
 	public static class SourceFileReference {
+		private final int methodId;
 		private final String methodRef;
 		private final String methodName;
 		private final String stringData;
 
-		public SourceFileReference(String methodRef, String methodName, String stringData) {
+		public SourceFileReference(int methodId, String methodRef, String methodName, String stringData) {
+			this.methodId = methodId;
 			this.methodRef = methodRef;
 			this.methodName = methodName;
 			this.stringData = stringData;
 		}
 
+		public int getMethodId() {
+			return methodId;
+		}
+
 		public String getMethodRef() {
 			return methodRef;
 		}
@@ -241,11 +1074,13 @@ public class MagicStringsData implements IJadxAttribute {
 
 	public static class StringInfo {
 		private final String value;
+		private final int methodId;
 		private final String methodRef;
 		private final String className;
 
-		public StringInfo(String value, String methodRef, String className) {
+		public StringInfo(String value, int methodId, String methodRef, String className) {
 			this.value = value;
+			this.methodId = methodId;
 			this.methodRef = methodRef;
 			this.className = className;
 		}
@@ -254,6 +1089,10 @@ public class MagicStringsData implements IJadxAttribute {
 			return value;
 		}
 
+		public int getMethodId() {
+			return methodId;
+		}
+
 		public String getMethodRef() {
 			return methodRef;
 		}
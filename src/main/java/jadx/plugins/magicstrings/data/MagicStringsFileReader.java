@@ -0,0 +1,326 @@
+/**
+ * Reader for the MagicStringsData binary format, see {@link MagicStringsFormat} for the layout.
+ *
+ * {@link #toData()} decodes every section into a new MagicStringsData, this is how cached results
+ * are loaded. The record accessors read in place from the buffer (usually a MappedByteBuffer) and decode
+ * only the accessed record, so stored results can be inspected or compared without building the model.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+public final class MagicStringsFileReader {
+	private final ByteBuffer buf;
+	private final int[] sectionOffsets = new int[MagicStringsFormat.SECTIONS_COUNT + 1];
+	private final int[] sectionLengths = new int[MagicStringsFormat.SECTIONS_COUNT + 1];
+
+	private MagicStringsFileReader(ByteBuffer buf) {
+		this.buf = buf;
+	}
+
+	/**
+	 * Validate header and section table of the buffer content
+	 *
+	 * @throws IOException if content is not a supported format version or sections are malformed
+	 */
+	public static MagicStringsFileReader open(ByteBuffer buffer) throws IOException {
+		ByteBuffer buf = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+		MagicStringsFileReader reader = new MagicStringsFileReader(buf);
+		reader.readHeader();
+		return reader;
+	}
+
+	private void readHeader() throws IOException {
+		int size = buf.limit();
+		if (size < MagicStringsFormat.HEADER_SIZE || buf.getInt(0) != MagicStringsFormat.MAGIC) {
+			throw new IOException("Not a magic strings data file");
+		}
+		int version = buf.getInt(4);
+		if (version != MagicStringsFormat.VERSION) {
+			throw new IOException("Unsupported data format version: " + version
+					+ ", expected: " + MagicStringsFormat.VERSION);
+		}
+		int sectionsCount = buf.getInt(8);
+		long tableEnd = MagicStringsFormat.HEADER_SIZE + (long) sectionsCount * MagicStringsFormat.SECTION_ENTRY_SIZE;
+		if (sectionsCount < 0 || tableEnd > size) {
+			throw new IOException("Malformed section table");
+		}
+		for (int i = 0; i < sectionsCount; i++) {
+			int entry = MagicStringsFormat.HEADER_SIZE + i * MagicStringsFormat.SECTION_ENTRY_SIZE;
+			int id = buf.getInt(entry);
+			int offset = buf.getInt(entry + 4);
+			int length = buf.getInt(entry + 8);
+			if (offset < tableEnd || length < 0 || (long) offset + length > size) {
+				throw new IOException("Section " + id + " is out of file bounds");
+			}
+			// Unknown sections are skipped, so compatible additions don't need a version bump
+			if (id > 0 && id <= MagicStringsFormat.SECTIONS_COUNT) {
+				sectionOffsets[id] = offset;
+				sectionLengths[id] = length;
+			}
+		}
+		for (int id = 1; id <= MagicStringsFormat.REQUIRED_SECTIONS; id++) {
+			if (sectionOffsets[id] == 0) {
+				throw new IOException("Missing section " + id);
+			}
+		}
+		checkRecords(MagicStringsFormat.SYMBOL_OFFSETS, 4);
+		checkRecords(MagicStringsFormat.STRINGS, MagicStringsFormat.STRING_RECORD);
+		checkRecords(MagicStringsFormat.METHODS, MagicStringsFormat.METHOD_RECORD);
+		checkRecords(MagicStringsFormat.CANDIDATES, MagicStringsFormat.CANDIDATE_RECORD);
+		checkRecords(MagicStringsFormat.RAW_STRINGS, MagicStringsFormat.RAW_STRING_RECORD);
+		checkRecords(MagicStringsFormat.SOURCE_FILES, MagicStringsFormat.SOURCE_FILE_RECORD);
+		checkRecords(MagicStringsFormat.SOURCE_REFS, MagicStringsFormat.SOURCE_REF_RECORD);
+		checkRecords(MagicStringsFormat.FILTERED, MagicStringsFormat.FILTERED_RECORD);
+		checkRecords(MagicStringsFormat.CLASSES, MagicStringsFormat.CLASS_RECORD);
+		checkRecords(MagicStringsFormat.CLASS_METHODS, MagicStringsFormat.CLASS_METHOD_RECORD);
+		if (sectionLengths[MagicStringsFormat.SYMBOL_OFFSETS] == 0) {
+			throw new IOException("Empty symbol offsets section");
+		}
+	}
+
+	private void checkRecords(int section, int recordSize) throws IOException {
+		if (sectionLengths[section] % recordSize != 0) {
+			throw new IOException("Section " + section + " length is not a multiple of " + recordSize);
+		}
+	}
+
+	public int getSymbolsCount() {
+		return sectionLengths[MagicStringsFormat.SYMBOL_OFFSETS] / 4 - 1;
+	}
+
+	public String getSymbol(int id) {
+		int offsets = sectionOffsets[MagicStringsFormat.SYMBOL_OFFSETS] + id * 4;
+		int start = buf.getInt(offsets);
+		int end = buf.getInt(offsets + 4);
+		byte[] bytes = new byte[end - start];
+		ByteBuffer data = buf.duplicate();
+		data.position(sectionOffsets[MagicStringsFormat.SYMBOL_DATA] + start);
+		data.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	public int getStringsCount() {
+		return recordsCount(MagicStringsFormat.STRINGS, MagicStringsFormat.STRING_RECORD);
+	}
+
+	public int getStringId(int index) {
+		return field(MagicStringsFormat.STRINGS, MagicStringsFormat.STRING_RECORD, index, 0);
+	}
+
+	public int getStringMethodId(int index) {
+		return field(MagicStringsFormat.STRINGS, MagicStringsFormat.STRING_RECORD, index, 1);
+	}
+
+	public int getStringClassId(int index) {
+		return field(MagicStringsFormat.STRINGS, MagicStringsFormat.STRING_RECORD, index, 2);
+	}
+
+	public int getMethodsCount() {
+		return recordsCount(MagicStringsFormat.METHODS, MagicStringsFormat.METHOD_RECORD);
+	}
+
+	public int getMethodId(int method) {
+		return field(MagicStringsFormat.METHODS, MagicStringsFormat.METHOD_RECORD, method, 0);
+	}
+
+	public int getCandidatesCount(int method) {
+		return field(MagicStringsFormat.METHODS, MagicStringsFormat.METHOD_RECORD, method, 2);
+	}
+
+	public int getCandidateId(int method, int candidate) {
+		int first = field(MagicStringsFormat.METHODS, MagicStringsFormat.METHOD_RECORD, method, 1);
+		return field(MagicStringsFormat.CANDIDATES, MagicStringsFormat.CANDIDATE_RECORD, first + candidate, 0);
+	}
+
+	public int getCandidateScore(int method, int candidate) {
+		int first = field(MagicStringsFormat.METHODS, MagicStringsFormat.METHOD_RECORD, method, 1);
+		return field(MagicStringsFormat.CANDIDATES, MagicStringsFormat.CANDIDATE_RECORD, first + candidate, 1);
+	}
+
+	public int getRawStringsCount(int method) {
+		return field(MagicStringsFormat.METHODS, MagicStringsFormat.METHOD_RECORD, method, 4);
+	}
+
+	public int getRawStringId(int method, int rawString) {
+		int first = field(MagicStringsFormat.METHODS, MagicStringsFormat.METHOD_RECORD, method, 3);
+		return field(MagicStringsFormat.RAW_STRINGS, MagicStringsFormat.RAW_STRING_RECORD, first + rawString, 0);
+	}
+
+	public int getSourceFilesCount() {
+		return recordsCount(MagicStringsFormat.SOURCE_FILES, MagicStringsFormat.SOURCE_FILE_RECORD);
+	}
+
+	public int getSourceFileId(int file) {
+		return field(MagicStringsFormat.SOURCE_FILES, MagicStringsFormat.SOURCE_FILE_RECORD, file, 0);
+	}
+
+	public int getSourceRefsCount(int file) {
+		return field(MagicStringsFormat.SOURCE_FILES, MagicStringsFormat.SOURCE_FILE_RECORD, file, 2);
+	}
+
+	public int getSourceRefMethodId(int file, int ref) {
+		return sourceRefField(file, ref, 0);
+	}
+
+	public int getSourceRefMethodNameId(int file, int ref) {
+		return sourceRefField(file, ref, 1);
+	}
+
+	public int getSourceRefStringId(int file, int ref) {
+		return sourceRefField(file, ref, 2);
+	}
+
+	/**
+	 * Number of classes with a stored fingerprint, 0 for files written without class sections
+	 */
+	public int getClassesCount() {
+		return recordsCount(MagicStringsFormat.CLASSES, MagicStringsFormat.CLASS_RECORD);
+	}
+
+	public int getClassId(int index) {
+		return field(MagicStringsFormat.CLASSES, MagicStringsFormat.CLASS_RECORD, index, 0);
+	}
+
+	public long getClassFingerprint(int index) {
+		long high = field(MagicStringsFormat.CLASSES, MagicStringsFormat.CLASS_RECORD, index, 1);
+		long low = field(MagicStringsFormat.CLASSES, MagicStringsFormat.CLASS_RECORD, index, 2);
+		return (high << 32) | (low & 0xFFFFFFFFL);
+	}
+
+	public int getClassMethodsCount(int index) {
+		return field(MagicStringsFormat.CLASSES, MagicStringsFormat.CLASS_RECORD, index, 4);
+	}
+
+	public int getClassMethodId(int index, int method) {
+		int first = field(MagicStringsFormat.CLASSES, MagicStringsFormat.CLASS_RECORD, index, 3);
+		return field(MagicStringsFormat.CLASS_METHODS, MagicStringsFormat.CLASS_METHOD_RECORD, first + method, 0);
+	}
+
+	public int getFilteredCount() {
+		return recordsCount(MagicStringsFormat.FILTERED, MagicStringsFormat.FILTERED_RECORD);
+	}
+
+	public int getFilteredMethodId(int index) {
+		return field(MagicStringsFormat.FILTERED, MagicStringsFormat.FILTERED_RECORD, index, 0);
+	}
+
+	public int getFilteredCandidateId(int index) {
+		return field(MagicStringsFormat.FILTERED, MagicStringsFormat.FILTERED_RECORD, index, 1);
+	}
+
+	/**
+	 * Build the in-memory model, decoding the whole buffer. All ids and ranges are validated on the way.
+	 */
+	public MagicStringsData toData() throws IOException {
+		try {
+			return buildData();
+		} catch (IndexOutOfBoundsException e) {
+			throw new IOException("Malformed magic strings data file", e);
+		}
+	}
+
+	private MagicStringsData buildData() throws IOException {
+		MagicStringsData data = new MagicStringsData();
+		int symbolsCount = getSymbolsCount();
+		SymbolTable symbols = data.symbols();
+		int dataLength = sectionLengths[MagicStringsFormat.SYMBOL_DATA];
+		for (int id = 0; id < symbolsCount; id++) {
+			int offsets = sectionOffsets[MagicStringsFormat.SYMBOL_OFFSETS] + id * 4;
+			int start = buf.getInt(offsets);
+			int end = buf.getInt(offsets + 4);
+			if (start < 0 || end < start || end > dataLength) {
+				throw new IOException("Symbol " + id + " is out of data bounds");
+			}
+			symbols.intern(getSymbol(id));
+		}
+		if (symbols.size() != symbolsCount) {
+			throw new IOException("Duplicate symbols in data file");
+		}
+
+		IntObjectMap<MagicStringsData.SourceRefs> sourceFiles = data.sourceFilesMap();
+		for (int f = 0; f < getSourceFilesCount(); f++) {
+			MagicStringsData.SourceRefs refs = sourceFiles.computeIfAbsent(checkId(getSourceFileId(f), symbolsCount),
+					k -> new MagicStringsData.SourceRefs());
+			int refsCount = getSourceRefsCount(f);
+			for (int r = 0; r < refsCount; r++) {
+				refs.add(checkId(getSourceRefMethodId(f, r), symbolsCount),
+						checkId(getSourceRefMethodNameId(f, r), symbolsCount),
+						checkId(getSourceRefStringId(f, r), symbolsCount));
+			}
+		}
+
+		IntObjectMap<MagicStringsData.MethodRecord> methods = data.methodsMap();
+		for (int m = 0; m < getMethodsCount(); m++) {
+			int methodId = checkId(getMethodId(m), symbolsCount);
+			MagicStringsData.MethodRecord record = methods.computeIfAbsent(methodId, k -> new MagicStringsData.MethodRecord());
+			int candidatesCount = getCandidatesCount(m);
+			for (int c = 0; c < candidatesCount; c++) {
+				// Rarity is rebuilt while adding candidates
+				data.addCandidate(methodId, record, checkId(getCandidateId(m, c), symbolsCount), getCandidateScore(m, c));
+			}
+			int rawCount = getRawStringsCount(m);
+			for (int r = 0; r < rawCount; r++) {
+				record.rawStrings.add(checkId(getRawStringId(m, r), symbolsCount));
+			}
+		}
+
+		StringColumns strings = data.stringColumns();
+		for (int i = 0; i < getStringsCount(); i++) {
+			strings.add(checkId(getStringId(i), symbolsCount),
+					checkId(getStringMethodId(i), symbolsCount),
+					checkId(getStringClassId(i), symbolsCount));
+		}
+
+		IntObjectMap<MagicStringsData.ClassRecord> classes = data.classesMap();
+		for (int c = 0; c < getClassesCount(); c++) {
+			MagicStringsData.ClassRecord record = classes.computeIfAbsent(checkId(getClassId(c), symbolsCount),
+					k -> new MagicStringsData.ClassRecord());
+			record.fingerprint = getClassFingerprint(c);
+			record.hasFingerprint = true;
+			int classMethodsCount = getClassMethodsCount(c);
+			for (int m = 0; m < classMethodsCount; m++) {
+				record.methods.add(checkId(getClassMethodId(c, m), symbolsCount));
+			}
+		}
+
+		for (int i = 0; i < getFilteredCount(); i++) {
+			int methodId = checkId(getFilteredMethodId(i), symbolsCount);
+			if (!data.addFilteredCandidate(methodId, checkId(getFilteredCandidateId(i), symbolsCount))) {
+				throw new IOException("Filtered candidate of unknown method: " + methodId);
+			}
+		}
+		data.publishFilteredCandidates();
+		data.setExtractionComplete(true);
+		return data;
+	}
+
+	private int recordsCount(int section, int recordSize) {
+		return sectionLengths[section] / recordSize;
+	}
+
+	private int field(int section, int recordSize, int index, int field) {
+		if (index < 0 || index >= recordsCount(section, recordSize)) {
+			throw new IndexOutOfBoundsException("Section " + section + " record: " + index);
+		}
+		return buf.getInt(sectionOffsets[section] + index * recordSize + field * 4);
+	}
+
+	private int sourceRefField(int file, int ref, int field) {
+		int first = field(MagicStringsFormat.SOURCE_FILES, MagicStringsFormat.SOURCE_FILE_RECORD, file, 1);
+		return field(MagicStringsFormat.SOURCE_REFS, MagicStringsFormat.SOURCE_REF_RECORD, first + ref, field);
+	}
+
+	private static int checkId(int id, int symbolsCount) throws IOException {
+		if (id < 0 || id >= symbolsCount) {
+			throw new IOException("Symbol id out of range: " + id);
+		}
+		return id;
+	}
+}
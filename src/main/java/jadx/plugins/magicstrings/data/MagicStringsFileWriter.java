@@ -0,0 +1,179 @@
+/**
+ * Writer for the MagicStringsData binary format, see {@link MagicStringsFormat} for the layout.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.data;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+final class MagicStringsFileWriter {
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private MagicStringsFileWriter() {
+	}
+
+	/**
+	 * Write data state, caller must hold the data read lock
+	 */
+	static void write(MagicStringsData data, OutputStream output) throws IOException {
+		SymbolTable symbols = data.symbols();
+		IntObjectMap<MagicStringsData.SourceRefs> sourceFiles = data.sourceFilesMap();
+		IntObjectMap<MagicStringsData.MethodRecord> methods = data.methodsMap();
+		StringColumns strings = data.stringColumns();
+		IntObjectMap<MagicStringsData.ClassRecord> classes = data.classesMap();
+		List<MagicStringsData.MethodCandidate> filtered = data.getFilteredCandidates();
+
+		int symbolsCount = symbols.size();
+		byte[][] symbolBytes = new byte[symbolsCount][];
+		long symbolDataSize = 0;
+		for (int id = 0; id < symbolsCount; id++) {
+			symbolBytes[id] = symbols.get(id).getBytes(StandardCharsets.UTF_8);
+			symbolDataSize += symbolBytes[id].length;
+		}
+		long candidatesCount = 0;
+		long rawStringsCount = 0;
+		for (int i = 0; i < methods.size(); i++) {
+			candidatesCount += methods.valueAt(i).candidates.size();
+			rawStringsCount += methods.valueAt(i).rawStrings.size();
+		}
+		long sourceRefsCount = 0;
+		for (int i = 0; i < sourceFiles.size(); i++) {
+			sourceRefsCount += sourceFiles.valueAt(i).size;
+		}
+
+		int fingerprintedCount = 0;
+		long classMethodsCount = 0;
+		for (int i = 0; i < classes.size(); i++) {
+			MagicStringsData.ClassRecord record = classes.valueAt(i);
+			if (record.hasFingerprint) {
+				fingerprintedCount++;
+				classMethodsCount += record.methods.size();
+			}
+		}
+
+		long[] lengths = new long[MagicStringsFormat.SECTIONS_COUNT + 1];
+		lengths[MagicStringsFormat.SYMBOL_OFFSETS] = (symbolsCount + 1L) * 4;
+		lengths[MagicStringsFormat.SYMBOL_DATA] = symbolDataSize;
+		lengths[MagicStringsFormat.STRINGS] = (long) strings.size() * MagicStringsFormat.STRING_RECORD;
+		lengths[MagicStringsFormat.METHODS] = (long) methods.size() * MagicStringsFormat.METHOD_RECORD;
+		lengths[MagicStringsFormat.CANDIDATES] = candidatesCount * MagicStringsFormat.CANDIDATE_RECORD;
+		lengths[MagicStringsFormat.RAW_STRINGS] = rawStringsCount * MagicStringsFormat.RAW_STRING_RECORD;
+		lengths[MagicStringsFormat.SOURCE_FILES] = (long) sourceFiles.size() * MagicStringsFormat.SOURCE_FILE_RECORD;
+		lengths[MagicStringsFormat.SOURCE_REFS] = sourceRefsCount * MagicStringsFormat.SOURCE_REF_RECORD;
+		lengths[MagicStringsFormat.FILTERED] = (long) filtered.size() * MagicStringsFormat.FILTERED_RECORD;
+		lengths[MagicStringsFormat.CLASSES] = (long) fingerprintedCount * MagicStringsFormat.CLASS_RECORD;
+		lengths[MagicStringsFormat.CLASS_METHODS] = classMethodsCount * MagicStringsFormat.CLASS_METHOD_RECORD;
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output, BUFFER_SIZE));
+		out.writeInt(MagicStringsFormat.MAGIC);
+		out.writeInt(MagicStringsFormat.VERSION);
+		out.writeInt(MagicStringsFormat.SECTIONS_COUNT);
+		out.writeInt(0);
+		long offset = MagicStringsFormat.HEADER_SIZE
+				+ (long) MagicStringsFormat.SECTIONS_COUNT * MagicStringsFormat.SECTION_ENTRY_SIZE;
+		for (int section = 1; section <= MagicStringsFormat.SECTIONS_COUNT; section++) {
+			if (offset + lengths[section] > Integer.MAX_VALUE) {
+				throw new IOException("Data too large for the binary format");
+			}
+			out.writeInt(section);
+			out.writeInt((int) offset);
+			out.writeInt((int) lengths[section]);
+			offset += lengths[section];
+		}
+
+		// Sections in id order, matching the offsets above
+		int symbolOffset = 0;
+		for (int id = 0; id < symbolsCount; id++) {
+			out.writeInt(symbolOffset);
+			symbolOffset += symbolBytes[id].length;
+		}
+		out.writeInt(symbolOffset);
+		for (byte[] bytes : symbolBytes) {
+			out.write(bytes);
+		}
+
+		for (int i = 0; i < strings.size(); i++) {
+			out.writeInt(strings.getStringId(i));
+			out.writeInt(strings.getMethodId(i));
+			out.writeInt(strings.getClassId(i));
+		}
+
+		int candidatesStart = 0;
+		int rawStart = 0;
+		for (int i = 0; i < methods.size(); i++) {
+			MagicStringsData.MethodRecord record = methods.valueAt(i);
+			out.writeInt(methods.keyAt(i));
+			out.writeInt(candidatesStart);
+			out.writeInt(record.candidates.size());
+			out.writeInt(rawStart);
+			out.writeInt(record.rawStrings.size());
+			candidatesStart += record.candidates.size();
+			rawStart += record.rawStrings.size();
+		}
+		for (int i = 0; i < methods.size(); i++) {
+			MagicStringsData.MethodRecord record = methods.valueAt(i);
+			for (int c = 0; c < record.candidates.size(); c++) {
+				out.writeInt(record.candidates.get(c));
+				out.writeInt(record.scores[c]);
+			}
+		}
+		for (int i = 0; i < methods.size(); i++) {
+			IntSet rawStrings = methods.valueAt(i).rawStrings;
+			for (int r = 0; r < rawStrings.size(); r++) {
+				out.writeInt(rawStrings.get(r));
+			}
+		}
+
+		int refsStart = 0;
+		for (int i = 0; i < sourceFiles.size(); i++) {
+			int refsCount = sourceFiles.valueAt(i).size;
+			out.writeInt(sourceFiles.keyAt(i));
+			out.writeInt(refsStart);
+			out.writeInt(refsCount);
+			refsStart += refsCount;
+		}
+		for (int i = 0; i < sourceFiles.size(); i++) {
+			MagicStringsData.SourceRefs refs = sourceFiles.valueAt(i);
+			for (int r = 0; r < refs.size; r++) {
+				out.writeInt(refs.methodIds[r]);
+				out.writeInt(refs.methodNameIds[r]);
+				out.writeInt(refs.stringIds[r]);
+			}
+		}
+
+		for (MagicStringsData.MethodCandidate candidate : filtered) {
+			out.writeInt(candidate.getMethodId());
+			out.writeInt(symbols.find(candidate.getCandidate()));
+		}
+
+		// Only classes with a fingerprint can be checked for changes, the rest is rescanned anyway
+		int classMethodsStart = 0;
+		for (int i = 0; i < classes.size(); i++) {
+			MagicStringsData.ClassRecord record = classes.valueAt(i);
+			if (record.hasFingerprint) {
+				out.writeInt(classes.keyAt(i));
+				out.writeInt((int) (record.fingerprint >>> 32));
+				out.writeInt((int) record.fingerprint);
+				out.writeInt(classMethodsStart);
+				out.writeInt(record.methods.size());
+				classMethodsStart += record.methods.size();
+			}
+		}
+		for (int i = 0; i < classes.size(); i++) {
+			MagicStringsData.ClassRecord record = classes.valueAt(i);
+			if (record.hasFingerprint) {
+				for (int m = 0; m < record.methods.size(); m++) {
+					out.writeInt(record.methods.get(m));
+				}
+			}
+		}
+		out.flush();
+	}
+}
@@ -0,0 +1,66 @@
+/**
+ * Binary file format for MagicStringsData.
+ *
+ * All values are big-endian ints. The file starts with a fixed header followed by a section table,
+ * every section is a flat array of fixed-width records addressed by (offset, length) from the table,
+ * so any record can be read in place from a mapped buffer without parsing the rest of the file.
+ *
+ * Header: magic, format version, sections count, reserved.
+ * Section table entry: section id, offset from file start, length in bytes.
+ *
+ * Sections (record layout in ints):
+ * - SYMBOL_OFFSETS: (symbols count + 1) start offsets into SYMBOL_DATA, symbol id is the position
+ * - SYMBOL_DATA: UTF-8 bytes of all symbols, concatenated
+ * - STRINGS: (string id, method id, class id) for every string occurrence
+ * - METHODS: (method id, first candidate, candidates count, first raw string, raw strings count)
+ * - CANDIDATES: (candidate id, score), ranges referenced from METHODS
+ * - RAW_STRINGS: (raw string id), ranges referenced from METHODS
+ * - SOURCE_FILES: (file id, first ref, refs count)
+ * - SOURCE_REFS: (method id, method name id, string id), ranges referenced from SOURCE_FILES
+ * - FILTERED: (method id, candidate id)
+ * - CLASSES (optional): (class id, fingerprint high, fingerprint low, first method, methods count)
+ * - CLASS_METHODS (optional): (method id), ranges referenced from CLASSES
+ *
+ * Readers must reject files with a different format version and ignore unknown section ids.
+ * Optional sections may be missing, they are treated as empty.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.data;
+
+final class MagicStringsFormat {
+	static final int MAGIC = 0x4D534454; // "MSDT"
+	static final int VERSION = 2;
+
+	static final int HEADER_SIZE = 16;
+	static final int SECTION_ENTRY_SIZE = 12;
+
+	static final int SYMBOL_OFFSETS = 1;
+	static final int SYMBOL_DATA = 2;
+	static final int STRINGS = 3;
+	static final int METHODS = 4;
+	static final int CANDIDATES = 5;
+	static final int RAW_STRINGS = 6;
+	static final int SOURCE_FILES = 7;
+	static final int SOURCE_REFS = 8;
+	static final int FILTERED = 9;
+	static final int REQUIRED_SECTIONS = 9;
+	static final int CLASSES = 10;
+	static final int CLASS_METHODS = 11;
+	static final int SECTIONS_COUNT = 11;
+
+	// Record sizes in bytes
+	static final int STRING_RECORD = 12;
+	static final int METHOD_RECORD = 20;
+	static final int CANDIDATE_RECORD = 8;
+	static final int RAW_STRING_RECORD = 4;
+	static final int SOURCE_FILE_RECORD = 12;
+	static final int SOURCE_REF_RECORD = 12;
+	static final int FILTERED_RECORD = 8;
+	static final int CLASS_RECORD = 20;
+	static final int CLASS_METHOD_RECORD = 4;
+
+	private MagicStringsFormat() {
+	}
+}
@@ -0,0 +1,35 @@
+/**
+ * Writer side of the extracted strings data.
+ *
+ * Producers (the extraction pass workers or any other plugin code) feed results
+ * through this interface instead of mutating the underlying collections directly.
+ * Shared implementations must be safe to call from multiple threads at once,
+ * a shard owned by one producer (see {@link MagicStringsData#createShard()}) doesn't have to be.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.data;
+
+public interface MagicStringsSink {
+
+	/**
+	 * Record a string constant found in a method
+	 */
+	void addString(String value, String methodRef, String className);
+
+	/**
+	 * Record a source file path found in a string constant
+	 */
+	void addSourceFileRef(String filePath, String methodRef, String methodName, String stringData);
+
+	/**
+	 * Record a method name candidate together with its score and the string it was found in
+	 */
+	void addCandidate(String methodRef, String candidate, int score, String rawString);
+
+	/**
+	 * Record content fingerprint of a processed class
+	 */
+	void setClassFingerprint(String className, long fingerprint);
+}
@@ -0,0 +1,92 @@
+/**
+ * Runs an action over a range split into chunks, on a fork/join pool when more than one thread is allowed.
+ *
+ * Chunk bounds depend only on the range size, the threads count and the minimal chunk size,
+ * so callers can keep results per chunk and join them in chunk order for a result independent of scheduling.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.data;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public final class ParallelChunks {
+	private static final int TASKS_PER_THREAD = 8; // Extra chunks per thread so work stealing can balance load
+
+	public interface ChunkAction {
+		void run(int chunk, int from, int to);
+	}
+
+	private ParallelChunks() {
+	}
+
+	public static int chunkSize(int total, int threads, int minChunkSize) {
+		return Math.max(minChunkSize, total / (threads * TASKS_PER_THREAD));
+	}
+
+	/**
+	 * Chunks count of the range, at least 1 (an empty range is one empty chunk)
+	 */
+	public static int chunksCount(int total, int threads, int minChunkSize) {
+		int chunkSize = chunkSize(total, threads, minChunkSize);
+		return Math.max(1, (total + chunkSize - 1) / chunkSize);
+	}
+
+	/**
+	 * Run action for every chunk of [0, total), in chunk order on the calling thread if only one thread
+	 * is allowed or there is one chunk, otherwise in parallel
+	 */
+	public static void forEach(int total, int threads, int minChunkSize, ChunkAction action) {
+		int chunkSize = chunkSize(total, threads, minChunkSize);
+		int chunksCount = chunksCount(total, threads, minChunkSize);
+		if (threads == 1 || chunksCount == 1) {
+			for (int chunk = 0; chunk < chunksCount; chunk++) {
+				int from = chunk * chunkSize;
+				action.run(chunk, from, Math.min(total, from + chunkSize));
+			}
+			return;
+		}
+		ForkJoinPool pool = new ForkJoinPool(Math.min(threads, chunksCount));
+		try {
+			pool.invoke(new ChunksTask(total, chunkSize, 0, chunksCount, action));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Splits the chunk range in halves until a single chunk is left,
+	 * idle workers steal the pending halves.
+	 */
+	private static final class ChunksTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int total;
+		private final int chunkSize;
+		private final int fromChunk;
+		private final int toChunk;
+		private final transient ChunkAction action;
+
+		ChunksTask(int total, int chunkSize, int fromChunk, int toChunk, ChunkAction action) {
+			this.total = total;
+			this.chunkSize = chunkSize;
+			this.fromChunk = fromChunk;
+			this.toChunk = toChunk;
+			this.action = action;
+		}
+
+		@Override
+		protected void compute() {
+			if (toChunk - fromChunk == 1) {
+				int from = fromChunk * chunkSize;
+				action.run(fromChunk, from, Math.min(total, from + chunkSize));
+				return;
+			}
+			int mid = (fromChunk + toChunk) >>> 1;
+			invokeAll(new ChunksTask(total, chunkSize, fromChunk, mid, action),
+					new ChunksTask(total, chunkSize, mid, toChunk, action));
+		}
+	}
+}
@@ -0,0 +1,94 @@
+/**
+ * Columnar storage for string constant occurrences.
+ *
+ * Each occurrence is a (string id, method id, class id) triple of symbol ids kept in
+ * three parallel int columns instead of an object with three references.
+ * Columns grow in fixed-size chunks, so appending never copies already stored data.
+ *
+ * Not thread-safe: the owner is responsible for guarding access.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.data;
+
+import java.util.Arrays;
+
+final class StringColumns {
+	private static final int CHUNK_BITS = 12;
+	private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	private int[][] stringIds = new int[4][];
+	private int[][] methodIds = new int[4][];
+	private int[][] classIds = new int[4][];
+	private int size;
+
+	void add(int stringId, int methodId, int classId) {
+		int chunk = size >>> CHUNK_BITS;
+		int offset = size & CHUNK_MASK;
+		if (offset == 0) {
+			allocateChunk(chunk);
+		}
+		set(size, stringId, methodId, classId);
+		size++;
+	}
+
+	int size() {
+		return size;
+	}
+
+	int getStringId(int index) {
+		return stringIds[index >>> CHUNK_BITS][index & CHUNK_MASK];
+	}
+
+	int getMethodId(int index) {
+		return methodIds[index >>> CHUNK_BITS][index & CHUNK_MASK];
+	}
+
+	int getClassId(int index) {
+		return classIds[index >>> CHUNK_BITS][index & CHUNK_MASK];
+	}
+
+	/**
+	 * Remove rows of the given classes, keeping order of the rest
+	 */
+	void removeClasses(IntSet classIdsToRemove) {
+		int kept = 0;
+		for (int i = 0; i < size; i++) {
+			if (!classIdsToRemove.contains(getClassId(i))) {
+				if (kept != i) {
+					set(kept, getStringId(i), getMethodId(i), getClassId(i));
+				}
+				kept++;
+			}
+		}
+		int usedChunks = (kept + CHUNK_MASK) >>> CHUNK_BITS;
+		for (int chunk = usedChunks; chunk < stringIds.length; chunk++) {
+			stringIds[chunk] = null;
+			methodIds[chunk] = null;
+			classIds[chunk] = null;
+		}
+		size = kept;
+	}
+
+	private void set(int index, int stringId, int methodId, int classId) {
+		int chunk = index >>> CHUNK_BITS;
+		int offset = index & CHUNK_MASK;
+		stringIds[chunk][offset] = stringId;
+		methodIds[chunk][offset] = methodId;
+		classIds[chunk][offset] = classId;
+	}
+
+	private void allocateChunk(int chunk) {
+		if (chunk == stringIds.length) {
+			int capacity = chunk * 2;
+			stringIds = Arrays.copyOf(stringIds, capacity);
+			methodIds = Arrays.copyOf(methodIds, capacity);
+			classIds = Arrays.copyOf(classIds, capacity);
+		}
+		stringIds[chunk] = new int[CHUNK_SIZE];
+		methodIds[chunk] = new int[CHUNK_SIZE];
+		classIds[chunk] = new int[CHUNK_SIZE];
+	}
+}
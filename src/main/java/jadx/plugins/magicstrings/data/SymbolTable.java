@@ -0,0 +1,104 @@
+/**
+ * Dictionary of all strings stored in MagicStringsData.
+ *
+ * Every string (method refs, class names, candidates, raw string constants, file paths)
+ * is stored once and referenced everywhere else by its int id.
+ * Ids are dense and assigned in first-seen order, so interning the same sequence of strings
+ * always produces the same ids.
+ *
+ * Not thread-safe: the owner is responsible for guarding access.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.data;
+
+import java.util.Arrays;
+
+public final class SymbolTable {
+	private static final int INITIAL_CAPACITY = 64;
+
+	private String[] symbols = new String[INITIAL_CAPACITY];
+	private int size;
+
+	// Open addressing table, stores (id + 1), 0 for empty slot
+	private int[] slots = new int[INITIAL_CAPACITY * 2];
+
+	/**
+	 * Id of the string, adding it if not present yet
+	 */
+	public int intern(String str) {
+		int mask = slots.length - 1;
+		int slot = spread(str.hashCode()) & mask;
+		while (true) {
+			int entry = slots[slot];
+			if (entry == 0) {
+				break;
+			}
+			if (symbols[entry - 1].equals(str)) {
+				return entry - 1;
+			}
+			slot = (slot + 1) & mask;
+		}
+		int id = size;
+		if (id == symbols.length) {
+			symbols = Arrays.copyOf(symbols, id * 2);
+		}
+		symbols[id] = str;
+		size++;
+		slots[slot] = id + 1;
+		if (size * 2 > slots.length) {
+			rehash(slots.length * 2);
+		}
+		return id;
+	}
+
+	/**
+	 * Id of the string or -1 if it was never interned
+	 */
+	public int find(String str) {
+		if (str == null) {
+			return -1;
+		}
+		int mask = slots.length - 1;
+		int slot = spread(str.hashCode()) & mask;
+		while (true) {
+			int entry = slots[slot];
+			if (entry == 0) {
+				return -1;
+			}
+			if (symbols[entry - 1].equals(str)) {
+				return entry - 1;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	public String get(int id) {
+		if (id < 0 || id >= size) {
+			throw new IndexOutOfBoundsException("Symbol id: " + id + ", size: " + size);
+		}
+		return symbols[id];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	private void rehash(int newCapacity) {
+		int[] newSlots = new int[newCapacity];
+		int mask = newCapacity - 1;
+		for (int id = 0; id < size; id++) {
+			int slot = spread(symbols[id].hashCode()) & mask;
+			while (newSlots[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			newSlots[slot] = id + 1;
+		}
+		slots = newSlots;
+	}
+
+	private static int spread(int hash) {
+		return (hash ^ (hash >>> 16)) * 0x9E3779B9;
+	}
+}
@@ -0,0 +1,309 @@
+/**
+ * Read-only String collections backed by id-keyed storage.
+ *
+ * MagicStringsData keeps everything as symbol ids, while the GUI and other callers work with
+ * plain Map/Set/List of strings. These views translate ids on access instead of copying,
+ * so exposing the data costs no extra memory. Every access takes the owner's read lock.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.data;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+import java.util.function.IntUnaryOperator;
+
+final class SymbolViews {
+
+	private SymbolViews() {
+	}
+
+	/**
+	 * Map keyed by symbol with values converted by {@code valueView}
+	 */
+	static <V, R> Map<String, R> map(IntObjectMap<V> map, SymbolTable symbols, Lock lock, Function<V, R> valueView) {
+		return new SymbolKeyedMap<>(map, symbols, lock, valueView);
+	}
+
+	static Set<String> set(IntSet set, SymbolTable symbols, Lock lock) {
+		return new SymbolSet(set, symbols, lock);
+	}
+
+	/**
+	 * Map from the set's symbols to int values stored at the same positions
+	 */
+	static Map<String, Integer> positionValues(IntSet keys, IntUnaryOperator valueAt, SymbolTable symbols, Lock lock) {
+		return new PositionValuesMap(keys, valueAt, symbols, lock);
+	}
+
+	/**
+	 * List of {@code size} elements produced by {@code element} for each position
+	 */
+	static <T> List<T> list(Lock lock, IntSupplier size, IntFunction<T> element) {
+		return new AbstractList<T>() {
+			@Override
+			public T get(int index) {
+				lock.lock();
+				try {
+					int count = size.getAsInt();
+					if (index < 0 || index >= count) {
+						throw new IndexOutOfBoundsException("Index: " + index + ", size: " + count);
+					}
+					return element.apply(index);
+				} finally {
+					lock.unlock();
+				}
+			}
+
+			@Override
+			public int size() {
+				lock.lock();
+				try {
+					return size.getAsInt();
+				} finally {
+					lock.unlock();
+				}
+			}
+		};
+	}
+
+	private static final class SymbolKeyedMap<V, R> extends AbstractMap<String, R> {
+		private final IntObjectMap<V> map;
+		private final SymbolTable symbols;
+		private final Lock lock;
+		private final Function<V, R> valueView;
+
+		SymbolKeyedMap(IntObjectMap<V> map, SymbolTable symbols, Lock lock, Function<V, R> valueView) {
+			this.map = map;
+			this.symbols = symbols;
+			this.lock = lock;
+			this.valueView = valueView;
+		}
+
+		@Override
+		public R get(Object key) {
+			if (!(key instanceof String)) {
+				return null;
+			}
+			lock.lock();
+			try {
+				int id = symbols.find((String) key);
+				if (id < 0) {
+					return null;
+				}
+				V value = map.get(id);
+				return value != null ? valueView.apply(value) : null;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			if (!(key instanceof String)) {
+				return false;
+			}
+			lock.lock();
+			try {
+				int id = symbols.find((String) key);
+				return id >= 0 && map.indexOf(id) >= 0;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public int size() {
+			lock.lock();
+			try {
+				return map.size();
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public Set<Entry<String, R>> entrySet() {
+			return new AbstractSet<Entry<String, R>>() {
+				@Override
+				public Iterator<Entry<String, R>> iterator() {
+					return new PositionIterator<Entry<String, R>>(SymbolKeyedMap.this.size()) {
+						@Override
+						Entry<String, R> at(int index) {
+							lock.lock();
+							try {
+								String key = symbols.get(map.keyAt(index));
+								return new SimpleImmutableEntry<>(key, valueView.apply(map.valueAt(index)));
+							} finally {
+								lock.unlock();
+							}
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return SymbolKeyedMap.this.size();
+				}
+			};
+		}
+	}
+
+	private static final class SymbolSet extends AbstractSet<String> {
+		private final IntSet set;
+		private final SymbolTable symbols;
+		private final Lock lock;
+
+		SymbolSet(IntSet set, SymbolTable symbols, Lock lock) {
+			this.set = set;
+			this.symbols = symbols;
+			this.lock = lock;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof String)) {
+				return false;
+			}
+			lock.lock();
+			try {
+				int id = symbols.find((String) o);
+				return id >= 0 && set.contains(id);
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public int size() {
+			lock.lock();
+			try {
+				return set.size();
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public Iterator<String> iterator() {
+			return new PositionIterator<String>(size()) {
+				@Override
+				String at(int index) {
+					lock.lock();
+					try {
+						return symbols.get(set.get(index));
+					} finally {
+						lock.unlock();
+					}
+				}
+			};
+		}
+	}
+
+	private static final class PositionValuesMap extends AbstractMap<String, Integer> {
+		private final IntSet keys;
+		private final IntUnaryOperator valueAt;
+		private final SymbolTable symbols;
+		private final Lock lock;
+
+		PositionValuesMap(IntSet keys, IntUnaryOperator valueAt, SymbolTable symbols, Lock lock) {
+			this.keys = keys;
+			this.valueAt = valueAt;
+			this.symbols = symbols;
+			this.lock = lock;
+		}
+
+		@Override
+		public Integer get(Object key) {
+			if (!(key instanceof String)) {
+				return null;
+			}
+			lock.lock();
+			try {
+				int id = symbols.find((String) key);
+				int index = id >= 0 ? keys.indexOf(id) : -1;
+				return index >= 0 ? valueAt.applyAsInt(index) : null;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+
+		@Override
+		public int size() {
+			lock.lock();
+			try {
+				return keys.size();
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public Set<Entry<String, Integer>> entrySet() {
+			return new AbstractSet<Entry<String, Integer>>() {
+				@Override
+				public Iterator<Entry<String, Integer>> iterator() {
+					return new PositionIterator<Entry<String, Integer>>(PositionValuesMap.this.size()) {
+						@Override
+						Entry<String, Integer> at(int index) {
+							lock.lock();
+							try {
+								return new SimpleImmutableEntry<>(symbols.get(keys.get(index)), valueAt.applyAsInt(index));
+							} finally {
+								lock.unlock();
+							}
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return PositionValuesMap.this.size();
+				}
+			};
+		}
+	}
+
+	/**
+	 * Iterates positions known at creation time, entries added later are not visited
+	 */
+	private abstract static class PositionIterator<T> implements Iterator<T> {
+		private final int end;
+		private int next;
+
+		PositionIterator(int end) {
+			this.end = end;
+		}
+
+		abstract T at(int index);
+
+		@Override
+		public boolean hasNext() {
+			return next < end;
+		}
+
+		@Override
+		public T next() {
+			if (next >= end) {
+				throw new NoSuchElementException();
+			}
+			return at(next++);
+		}
+	}
+}
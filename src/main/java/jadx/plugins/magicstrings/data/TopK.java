@@ -0,0 +1,56 @@
+/**
+ * Bounded selection of the k largest keys, for small k.
+ *
+ * Keeps (key, value) pairs ordered by key (descending) in fixed arrays, so ranking
+ * does no sorting, boxing or allocation and one instance can be reused for many selections.
+ * Selection is stable: among equal keys the one offered first ranks higher.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.data;
+
+public final class TopK {
+	private final long[] keys;
+	private final long[] values;
+	private int size;
+
+	public TopK(int k) {
+		this.keys = new long[k];
+		this.values = new long[k];
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	public void offer(long key, long value) {
+		int k = keys.length;
+		if (size == k && key <= keys[k - 1]) {
+			return;
+		}
+		int pos = size < k ? size++ : k - 1;
+		while (pos > 0 && keys[pos - 1] < key) {
+			keys[pos] = keys[pos - 1];
+			values[pos] = values[pos - 1];
+			pos--;
+		}
+		keys[pos] = key;
+		values[pos] = value;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Key at rank (0 is the largest)
+	 */
+	public long key(int rank) {
+		return keys[rank];
+	}
+
+	public long value(int rank) {
+		return values[rank];
+	}
+}
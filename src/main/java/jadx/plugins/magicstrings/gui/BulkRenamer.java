@@ -0,0 +1,157 @@
+/**
+ * Applies many method renames as one update of the project code data.
+ *
+ * Sending one rename event per method makes JADX update the project, reload code data and regenerate
+ * the owning class for every rename. Here renames are merged into the project code data in one pass and
+ * stored through the project, so they are saved with it like renames made by hand. Code data is reloaded
+ * once, every affected top-level class (declaring a renamed method or calling one) is unloaded once (its
+ * code is generated again, with all new names, when it is opened next), then the tree and open tabs are
+ * refreshed.
+ *
+ * The plugin API gives no access to the project, it is reached through the main window (JADX GUI
+ * MainWindow.getProject()). Everything runs on the EDT, like JADX's own rename handling.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.gui;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.swing.JFrame;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jadx.api.JadxDecompiler;
+import jadx.api.JavaClass;
+import jadx.api.JavaMethod;
+import jadx.api.data.ICodeRename;
+import jadx.api.data.IJavaNodeRef;
+import jadx.api.data.impl.JadxCodeData;
+import jadx.api.data.impl.JadxCodeRename;
+import jadx.api.data.impl.JadxNodeRef;
+import jadx.api.plugins.gui.JadxGuiContext;
+import jadx.core.dex.nodes.MethodNode;
+
+final class BulkRenamer {
+	private static final Logger LOG = LoggerFactory.getLogger(BulkRenamer.class);
+
+	private final JadxGuiContext guiContext;
+	private final JadxDecompiler decompiler;
+	private final Object project;
+	private final Method setCodeData;
+	private final JadxCodeData codeData;
+	// Renames of code references (variables) are kept as is, node renames are replaced by node
+	private final List<ICodeRename> codeRefRenames = new ArrayList<>();
+	private final Map<IJavaNodeRef, ICodeRename> nodeRenames = new LinkedHashMap<>();
+	// Top-level classes whose code must be generated again
+	private final Set<JavaClass> classes = new LinkedHashSet<>();
+
+	private BulkRenamer(JadxGuiContext guiContext, JadxDecompiler decompiler, Object project, Method setCodeData,
+			JadxCodeData codeData) {
+		this.guiContext = guiContext;
+		this.decompiler = decompiler;
+		this.project = project;
+		this.setCodeData = setCodeData;
+		this.codeData = codeData;
+		List<ICodeRename> renames = codeData.getRenames();
+		if (renames != null) {
+			for (ICodeRename rename : renames) {
+				if (rename.getCodeRef() != null) {
+					codeRefRenames.add(rename);
+				} else {
+					nodeRenames.put(rename.getNodeRef(), rename);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Renamer over the project code data, null if the project can't be reached
+	 * (then renames must go through rename events one by one). Call on the EDT.
+	 */
+	static BulkRenamer create(JadxGuiContext guiContext, JadxDecompiler decompiler) {
+		JFrame mainFrame = guiContext.getMainFrame();
+		if (decompiler == null || mainFrame == null) {
+			return null;
+		}
+		try {
+			Object project = mainFrame.getClass().getMethod("getProject").invoke(mainFrame);
+			if (project == null) {
+				return null;
+			}
+			Object codeData = project.getClass().getMethod("getCodeData").invoke(project);
+			Method setCodeData = project.getClass().getMethod("setCodeData", JadxCodeData.class);
+			if (codeData == null) {
+				return new BulkRenamer(guiContext, decompiler, project, setCodeData, new JadxCodeData());
+			}
+			if (codeData instanceof JadxCodeData) {
+				return new BulkRenamer(guiContext, decompiler, project, setCodeData, (JadxCodeData) codeData);
+			}
+			LOG.debug("Unexpected project code data type: {}", codeData.getClass().getName());
+		} catch (Exception e) {
+			LOG.debug("Project code data not available, renames go through rename events", e);
+		}
+		return null;
+	}
+
+	/**
+	 * Queue a rename, a previous rename of the same method is replaced.
+	 * The top-level classes of the method and of all its callers are unloaded on apply.
+	 */
+	void add(JavaMethod method, String newName) {
+		IJavaNodeRef nodeRef = JadxNodeRef.forMth(method);
+		nodeRenames.remove(nodeRef); // Keep the latest rename last
+		nodeRenames.put(nodeRef, new JadxCodeRename(nodeRef, newName));
+		MethodNode mth = method.getMethodNode();
+		classes.add(mth.getParentClass().getTopParentClass().getJavaNode());
+		// Callers print the method name too, their code must be generated again as well
+		for (MethodNode caller : mth.getUseIn()) {
+			classes.add(caller.getParentClass().getTopParentClass().getJavaNode());
+		}
+	}
+
+	/**
+	 * Count of top-level classes to unload: declaring classes of renamed methods and of their callers
+	 */
+	int getClassesCount() {
+		return classes.size();
+	}
+
+	/**
+	 * Store queued renames in the project, reload code data once, unload every affected class and refresh views.
+	 * Call on the EDT.
+	 */
+	void apply() throws ReflectiveOperationException {
+		List<ICodeRename> renames = new ArrayList<>(codeRefRenames.size() + nodeRenames.size());
+		renames.addAll(codeRefRenames);
+		renames.addAll(nodeRenames.values());
+		codeData.setRenames(renames);
+		setCodeData.invoke(project, codeData); // Marks the project as changed, so renames are saved with it
+		if (decompiler.getArgs().getCodeData() != codeData) {
+			decompiler.getArgs().setCodeData(codeData);
+		}
+		decompiler.reloadCodeData();
+		for (JavaClass cls : classes) {
+			cls.unload();
+		}
+		reloadTree();
+		guiContext.reloadAllTabs();
+	}
+
+	private void reloadTree() {
+		JFrame mainFrame = guiContext.getMainFrame();
+		try {
+			mainFrame.getClass().getMethod("reloadTree").invoke(mainFrame);
+		} catch (Exception e) {
+			LOG.debug("Can't reload classes tree after renames", e);
+		}
+	}
+}
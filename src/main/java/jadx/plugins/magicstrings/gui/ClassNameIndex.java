@@ -0,0 +1,74 @@
+/**
+ * Index of classes of a root node by original and alias full names.
+ *
+ * Built once on first lookup, so resolving a class name is a hash lookup instead of a scan
+ * over every class. Aliases change on class and package renames: the index is dropped
+ * on such rename events and rebuilt lazily.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.gui;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.RootNode;
+
+final class ClassNameIndex {
+	private static volatile ClassNameIndex current;
+
+	private final RootNode root;
+	// Original and alias full names
+	private final Map<String, ClassNode> classes;
+
+	private ClassNameIndex(RootNode root) {
+		this.root = root;
+		List<ClassNode> rootClasses = root.getClasses();
+		this.classes = new HashMap<>((int) (rootClasses.size() * 2 / 0.75f) + 1);
+		for (ClassNode cls : rootClasses) {
+			classes.putIfAbsent(cls.getClassInfo().getFullName(), cls);
+		}
+		// Aliases only after all original names, so an original name wins like in root.resolveClass
+		for (ClassNode cls : rootClasses) {
+			String aliasName = cls.getClassInfo().getAliasFullName();
+			if (aliasName != null) {
+				classes.putIfAbsent(aliasName, cls);
+			}
+		}
+	}
+
+	/**
+	 * Index of the given root, built on first use
+	 */
+	static ClassNameIndex forRoot(RootNode root) {
+		ClassNameIndex index = current;
+		if (index != null && index.root == root) {
+			return index;
+		}
+		synchronized (ClassNameIndex.class) {
+			index = current;
+			if (index == null || index.root != root) {
+				index = new ClassNameIndex(root);
+				current = index;
+			}
+			return index;
+		}
+	}
+
+	/**
+	 * Drop the index after renames, next lookup builds it again
+	 */
+	static void invalidate() {
+		current = null;
+	}
+
+	/**
+	 * Class by original or alias full name
+	 */
+	ClassNode findClass(String fullName) {
+		return classes.get(fullName);
+	}
+}
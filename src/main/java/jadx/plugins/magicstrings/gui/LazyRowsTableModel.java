@@ -0,0 +1,195 @@
+/**
+ * Table model whose rows are computed in the background and kept in a dense array of row slots.
+ *
+ * Asking for a row which is not loaded yet (painting a cell, sorting, filtering) returns a placeholder
+ * and queues the row. The loader serves the most recently asked rows first, so rows in view come next
+ * even right after a jump to the end of a large table or after a sorter or filter asked for every row
+ * (asking again moves a row back on top), and fills the remaining rows in order when nothing is asked.
+ * Rows are never computed on the EDT, loaded rows are reported to the table in batches.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.gui;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.swing.JLabel;
+import javax.swing.JProgressBar;
+import javax.swing.SwingWorker;
+import javax.swing.table.AbstractTableModel;
+
+abstract class LazyRowsTableModel<R> extends AbstractTableModel {
+	private static final long serialVersionUID = 1L;
+	private static final int BATCH_SIZE = 64;
+
+	private final int rowCount;
+	private final AtomicReferenceArray<R> rows;
+
+	// Rows asked for (a stack, newest on top), guarded by this.
+	// A row asked again is pushed again, older entries are skipped once it is taken.
+	private int[] requested = new int[BATCH_SIZE];
+	private int requestedCount;
+	// Rows given to the loader, guarded by this
+	private final BitSet taken = new BitSet();
+	// Next row to fill when nothing is asked, guarded by this
+	private int backfillRow;
+
+	protected LazyRowsTableModel(int rowCount) {
+		this.rowCount = rowCount;
+		this.rows = new AtomicReferenceArray<>(rowCount);
+	}
+
+	/**
+	 * Compute a row, called on the loader thread
+	 */
+	protected abstract R loadRow(int rowIndex);
+
+	/**
+	 * Value shown until the row is loaded, must be cheap
+	 */
+	protected abstract Object getPlaceholderAt(int rowIndex, int columnIndex);
+
+	protected abstract Object getRowValueAt(R row, int columnIndex);
+
+	/**
+	 * @return the row if already loaded, null otherwise
+	 */
+	protected R getLoadedRow(int rowIndex) {
+		return rows.get(rowIndex);
+	}
+
+	@Override
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	@Override
+	public Object getValueAt(int rowIndex, int columnIndex) {
+		R row = rows.get(rowIndex);
+		if (row == null) {
+			requestRow(rowIndex);
+			return getPlaceholderAt(rowIndex, columnIndex);
+		}
+		return getRowValueAt(row, columnIndex);
+	}
+
+	@Override
+	public boolean isCellEditable(int row, int column) {
+		return false;
+	}
+
+	public void startBackgroundLoading(JProgressBar progressBar, JLabel infoLabel) {
+		new SwingWorker<Void, int[]>() {
+			@Override
+			protected Void doInBackground() {
+				int[] batch = new int[BATCH_SIZE];
+				int loaded = 0;
+				while (true) {
+					int count = takeBatch(batch);
+					if (count == 0) {
+						return null;
+					}
+					int first = Integer.MAX_VALUE;
+					int last = -1;
+					for (int i = 0; i < count; i++) {
+						int rowIndex = batch[i];
+						rows.set(rowIndex, loadRow(rowIndex));
+						first = Math.min(first, rowIndex);
+						last = Math.max(last, rowIndex);
+					}
+					loaded += count;
+					publish(new int[] { first, last, loaded });
+				}
+			}
+
+			@Override
+			protected void process(List<int[]> chunks) {
+				int first = Integer.MAX_VALUE;
+				int last = -1;
+				for (int[] chunk : chunks) {
+					first = Math.min(first, chunk[0]);
+					last = Math.max(last, chunk[1]);
+				}
+				int loaded = chunks.get(chunks.size() - 1)[2];
+				if (progressBar != null) {
+					progressBar.setValue(loaded);
+					progressBar.setString(String.format("Loading candidates... %d/%d", loaded, rowCount));
+				}
+				fireTableRowsUpdated(first, last);
+			}
+
+			@Override
+			protected void done() {
+				if (progressBar != null) {
+					progressBar.setValue(rowCount);
+					progressBar.setString("Complete");
+					progressBar.setVisible(false);
+				}
+				if (infoLabel != null) {
+					infoLabel.setText(String.format("Loaded %d candidates", rowCount));
+				}
+				// Sort and filter again with the real values
+				fireTableDataChanged();
+			}
+		}.execute();
+	}
+
+	private synchronized void requestRow(int rowIndex) {
+		if (requestedCount > 0 && requested[requestedCount - 1] == rowIndex) {
+			return; // Same row asked for its other columns
+		}
+		if (requestedCount == requested.length) {
+			compactRequested();
+			if (requestedCount == requested.length) {
+				requested = Arrays.copyOf(requested, requestedCount * 2);
+			}
+		}
+		requested[requestedCount++] = rowIndex;
+	}
+
+	/**
+	 * Drop taken rows and older entries of rows asked again, keeping the order of the rest,
+	 * so the stack never holds more than one entry per row
+	 */
+	private void compactRequested() {
+		BitSet seen = new BitSet(rowCount);
+		int top = requested.length;
+		for (int i = requestedCount - 1; i >= 0; i--) {
+			int rowIndex = requested[i];
+			if (!taken.get(rowIndex) && !seen.get(rowIndex)) {
+				seen.set(rowIndex);
+				requested[--top] = rowIndex;
+			}
+		}
+		requestedCount = requested.length - top;
+		System.arraycopy(requested, top, requested, 0, requestedCount);
+	}
+
+	/**
+	 * Next rows to load: asked rows first (newest first), then rows in order
+	 *
+	 * @return rows count put into batch, 0 if every row is loaded
+	 */
+	private synchronized int takeBatch(int[] batch) {
+		int count = 0;
+		while (count < batch.length && requestedCount > 0) {
+			int rowIndex = requested[--requestedCount];
+			if (!taken.get(rowIndex)) {
+				taken.set(rowIndex);
+				batch[count++] = rowIndex;
+			}
+		}
+		while (count < batch.length && backfillRow < rowCount) {
+			int rowIndex = backfillRow++;
+			if (!taken.get(rowIndex)) {
+				taken.set(rowIndex);
+				batch[count++] = rowIndex;
+			}
+		}
+		return count;
+	}
+}
@@ -8,6 +8,7 @@
  * - Top Candidates + Source Files tab: Combined view of high-scoring candidates
  * - Method Candidates tab: Table of filtered method name candidates
  * - All Strings tab: Complete list of all extracted strings
+ * - Performance tab: Timings and counters of the extraction pass, exportable as JSON
  * 
  * Features include:
  * - Search/filter functionality across all tabs
@@ -36,21 +37,30 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 import javax.swing.BorderFactory;
+import javax.swing.JButton;
 import javax.swing.JComponent;
 import javax.swing.JDialog;
+import javax.swing.JFileChooser;
 import javax.swing.JLabel;
 import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
@@ -63,6 +73,7 @@ import javax.swing.JTable;
 import javax.swing.JTextField;
 import javax.swing.JTree;
 import javax.swing.KeyStroke;
+import javax.swing.ProgressMonitor;
 import javax.swing.RowFilter;
 import javax.swing.SwingUtilities;
 import javax.swing.SwingWorker;
@@ -83,6 +94,7 @@ import jadx.api.JadxDecompiler;
 import jadx.api.JavaMethod;
 import jadx.api.plugins.JadxPluginContext;
 import jadx.api.plugins.events.IJadxEvents;
+import jadx.api.plugins.events.JadxEvents;
 import jadx.api.plugins.events.types.NodeRenamedByUser;
 import jadx.api.plugins.gui.JadxGuiContext;
 import jadx.core.deobf.NameMapper;
@@ -90,17 +102,19 @@ import jadx.core.dex.nodes.ClassNode;
 import jadx.core.dex.nodes.MethodNode;
 import jadx.core.dex.nodes.RootNode;
 import jadx.plugins.magicstrings.data.MagicStringsData;
+import jadx.plugins.magicstrings.metrics.CostHistogram;
+import jadx.plugins.magicstrings.metrics.JfrEvents;
+import jadx.plugins.magicstrings.metrics.PassMetrics;
 
 public class MagicStringsGui {
 	private static final Logger LOG = LoggerFactory.getLogger(MagicStringsGui.class);
 	private static final ThreadLocal<NavigationContext> NAVIGATION_CONTEXT = new ThreadLocal<>();
 	private static final AtomicBoolean RSYNTAX_HANDLER_REGISTERED = new AtomicBoolean(false);
 	private static final AtomicBoolean WRAP_WARNING_SHOWN = new AtomicBoolean(false);
+	private static final String NOT_TIMED = "not timed (enable magic-strings.detailed-timing)";
 	private static Thread.UncaughtExceptionHandler previousExceptionHandler;
 
 	private final JadxPluginContext pluginContext;
-	// Cache for method names to avoid repeated expensive lookups
-	private final Map<String, String> methodNameCache = new ConcurrentHashMap<>();
 	// Cache RootNode to avoid repeated decompiler.getRoot() calls
 	private RootNode cachedRootNode;
 	// KeyEventDispatcher for Ctrl+F - stored to remove on dialog close
@@ -115,6 +129,12 @@ public class MagicStringsGui {
 		guiContext.addMenuAction("Magic Strings: Show Results", () -> {
 			guiContext.uiRun(() -> showResults(guiContext));
 		});
+		// Only class (or package) renames change aliases in the class index, method renames are ignored
+		pluginContext.events().addListener(JadxEvents.NODE_RENAMED_BY_USER, event -> {
+			if (!(event.getNode() instanceof MethodNode)) {
+				ClassNameIndex.invalidate();
+			}
+		});
 	}
 
 	private void showResults(JadxGuiContext guiContext) {
@@ -130,8 +150,18 @@ public class MagicStringsGui {
 		if (data == null) {
 			return;
 		}
+		JfrEvents.DialogEvent event = JfrEvents.beginDialog();
+		String title = "Magic Strings Results";
+		boolean snapshot = !data.isExtractionComplete();
+		if (snapshot) {
+			// Extraction is still running: show a consistent copy of what was collected so far,
+			// candidates are filtered on the copy as the pass filters only once extraction is done
+			data = data.snapshot();
+			data.processFilteredCandidates();
+			title += " (extraction in progress)";
+		}
 
-		JDialog dialog = new JDialog(guiContext.getMainFrame(), "Magic Strings Results", false);
+		JDialog dialog = new JDialog(guiContext.getMainFrame(), title, false);
 		dialog.setSize(1000, 700);
 		dialog.setLocationRelativeTo(guiContext.getMainFrame());
 		// Request focus when dialog becomes visible to ensure it can capture keyboard events
@@ -183,6 +213,11 @@ public class MagicStringsGui {
 			tabbedPane.addTab("All Strings", createAllStringsPanel(data));
 		}
 
+		// Pass metrics tab
+		if (data.getMetrics() != null) {
+			tabbedPane.addTab("Performance", createPerformancePanel(data.getMetrics()));
+		}
+
 		if (tabbedPane.getTabCount() == 0) {
 			JPanel emptyPanel = new JPanel();
 			emptyPanel.add(new JLabel("No magic strings found. Try decompiling the code first."));
@@ -208,6 +243,8 @@ public class MagicStringsGui {
 			}
 		});
 
+		JfrEvents.endDialog(event, tabbedPane.getTabCount(), data.getFilteredCandidates().size(),
+				data.getMethodCandidates().size(), data.getAllStrings().size(), snapshot);
 		dialog.setVisible(true);
 	}
 
@@ -322,12 +359,19 @@ public class MagicStringsGui {
 			JScrollPane scrollPane = findScrollPane(panel);
 			if (scrollPane != null) {
 				Component viewportView = scrollPane.getViewport().getView();
+				int selectedIndex = tabbedPane.getSelectedIndex();
+				String tabTitle = selectedIndex >= 0 ? tabbedPane.getTitleAt(selectedIndex) : null;
 				if (viewportView instanceof JTable) {
 					JTable table = (JTable) viewportView;
+					JfrEvents.SearchFilterEvent event = JfrEvents.beginSearchFilter(tabTitle, searchText);
 					applyTableFilter(table, searchText);
+					JfrEvents.endSearchFilter(event, table.getModel().getRowCount(), table.getRowCount());
 				} else if (viewportView instanceof JTree) {
 					JTree tree = (JTree) viewportView;
+					JfrEvents.SearchFilterEvent event = JfrEvents.beginSearchFilter(tabTitle, searchText);
 					applyTreeFilter(tree, searchText);
+					// Tree filters rebuild the model, only visible rows are known
+					JfrEvents.endSearchFilter(event, -1, tree.getRowCount());
 				}
 			}
 		}
@@ -436,13 +480,13 @@ public class MagicStringsGui {
 			
 			// Only add file node if it has matching references or file path matches (or no search)
 			if (searchLower == null || !filteredRefs.isEmpty() || filePath.toLowerCase().contains(searchLower)) {
-				SourceFileTreeNodeData fileData = new SourceFileTreeNodeData(filePath, null, filePath);
+				SourceFileTreeNodeData fileData = new SourceFileTreeNodeData(filePath, -1, null, filePath);
 				DefaultMutableTreeNode fileNode = new DefaultMutableTreeNode(fileData);
 				
 				for (MagicStringsData.SourceFileReference ref : filteredRefs) {
 					String nodeText = String.format("%s [%s] - %s",
 							ref.getMethodName(), ref.getMethodRef(), ref.getStringData());
-					SourceFileTreeNodeData refData = new SourceFileTreeNodeData(filePath, ref.getMethodRef(), nodeText);
+					SourceFileTreeNodeData refData = new SourceFileTreeNodeData(filePath, ref.getMethodId(), ref.getMethodRef(), nodeText);
 					DefaultMutableTreeNode refNode = new DefaultMutableTreeNode(refData);
 					fileNode.add(refNode);
 				}
@@ -474,6 +518,7 @@ public class MagicStringsGui {
 			}
 		}
 		final RootNode finalRoot = root;
+		MagicStringsData data = (MagicStringsData) tree.getClientProperty("magicStringsData");
 		
 		// Rebuild tree with filtered data
 		DefaultMutableTreeNode rootNode = new DefaultMutableTreeNode("Top Candidates by Source File");
@@ -504,29 +549,18 @@ public class MagicStringsGui {
 			
 			// Only add file node if it has matching candidates or file path matches (or no search)
 			if (searchLower == null || !filteredCandidates.isEmpty() || sourceFile.toLowerCase().contains(searchLower)) {
-				TopCandidateTreeNodeData fileData = new TopCandidateTreeNodeData(sourceFile, null, null, 0, sourceFile);
+				TopCandidateTreeNodeData fileData = new TopCandidateTreeNodeData(sourceFile, sourceFile);
 				DefaultMutableTreeNode fileNode = new DefaultMutableTreeNode(fileData);
 				
 				for (TopCandidateWithSourceFile candidate : filteredCandidates) {
-					// Get current method name (with caching)
-					String currentName = methodNameCache.computeIfAbsent(candidate.getMethodRef(), ref -> {
-						try {
-							MethodNode methodNode = findMethodNodeByRef(finalRoot, ref);
-							if (methodNode != null) {
-								return methodNode.getName();
-							}
-						} catch (Exception e) {
-							// Ignore
-						}
-						return "?";
-					});
+					String currentName = getCurrentName(data, finalRoot, candidate.getMethodId());
 					
 					// Format: "methodName -> candidateName (score)"
 					String displayText = String.format("%s -> %s (score: %d)", 
 							currentName, candidate.getCandidate(), candidate.getScore());
 					
 					TopCandidateTreeNodeData methodData = new TopCandidateTreeNodeData(
-							sourceFile, candidate.getMethodRef(), candidate.getCandidate(), 
+							sourceFile, candidate.getMethodId(), candidate.getMethodRef(), candidate.getCandidate(),
 							currentName, candidate.getScore(), displayText);
 					DefaultMutableTreeNode methodNode = new DefaultMutableTreeNode(methodData);
 					fileNode.add(methodNode);
@@ -564,11 +598,13 @@ public class MagicStringsGui {
 
 	private static class SourceFileTreeNodeData {
 		private final String filePath;
+		private final int methodId;
 		private final String methodRef;
 		private final String displayText;
 
-		SourceFileTreeNodeData(String filePath, String methodRef, String displayText) {
+		SourceFileTreeNodeData(String filePath, int methodId, String methodRef, String displayText) {
 			this.filePath = filePath;
+			this.methodId = methodId;
 			this.methodRef = methodRef;
 			this.displayText = displayText;
 		}
@@ -577,6 +613,10 @@ public class MagicStringsGui {
 			return filePath;
 		}
 
+		int getMethodId() {
+			return methodId;
+		}
+
 		String getMethodRef() {
 			return methodRef;
 		}
@@ -588,6 +628,7 @@ public class MagicStringsGui {
 	}
 
 	private static class TopCandidateTreeNodeData {
+		private final int methodId;
 		private final String methodRef;
 		private final String candidate;
 		private final String currentName;
@@ -595,9 +636,10 @@ public class MagicStringsGui {
 		private final String sourceFile;
 		private final String displayText;
 
-		TopCandidateTreeNodeData(String sourceFile, String methodRef, String candidate, 
+		TopCandidateTreeNodeData(String sourceFile, int methodId, String methodRef, String candidate,
 				String currentName, int score, String displayText) {
 			this.sourceFile = sourceFile;
+			this.methodId = methodId;
 			this.methodRef = methodRef;
 			this.candidate = candidate;
 			this.currentName = currentName;
@@ -605,8 +647,12 @@ public class MagicStringsGui {
 			this.displayText = displayText;
 		}
 
-		TopCandidateTreeNodeData(String sourceFile, String methodRef, String candidate, int score, String displayText) {
-			this(sourceFile, methodRef, candidate, null, score, displayText);
+		TopCandidateTreeNodeData(String sourceFile, String displayText) {
+			this(sourceFile, -1, null, null, null, 0, displayText);
+		}
+
+		int getMethodId() {
+			return methodId;
 		}
 
 		String getMethodRef() {
@@ -674,13 +720,13 @@ public class MagicStringsGui {
 		// Build tree with SourceFileTreeNodeData
 		for (Map.Entry<String, List<MagicStringsData.SourceFileReference>> entry : data.getSourceFiles().entrySet()) {
 			String filePath = entry.getKey();
-			SourceFileTreeNodeData fileData = new SourceFileTreeNodeData(filePath, null, filePath);
+			SourceFileTreeNodeData fileData = new SourceFileTreeNodeData(filePath, -1, null, filePath);
 			DefaultMutableTreeNode fileNode = new DefaultMutableTreeNode(fileData);
 
 			for (MagicStringsData.SourceFileReference ref : entry.getValue()) {
 				String nodeText = String.format("%s [%s] - %s",
 						ref.getMethodName(), ref.getMethodRef(), ref.getStringData());
-				SourceFileTreeNodeData refData = new SourceFileTreeNodeData(filePath, ref.getMethodRef(), nodeText);
+				SourceFileTreeNodeData refData = new SourceFileTreeNodeData(filePath, ref.getMethodId(), ref.getMethodRef(), nodeText);
 				DefaultMutableTreeNode refNode = new DefaultMutableTreeNode(refData);
 				fileNode.add(refNode);
 			}
@@ -748,7 +794,7 @@ public class MagicStringsGui {
 								navigateToClassFromFilePath(guiContext, nodeData.getFilePath());
 							} else {
 								// Method reference clicked - navigate to method
-								navigateToMethod(guiContext, null, nodeData.getMethodRef());
+								navigateToMethod(guiContext, data, nodeData.getMethodId(), nodeData.getMethodRef());
 							}
 						}
 					}
@@ -793,7 +839,7 @@ public class MagicStringsGui {
 								navigateToClassFromFilePath(guiContext, nodeData.getFilePath());
 							} else {
 								// Method reference - navigate to method
-								navigateToMethod(guiContext, null, nodeData.getMethodRef());
+								navigateToMethod(guiContext, data, nodeData.getMethodId(), nodeData.getMethodRef());
 							}
 						}
 					}
@@ -844,12 +890,11 @@ public class MagicStringsGui {
 		Map<String, Map<String, Integer>> candidateScores = data.getCandidateScores();
 		Map<String, Set<String>> methodCandidates = data.getMethodCandidates();
 		Map<String, Set<String>> methodRawStrings = data.getMethodRawStrings();
-		Map<String, Set<String>> candidateRarity = data.getCandidateRarity();
 
 		for (Map.Entry<String, Set<String>> entry : methodCandidates.entrySet()) {
 			String methodRef = entry.getKey();
 			Set<String> candidates = entry.getValue();
-			Map<String, Integer> scores = candidateScores.getOrDefault(methodRef, new HashMap<>());
+			Map<String, Integer> scores = candidateScores.getOrDefault(methodRef, Map.of());
 
 			// Find highest scoring candidate
 			String topCandidate = null;
@@ -858,8 +903,7 @@ public class MagicStringsGui {
 
 			for (String candidate : candidates) {
 				int score = scores.getOrDefault(candidate, 0);
-				Set<String> methodsUsingCandidate = candidateRarity.get(candidate);
-				int rarity = methodsUsingCandidate != null ? methodsUsingCandidate.size() : 0;
+				int rarity = data.getCandidateRarity(candidate);
 
 				// Prioritize: rarity == 1 first, then highest score
 				boolean isBetter = false;
@@ -884,8 +928,8 @@ public class MagicStringsGui {
 				String sourceFile = methodToSourceFile.getOrDefault(methodRef, "");
 				String stringData = methodToStringData.getOrDefault(methodRef, "");
 				Set<String> rawStrings = methodRawStrings.getOrDefault(methodRef, Set.of());
-				topCandidates.add(new TopCandidateWithSourceFile(methodRef, topCandidate, topScore, topRarity, 
-						sourceFile, stringData, rawStrings));
+				topCandidates.add(new TopCandidateWithSourceFile(data.getMethodId(methodRef), methodRef, topCandidate,
+						topScore, topRarity, sourceFile, stringData, rawStrings));
 			}
 		}
 
@@ -920,6 +964,7 @@ public class MagicStringsGui {
 		// Store original data for filtering
 		tree.putClientProperty("originalData", candidatesByFile);
 		tree.putClientProperty("treeDataType", TreeDataType.TOP_CANDIDATES);
+		tree.putClientProperty("magicStringsData", data);
 
 		// Build tree structure: Source File -> Methods with candidates
 		for (Map.Entry<String, List<TopCandidateWithSourceFile>> entry : candidatesByFile.entrySet()) {
@@ -927,31 +972,20 @@ public class MagicStringsGui {
 			List<TopCandidateWithSourceFile> fileCandidates = entry.getValue();
 
 			// Create source file node
-			TopCandidateTreeNodeData fileData = new TopCandidateTreeNodeData(sourceFile, null, null, 0, sourceFile);
+			TopCandidateTreeNodeData fileData = new TopCandidateTreeNodeData(sourceFile, sourceFile);
 			DefaultMutableTreeNode fileNode = new DefaultMutableTreeNode(fileData);
 
 			// Add method nodes as children
 			final RootNode finalRootForTree = root;
 			for (TopCandidateWithSourceFile candidate : fileCandidates) {
-				// Get current method name (with caching)
-				String currentName = methodNameCache.computeIfAbsent(candidate.getMethodRef(), ref -> {
-					try {
-						MethodNode methodNode = findMethodNodeByRef(finalRootForTree, ref);
-						if (methodNode != null) {
-							return methodNode.getName();
-						}
-					} catch (Exception e) {
-						// Ignore
-					}
-					return "?";
-				});
+				String currentName = getCurrentName(data, finalRootForTree, candidate.getMethodId());
 
 				// Format: "methodName -> candidateName (score)"
 				String displayText = String.format("%s -> %s (score: %d)", 
 						currentName, candidate.getCandidate(), candidate.getScore());
 				
 				TopCandidateTreeNodeData methodData = new TopCandidateTreeNodeData(
-						sourceFile, candidate.getMethodRef(), candidate.getCandidate(), 
+						sourceFile, candidate.getMethodId(), candidate.getMethodRef(), candidate.getCandidate(),
 						currentName, candidate.getScore(), displayText);
 				DefaultMutableTreeNode methodNode = new DefaultMutableTreeNode(methodData);
 				fileNode.add(methodNode);
@@ -1010,8 +1044,8 @@ public class MagicStringsGui {
 				if (userObject instanceof TopCandidateTreeNodeData) {
 					TopCandidateTreeNodeData nodeData = (TopCandidateTreeNodeData) userObject;
 					if (nodeData.getMethodRef() != null && nodeData.getCandidate() != null) {
-						JadxDecompiler decompiler = pluginContext.getDecompiler();
-						renameMethod(guiContext, decompiler, nodeData.getMethodRef(), nodeData.getCandidate());
+						renameMethod(guiContext, data, nodeData.getMethodId(), nodeData.getMethodRef(),
+								nodeData.getCandidate());
 					}
 				}
 			}
@@ -1037,7 +1071,7 @@ public class MagicStringsGui {
 								}
 							} else {
 								// Method clicked - navigate to method
-								navigateToMethod(guiContext, null, nodeData.getMethodRef());
+								navigateToMethod(guiContext, data, nodeData.getMethodId(), nodeData.getMethodRef());
 							}
 						}
 					}
@@ -1114,7 +1148,7 @@ public class MagicStringsGui {
 								}
 							} else {
 								// Method - navigate to method
-								navigateToMethod(guiContext, null, nodeData.getMethodRef());
+								navigateToMethod(guiContext, data, nodeData.getMethodId(), nodeData.getMethodRef());
 							}
 						}
 					}
@@ -1138,6 +1172,7 @@ public class MagicStringsGui {
 	}
 
 	private static class TopCandidateWithSourceFile {
+		private final int methodId;
 		private final String methodRef;
 		private final String candidate;
 		private final int score;
@@ -1146,8 +1181,9 @@ public class MagicStringsGui {
 		private final String stringData;
 		private final Set<String> rawStrings;
 
-		TopCandidateWithSourceFile(String methodRef, String candidate, int score, int rarity,
+		TopCandidateWithSourceFile(int methodId, String methodRef, String candidate, int score, int rarity,
 				String sourceFile, String stringData, Set<String> rawStrings) {
+			this.methodId = methodId;
 			this.methodRef = methodRef;
 			this.candidate = candidate;
 			this.score = score;
@@ -1157,6 +1193,7 @@ public class MagicStringsGui {
 			this.rawStrings = rawStrings;
 		}
 
+		int getMethodId() { return methodId; }
 		String getMethodRef() { return methodRef; }
 		String getCandidate() { return candidate; }
 		int getScore() { return score; }
@@ -1179,8 +1216,7 @@ public class MagicStringsGui {
 		List<MagicStringsData.MethodCandidate> candidates = data.getFilteredCandidates();
 
 		// Create lazy-loading table model (pass root instead of decompiler)
-		LazyMethodCandidatesTableModel tableModel = new LazyMethodCandidatesTableModel(candidates, root,
-				methodNameCache);
+		LazyMethodCandidatesTableModel tableModel = new LazyMethodCandidatesTableModel(candidates, data, root);
 
 		JTable table = new JTable(tableModel) {
 			@Override
@@ -1222,7 +1258,7 @@ public class MagicStringsGui {
 					if (value != null) {
 						String str = value.toString();
 						// Get full string from row data if available
-						String fullString = tableModel.getFullRawString(row);
+						String fullString = tableModel.getFullRawString(convertRowIndexToModel(row));
 						if (fullString != null && fullString.length() > str.length()) {
 							((javax.swing.JComponent) c).setToolTipText(fullString);
 						} else {
@@ -1249,11 +1285,9 @@ public class MagicStringsGui {
 		renameItem.addActionListener(e -> {
 			int selectedRow = table.getSelectedRow();
 			if (selectedRow >= 0) {
-				String methodRef = (String) tableModel.getValueAt(selectedRow, 0);
-				String candidateName = (String) tableModel.getValueAt(selectedRow, 2);
-				// Get decompiler only when needed for renaming (requires ICodeData)
-				JadxDecompiler decompiler = pluginContext.getDecompiler();
-				renameMethod(guiContext, decompiler, methodRef, candidateName);
+				MagicStringsData.MethodCandidate candidate = candidates.get(table.convertRowIndexToModel(selectedRow));
+				renameMethod(guiContext, data, candidate.getMethodId(), candidate.getMethodRef(),
+						candidate.getCandidate());
 			}
 		});
 		popupMenu.add(renameItem);
@@ -1261,11 +1295,7 @@ public class MagicStringsGui {
 		JMenuItem renameAllItem = new JMenuItem("Rename non-false-positive methods to candidates");
 		renameAllItem.setToolTipText("Renames only candidate names that don't look like false positives.");
 		renameAllItem.addActionListener(e -> {
-			// Get decompiler only when needed for renaming (requires ICodeData)
-			JadxDecompiler decompiler = pluginContext.getDecompiler();
-			int count = renameAllMethods(guiContext, decompiler, candidates);
-			JOptionPane.showMessageDialog(panel, "Renamed " + count + " methods", "Rename Complete",
-					JOptionPane.INFORMATION_MESSAGE);
+			renameAllMethods(guiContext, panel, data, candidates);
 		});
 		popupMenu.add(renameAllItem);
 
@@ -1309,9 +1339,8 @@ public class MagicStringsGui {
 				int col = table.columnAtPoint(e.getPoint());
 				if (row >= 0 && (col == 0 || col == 2)) {
 					// Column 0 = Method reference, Column 2 = Candidate name
-					String methodRef = (String) tableModel.getValueAt(row, 0);
-					// Pass null for decompiler - we'll use cached root node (lightweight)
-					navigateToMethod(guiContext, null, methodRef);
+					MagicStringsData.MethodCandidate candidate = candidates.get(table.convertRowIndexToModel(row));
+					navigateToMethod(guiContext, data, candidate.getMethodId(), candidate.getMethodRef());
 				}
 			}
 		});
@@ -1338,9 +1367,9 @@ public class MagicStringsGui {
 					int selectedRow = table.getSelectedRow();
 					int selectedCol = table.getSelectedColumn();
 					if (selectedRow >= 0 && (selectedCol == 0 || selectedCol == 2)) {
-						String methodRef = (String) tableModel.getValueAt(selectedRow, 0);
-						// Pass null for decompiler - we'll use cached root node
-						navigateToMethod(guiContext, null, methodRef);
+						MagicStringsData.MethodCandidate candidate =
+								candidates.get(table.convertRowIndexToModel(selectedRow));
+						navigateToMethod(guiContext, data, candidate.getMethodId(), candidate.getMethodRef());
 					}
 				}
 			}
@@ -1444,9 +1473,8 @@ public class MagicStringsGui {
 				int col = table.columnAtPoint(e.getPoint());
 				if (row >= 0 && (col == 0 || col == 1)) {
 					// Column 0 = Method reference, Column 1 = Candidate name
-					String methodRef = (String) tableModel.getValueAt(row, 0);
-					// Pass null for decompiler - we'll use cached root node (lightweight)
-					navigateToMethod(guiContext, null, methodRef);
+					String methodRef = (String) tableModel.getValueAt(table.convertRowIndexToModel(row), 0);
+					navigateToMethod(guiContext, data, data.getMethodId(methodRef), methodRef);
 				}
 			}
 		});
@@ -1473,9 +1501,8 @@ public class MagicStringsGui {
 					int selectedRow = table.getSelectedRow();
 					int selectedCol = table.getSelectedColumn();
 					if (selectedRow >= 0 && (selectedCol == 0 || selectedCol == 1)) {
-						String methodRef = (String) tableModel.getValueAt(selectedRow, 0);
-						// Pass null for decompiler - we'll use cached root node
-						navigateToMethod(guiContext, null, methodRef);
+						String methodRef = (String) tableModel.getValueAt(table.convertRowIndexToModel(selectedRow), 0);
+						navigateToMethod(guiContext, data, data.getMethodId(methodRef), methodRef);
 					}
 				}
 			}
@@ -1495,51 +1522,38 @@ public class MagicStringsGui {
 		return panel;
 	}
 
-	private JavaMethod findMethodByRef(JadxDecompiler decompiler, String methodRef) {
-		// Method ref format: "com.example.Class.methodName(ArgType1,ArgType2):ReturnType"
-		// or "com.example.Class.methodName()" for methods without parameters
-		try {
-			int lastDot = methodRef.lastIndexOf('.');
-			if (lastDot < 0) {
-				return null;
-			}
-			String className = methodRef.substring(0, lastDot);
-			String methodSig = methodRef.substring(lastDot + 1);
-
-			// Try original class name first (since that's what we stored)
-			jadx.api.JavaClass javaClass = decompiler.searchJavaClassByOrigFullName(className);
-			if (javaClass == null) {
-				// Fallback to alias name in case class was renamed
-				javaClass = decompiler.searchJavaClassByAliasFullName(className);
-			}
-			if (javaClass == null) {
-				return null;
-			}
-
-			// Search for method by short ID
-			JavaMethod method = javaClass.searchMethodByShortId(methodSig);
-			if (method != null) {
-				return method;
+	/**
+	 * Root node of the loaded project, null if nothing is loaded
+	 */
+	private RootNode getRootNode() {
+		RootNode root = cachedRootNode;
+		if (root == null) {
+			JadxDecompiler decompiler = pluginContext.getDecompiler();
+			if (decompiler != null) {
+				root = decompiler.getRoot();
+				cachedRootNode = root;
 			}
+		}
+		return root;
+	}
 
-			// If not found, try searching all methods in the class
-			// This handles cases where the signature format might be slightly different
-			for (JavaMethod m : javaClass.getMethods()) {
-				if (m.getFullName().equals(methodRef)) {
-					return m;
-				}
-			}
+	/**
+	 * Node of a recorded method by its handle in the data, null if the method is not in the root
+	 */
+	private MethodNode getMethodNode(MagicStringsData data, int methodId) {
+		RootNode root = getRootNode();
+		return root != null ? data.getMethodNode(root, methodId) : null;
+	}
 
-			return null;
-		} catch (Exception e) {
-			// Log error for debugging but don't fail
-			org.slf4j.LoggerFactory.getLogger(MagicStringsGui.class)
-					.debug("Failed to find method by ref: {}", methodRef, e);
-			return null;
-		}
+	/**
+	 * Current (possibly renamed) name of a recorded method, "?" if it's not in the root
+	 */
+	private static String getCurrentName(MagicStringsData data, RootNode root, int methodId) {
+		MethodNode methodNode = data != null && root != null ? data.getMethodNode(root, methodId) : null;
+		return methodNode != null ? methodNode.getAlias() : "?";
 	}
 
-	private void renameMethod(JadxGuiContext guiContext, JadxDecompiler decompiler, String methodRef,
+	private void renameMethod(JadxGuiContext guiContext, MagicStringsData data, int methodId, String methodRef,
 			String newName) {
 		try {
 			String sanitizedName = sanitizeMethodName(newName);
@@ -1552,17 +1566,15 @@ public class MagicStringsGui {
 				return;
 			}
 
-			JavaMethod method = findMethodByRef(decompiler, methodRef);
+			MethodNode methodNode = getMethodNode(data, methodId);
+			JavaMethod method = methodNode != null ? methodNode.getJavaNode() : null;
 			if (method == null) {
-				method = findMethodByRefFallback(decompiler, methodRef);
-				if (method == null) {
-					LOG.warn("Method not found for rename: {}", methodRef);
-					JOptionPane.showMessageDialog(null,
-							"Method not found: " + methodRef + "\n\n"
-									+ "This may happen if the method was removed or the class structure changed.",
-							"Error", JOptionPane.ERROR_MESSAGE);
-					return;
-				}
+				LOG.warn("Method not found for rename: {}", methodRef);
+				JOptionPane.showMessageDialog(null,
+						"Method not found: " + methodRef + "\n\n"
+								+ "This may happen if the method was removed or the class structure changed.",
+						"Error", JOptionPane.ERROR_MESSAGE);
+				return;
 			}
 
 			String currentName = method.getName();
@@ -1580,7 +1592,6 @@ public class MagicStringsGui {
 				return;
 			}
 
-			methodNameCache.put(methodRef, sanitizedName);
 			LOG.info("Renamed method {} to {}", methodRef, sanitizedName);
 			JOptionPane.showMessageDialog(null, "Method renamed to: " + sanitizedName, "Success",
 					JOptionPane.INFORMATION_MESSAGE);
@@ -1633,11 +1644,9 @@ public class MagicStringsGui {
 			LOG.debug("Converted file path '{}' to class name '{}'", filePath, className);
 
 			// Find class node
-			ClassNode classNode = root.resolveClass(className);
-			if (classNode == null) {
-				// Try searching by alias
-				classNode = root.searchClassByFullAlias(className);
-			}
+			JfrEvents.NavigationLookupEvent lookupEvent = JfrEvents.beginNavigationLookup(filePath, false);
+			ClassNode classNode = ClassNameIndex.forRoot(root).findClass(className);
+			JfrEvents.endNavigationLookup(lookupEvent, classNode != null);
 			
 			if (classNode == null) {
 				LOG.debug("Class not found for file path: {} (class name: {})", filePath, className);
@@ -1660,32 +1669,19 @@ public class MagicStringsGui {
 		}
 	}
 
-	private void navigateToMethod(JadxGuiContext guiContext, JadxDecompiler decompiler, String methodRef) {
+	private void navigateToMethod(JadxGuiContext guiContext, MagicStringsData data, int methodId, String methodRef) {
 		try {
 			LOG.debug("Navigating to method: '{}'", methodRef);
 
-			// Use cached root node if available, otherwise get from decompiler (only if provided)
-			RootNode root = cachedRootNode;
+			RootNode root = getRootNode();
 			if (root == null) {
-				if (decompiler != null) {
-					root = decompiler.getRoot();
-					if (root != null) {
-						cachedRootNode = root;
-					}
-				}
-				if (root == null) {
-					LOG.warn("RootNode not available for navigation");
-					return;
-				}
+				LOG.warn("RootNode not available for navigation");
+				return;
 			}
 
-			LOG.debug("Attempting to find method with reference: '{}'", methodRef);
-			MethodNode methodNode = findMethodNodeByRef(root, methodRef);
-			if (methodNode == null) {
-				LOG.debug("Primary search failed, trying fallback search for: '{}'", methodRef);
-				// Try fallback search
-				methodNode = findMethodNodeByRefFallback(root, methodRef);
-			}
+			JfrEvents.NavigationLookupEvent lookupEvent = JfrEvents.beginNavigationLookup(methodRef, true);
+			MethodNode methodNode = data.getMethodNode(root, methodId);
+			JfrEvents.endNavigationLookup(lookupEvent, methodNode != null);
 			if (methodNode != null) {
 				// STRICT VERIFICATION: Ensure we found the exact method we're looking for
 				String foundMethodRef = methodNode.getMethodInfo().getFullName();
@@ -1994,129 +1990,6 @@ public class MagicStringsGui {
 		}
 	}
 
-	private MethodNode findMethodNodeByRef(RootNode root, String methodRef) {
-		try {
-			LOG.debug("findMethodNodeByRef: parsing methodRef '{}'", methodRef);
-			int lastDot = methodRef.lastIndexOf('.');
-			if (lastDot < 0) {
-				LOG.debug("findMethodNodeByRef: no dot found in methodRef '{}'", methodRef);
-				return null;
-			}
-			String className = methodRef.substring(0, lastDot);
-			String methodPart = methodRef.substring(lastDot + 1);
-			LOG.debug("findMethodNodeByRef: className='{}', methodPart='{}'", className, methodPart);
-
-			// Resolve class - try multiple approaches for robustness
-			ClassNode cls = null;
-
-			// First try: resolve by original class name
-			cls = root.resolveClass(className);
-
-			// Second try: search by alias name (handles renamed classes)
-			if (cls == null) {
-				cls = root.searchClassByFullAlias(className);
-			}
-
-			// Third try: if className might be an alias, try searching all classes
-			// This handles edge cases where the stored name doesn't match current state
-			if (cls == null) {
-				// Try to find class by matching both original and alias names
-				for (ClassNode candidateCls : root.getClasses()) {
-					String origName = candidateCls.getClassInfo().getFullName();
-					String aliasName = candidateCls.getClassInfo().getAliasFullName();
-					if (origName.equals(className) || (aliasName != null && aliasName.equals(className))) {
-						cls = candidateCls;
-						break;
-					}
-				}
-			}
-
-			if (cls == null) {
-				LOG.debug("Class not found for method reference: {}", methodRef);
-				return null;
-			}
-
-			// Check if methodRef includes signature (getFullId format) or just name (getFullName format)
-			boolean hasSignature = methodPart.contains("(") && methodPart.contains(")");
-
-			if (hasSignature) {
-				// Method ref is in getFullId() format: "methodName(Args)ReturnType"
-				// Use searchMethodByShortId which expects the signature
-				MethodNode methodNode = cls.searchMethodByShortId(methodPart);
-				if (methodNode != null) {
-					// Verify it matches the expected full ID
-					if (methodNode.getMethodInfo().getFullId().equals(methodRef)) {
-						return methodNode;
-					}
-				}
-			} else {
-				// Method ref is in getFullName() format: "methodName" (backward compatibility)
-				// Search by exact full name match first
-				List<MethodNode> matchingMethods = new ArrayList<>();
-				for (MethodNode m : cls.getMethods()) {
-					if (m.getMethodInfo().getFullName().equals(methodRef)) {
-						matchingMethods.add(m);
-					}
-				}
-
-				// If we found exactly one match, return it
-				if (matchingMethods.size() == 1) {
-					return matchingMethods.get(0);
-				}
-
-				// If we found multiple methods with the same name (overloaded methods),
-				// we can't distinguish them with just getFullName(). Return the first one
-				// and log a warning.
-				if (matchingMethods.size() > 1) {
-					LOG.debug("Multiple methods found with same full name '{}' in class '{}'. Returning first match.",
-							methodRef, className);
-					return matchingMethods.get(0);
-				}
-
-				// Fallback: try by method name only
-				MethodNode methodNode = cls.searchMethodByShortName(methodPart);
-				if (methodNode != null) {
-					// Verify it matches the expected full name
-					if (methodNode.getMethodInfo().getFullName().equals(methodRef)) {
-						return methodNode;
-					}
-				}
-			}
-
-			return null;
-		} catch (Exception e) {
-			LOG.debug("Failed to find method node by ref: {}", methodRef, e);
-			return null;
-		}
-	}
-
-	private MethodNode findMethodNodeByRefFallback(RootNode root, String methodRef) {
-		try {
-			// Check if methodRef includes signature (getFullId format) or just name (getFullName format)
-			boolean hasSignature = methodRef.contains("(") && methodRef.contains(")");
-
-			// Search through all classes for a method with matching reference
-			for (ClassNode cls : root.getClasses()) {
-				for (MethodNode methodNode : cls.getMethods()) {
-					if (hasSignature) {
-						// Match by full ID (includes signature)
-						if (methodNode.getMethodInfo().getFullId().equals(methodRef)) {
-							return methodNode;
-						}
-					} else {
-						// Match by full name (backward compatibility)
-						if (methodNode.getMethodInfo().getFullName().equals(methodRef)) {
-							return methodNode;
-						}
-					}
-				}
-			}
-		} catch (Exception e) {
-			LOG.debug("Error in fallback method search: {}", methodRef, e);
-		}
-		return null;
-	}
-
 	private String sanitizeMethodName(String name) {
 		if (name == null || name.isEmpty()) {
 			return null;
@@ -2160,88 +2033,292 @@ public class MagicStringsGui {
 		return !currentLower.contains(candidateLower) && !candidateLower.contains(currentLower);
 	}
 
-	private JavaMethod findMethodByRefFallback(JadxDecompiler decompiler, String methodRef) {
-		try {
-			// Search through all classes for a method with matching full name
-			for (jadx.api.JavaClass javaClass : decompiler.getClasses()) {
-				for (JavaMethod method : javaClass.getMethods()) {
-					if (method.getFullName().equals(methodRef)) {
-						return method;
-					}
-				}
-			}
-		} catch (Exception e) {
-			// Ignore errors in fallback search
+	/**
+	 * Rename methods to their candidates (except likely false positives) in the background,
+	 * with a cancelable progress dialog and a summary at the end
+	 */
+	private void renameAllMethods(JadxGuiContext guiContext, Component parent, MagicStringsData data,
+			List<MagicStringsData.MethodCandidate> candidates) {
+		new BulkRenameWorker(guiContext, parent, data, candidates).execute();
+	}
+
+	private static final class PlannedRename {
+		final JavaMethod method;
+		final String oldName;
+		final String newName;
+
+		PlannedRename(JavaMethod method, String oldName, String newName) {
+			this.method = method;
+			this.oldName = oldName;
+			this.newName = newName;
 		}
-		return null;
 	}
 
-	private int renameAllMethods(JadxGuiContext guiContext, JadxDecompiler decompiler,
-			List<MagicStringsData.MethodCandidate> candidates) {
-		int renamed = 0;
-		int failed = 0;
-		int invalid = 0;
-		int skipped = 0;
-		int falsePositive = 0;
+	/**
+	 * Checks all candidates first and resolves override groups and name clashes ({@link RenamePlanner}),
+	 * then applies renames grouped by top-level class: as one project code data
+	 * update when possible ({@link BulkRenamer}), otherwise as rename events class by class.
+	 * Cancel stops planning or the remaining events, renames already sent are kept.
+	 */
+	private final class BulkRenameWorker extends SwingWorker<Void, String> {
+		private static final int PLAN_PROGRESS = 50; // Progress share of checking candidates
 
-		for (MagicStringsData.MethodCandidate candidate : candidates) {
+		private final JadxGuiContext guiContext;
+		private final Component parent;
+		private final MagicStringsData data;
+		private final List<MagicStringsData.MethodCandidate> candidates;
+		private final ProgressMonitor monitor;
+		private volatile boolean cancelRequested;
+
+		// Written by the worker thread, read in done()
+		private int renamed;
+		private int failed;
+		private int invalid;
+		private int skipped;
+		private int falsePositive;
+		private int conflicts;
+		private int libraryOverrides;
+		private int followers;
+		private int classesCount;
+		private int renamedClasses;
+		private boolean cancelled;
+
+		BulkRenameWorker(JadxGuiContext guiContext, Component parent, MagicStringsData data,
+				List<MagicStringsData.MethodCandidate> candidates) {
+			this.guiContext = guiContext;
+			this.parent = parent;
+			this.data = data;
+			this.candidates = candidates;
+			this.monitor = new ProgressMonitor(parent, "Renaming methods to candidates", "Checking candidates...", 0, 100);
+			monitor.setMillisToDecideToPopup(200);
+			addPropertyChangeListener(e -> {
+				if (monitor.isCanceled()) {
+					cancelRequested = true;
+				} else if ("progress".equals(e.getPropertyName())) {
+					monitor.setProgress((Integer) e.getNewValue());
+				}
+			});
+		}
+
+		@Override
+		protected Void doInBackground() {
+			JfrEvents.BulkRenameEvent event = JfrEvents.beginBulkRename(candidates.size());
 			try {
-				JavaMethod method = findMethodByRef(decompiler, candidate.getMethodRef());
-				if (method == null) {
-					method = findMethodByRefFallback(decompiler, candidate.getMethodRef());
+				List<RenamePlanner.Rename> requested = checkCandidates();
+				if (requested == null) {
+					cancelled = true;
+					return null;
 				}
+				publish("Checking override groups and name conflicts...");
+				RenamePlanner.Plan plan = RenamePlanner.plan(getRootNode(), requested);
+				conflicts = plan.getGroupConflicts() + plan.getNameConflicts();
+				libraryOverrides = plan.getLibraryOverrides();
+				followers = plan.getFollowers();
+				Map<ClassNode, List<PlannedRename>> renamesByClass = groupByClass(plan.getRenames());
+				classesCount = renamesByClass.size();
+				publish(String.format("Renaming methods in %d classes...", classesCount));
+				if (!applyBatch(renamesByClass)) {
+					applyEvents(renamesByClass);
+				}
+				setProgress(100);
+			} finally {
+				JfrEvents.endBulkRename(event, renamed,
+						skipped + falsePositive + invalid + conflicts + libraryOverrides, failed);
+			}
+			return null;
+		}
+
+		/**
+		 * @return renames requested by valid candidates, null if cancelled
+		 */
+		private List<RenamePlanner.Rename> checkCandidates() {
+			List<RenamePlanner.Rename> requested = new ArrayList<>(candidates.size());
+			int total = candidates.size();
+			int step = Math.max(1, total / 100);
+			for (int i = 0; i < total; i++) {
+				if (cancelRequested) {
+					return null;
+				}
+				MagicStringsData.MethodCandidate candidate = candidates.get(i);
+				try {
+					MethodNode methodNode = getMethodNode(data, candidate.getMethodId());
+					if (methodNode == null) {
+						failed++;
+						LOG.debug("Method not found for rename: {}", candidate.getMethodRef());
+						continue;
+					}
+					String sanitized = sanitizeMethodName(candidate.getCandidate());
+					if (sanitized == null || sanitized.isEmpty()) {
+						invalid++;
+						LOG.debug("Invalid method name for rename: '{}' (method: {})",
+								candidate.getCandidate(), candidate.getMethodRef());
+						continue;
+					}
+					String currentName = methodNode.getAlias();
+					if (sanitized.equals(currentName)) {
+						skipped++;
+						continue;
+					}
+					if (isLikelyFalsePositive(currentName, sanitized)) {
+						falsePositive++;
+						continue;
+					}
+					requested.add(new RenamePlanner.Rename(methodNode, sanitized));
+				} catch (Exception e) {
+					failed++;
+					LOG.warn("Failed to rename method: {}", candidate.getMethodRef(), e);
+				}
+				if (i % step == 0) {
+					setProgress(i * PLAN_PROGRESS / total);
+				}
+			}
+			return requested;
+		}
+
+		private Map<ClassNode, List<PlannedRename>> groupByClass(List<RenamePlanner.Rename> renames) {
+			Map<ClassNode, List<PlannedRename>> renamesByClass = new LinkedHashMap<>();
+			for (RenamePlanner.Rename rename : renames) {
+				MethodNode methodNode = rename.getMethod();
+				JavaMethod method = methodNode.getJavaNode();
 				if (method == null) {
 					failed++;
-					LOG.debug("Method not found for rename: {}", candidate.getMethodRef());
+					LOG.debug("Method not found for rename: {}", methodNode);
 					continue;
 				}
-				String sanitized = sanitizeMethodName(candidate.getCandidate());
-				if (sanitized == null || sanitized.isEmpty()) {
-					invalid++;
-					LOG.debug("Invalid method name for rename: '{}' (method: {})",
-							candidate.getCandidate(), candidate.getMethodRef());
-					continue;
+				ClassNode topClass = methodNode.getParentClass().getTopParentClass();
+				renamesByClass.computeIfAbsent(topClass, k -> new ArrayList<>())
+						.add(new PlannedRename(method, methodNode.getAlias(), rename.getNewName()));
+			}
+			return renamesByClass;
+		}
+
+		/**
+		 * Apply all renames as one project code data update on the EDT
+		 *
+		 * @return false if the project can't be updated directly, nothing is applied then
+		 */
+		private boolean applyBatch(Map<ClassNode, List<PlannedRename>> renamesByClass) {
+			int count = 0;
+			for (List<PlannedRename> classRenames : renamesByClass.values()) {
+				count += classRenames.size();
+			}
+			int renamesCount = count;
+			boolean[] applied = new boolean[1];
+			Runnable applyAction = () -> {
+				BulkRenamer renamer = BulkRenamer.create(guiContext, pluginContext.getDecompiler());
+				if (renamer == null) {
+					return;
 				}
-				String currentName = method.getName();
-				if (sanitized.equals(currentName)) {
-					skipped++;
-					continue;
+				applied[0] = true;
+				try {
+					for (List<PlannedRename> classRenames : renamesByClass.values()) {
+						for (PlannedRename rename : classRenames) {
+							renamer.add(rename.method, rename.newName);
+						}
+					}
+					renamer.apply();
+					renamed = renamesCount;
+					renamedClasses = renamer.getClassesCount();
+				} catch (Exception e) {
+					failed += renamesCount;
+					LOG.warn("Failed to apply {} renames", renamesCount, e);
 				}
-				if (isLikelyFalsePositive(currentName, sanitized)) {
-					falsePositive++;
-					continue;
+			};
+			try {
+				SwingUtilities.invokeAndWait(applyAction);
+			} catch (InvocationTargetException e) {
+				Throwable cause = e.getCause() != null ? e.getCause() : e;
+				LOG.warn("Failed to apply {} renames", renamesCount, cause);
+				failed += renamesCount;
+				return true;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				LOG.warn("Renames apply interrupted", e);
+				return true;
+			}
+			return applied[0];
+		}
+
+		private void applyEvents(Map<ClassNode, List<PlannedRename>> renamesByClass) {
+			int total = 0;
+			for (List<PlannedRename> classRenames : renamesByClass.values()) {
+				total += classRenames.size();
+			}
+			int done = 0;
+			for (List<PlannedRename> classRenames : renamesByClass.values()) {
+				boolean classRenamed = false;
+				for (PlannedRename rename : classRenames) {
+					if (cancelRequested) {
+						cancelled = true;
+						break;
+					}
+					if (dispatchRenameEvent(guiContext, rename.method, rename.oldName, rename.newName)) {
+						renamed++;
+						classRenamed = true;
+					} else {
+						failed++;
+					}
+					done++;
+					setProgress(PLAN_PROGRESS + done * (100 - PLAN_PROGRESS) / total);
 				}
-				if (dispatchRenameEvent(guiContext, method, currentName, sanitized)) {
-					methodNameCache.put(candidate.getMethodRef(), sanitized);
-					renamed++;
-				} else {
-					failed++;
+				if (classRenamed) {
+					renamedClasses++;
+				}
+				if (cancelled) {
+					return;
 				}
-			} catch (Exception e) {
-				failed++;
-				LOG.warn("Failed to rename method: {}", candidate.getMethodRef(), e);
 			}
 		}
 
-		StringBuilder message = new StringBuilder(String.format("Renamed %d methods successfully.", renamed));
-		if (skipped > 0) {
-			message.append(String.format("\n%d methods already used the requested name.", skipped));
-		}
-		if (falsePositive > 0) {
-			message.append(String.format("\n%d candidates were skipped as likely false positives.", falsePositive));
-		}
-		if (invalid > 0) {
-			message.append(String.format("\n%d candidates had invalid names.", invalid));
-		}
-		if (failed > 0) {
-			message.append(String.format("\n%d methods could not be renamed (see logs).", failed));
+		@Override
+		protected void process(List<String> notes) {
+			monitor.setNote(notes.get(notes.size() - 1));
 		}
-		JOptionPane.showMessageDialog(null, message.toString(), "Rename Complete",
-				JOptionPane.INFORMATION_MESSAGE);
 
-		LOG.info("Rename all completed: {} successful, {} skipped existing name, {} skipped false positive, {} invalid, {} failed",
-				renamed, skipped, falsePositive, invalid, failed);
-		return renamed;
+		@Override
+		protected void done() {
+			monitor.close();
+			try {
+				get();
+			} catch (Exception e) {
+				LOG.error("Bulk rename failed", e);
+			}
+
+			StringBuilder message = new StringBuilder();
+			if (cancelled) {
+				message.append("Rename cancelled.\n");
+			}
+			message.append(String.format("Renamed %d methods in %d classes.", renamed, renamedClasses));
+			if (skipped > 0) {
+				message.append(String.format("\n%d methods already used the requested name.", skipped));
+			}
+			if (followers > 0) {
+				message.append(String.format("\n%d overriding methods were renamed with their candidates.", followers));
+			}
+			if (falsePositive > 0) {
+				message.append(String.format("\n%d candidates were skipped as likely false positives.", falsePositive));
+			}
+			if (conflicts > 0) {
+				message.append(String.format("\n%d candidates were skipped on name conflicts.", conflicts));
+			}
+			if (libraryOverrides > 0) {
+				message.append(String.format("\n%d candidates were skipped as they override library methods.",
+						libraryOverrides));
+			}
+			if (invalid > 0) {
+				message.append(String.format("\n%d candidates had invalid names.", invalid));
+			}
+			if (failed > 0) {
+				message.append(String.format("\n%d methods could not be renamed (see logs).", failed));
+			}
+			JOptionPane.showMessageDialog(parent, message.toString(), "Rename Complete",
+					JOptionPane.INFORMATION_MESSAGE);
+
+			LOG.info("Rename all completed: {} successful ({} overriding), {} skipped existing name,"
+					+ " {} skipped false positive, {} conflicts, {} library overrides, {} invalid, {} failed{}",
+					renamed, followers, skipped, falsePositive, conflicts, libraryOverrides, invalid, failed,
+					cancelled ? " (cancelled)" : "");
+		}
 	}
 
 	private boolean dispatchRenameEvent(JadxGuiContext guiContext, JavaMethod method, String oldName, String newName) {
@@ -2286,57 +2363,190 @@ public class MagicStringsGui {
 	private JPanel createAllStringsPanel(MagicStringsData data) {
 		JPanel panel = new JPanel(new BorderLayout());
 
-		String[] columnNames = { "String Value", "Method", "Class" };
+		// Rows are read from the columnar storage on demand instead of being copied into the model
+		AllStringsTableModel tableModel = new AllStringsTableModel(data.getAllStrings());
+
+		JTable table = new JTable(tableModel);
+		table.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS);
+		table.getColumnModel().getColumn(0).setPreferredWidth(400);
+		table.getColumnModel().getColumn(1).setPreferredWidth(300);
+		table.getColumnModel().getColumn(2).setPreferredWidth(300);
+
+		JScrollPane scrollPane = new JScrollPane(table);
+		scrollPane.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+		panel.add(scrollPane, BorderLayout.CENTER);
+
+		JLabel infoLabel = new JLabel(String.format("Found %d strings", tableModel.getRowCount()));
+		infoLabel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+		panel.add(infoLabel, BorderLayout.SOUTH);
+
+		return panel;
+	}
+
+	private JPanel createPerformancePanel(PassMetrics metrics) {
+		JPanel panel = new JPanel(new BorderLayout());
+
+		String[] columnNames = { "Section", "Metric", "Value" };
 		DefaultTableModel tableModel = new DefaultTableModel(columnNames, 0) {
 			@Override
 			public boolean isCellEditable(int row, int column) {
 				return false;
 			}
 		};
-
-		for (MagicStringsData.StringInfo strInfo : data.getAllStrings()) {
-			tableModel.addRow(new Object[] {
-					strInfo.getValue(),
-					strInfo.getMethodRef(),
-					strInfo.getClassName()
-			});
+		long totalNanos = metrics.getTotalNanos();
+		for (PassMetrics.Phase phase : PassMetrics.Phase.values()) {
+			if (phase.isDetailed() && !metrics.isDetailedTiming()) {
+				tableModel.addRow(new Object[] { "Phase time", phase.getLabel(), NOT_TIMED });
+				continue;
+			}
+			long nanos = metrics.getPhaseNanos(phase);
+			String share = totalNanos > 0 ? String.format(" (%.1f%%)", nanos * 100.0 / totalNanos) : "";
+			tableModel.addRow(new Object[] { "Phase time", phase.getLabel(), formatNanos(nanos) + share });
+		}
+		for (PassMetrics.Counter counter : PassMetrics.Counter.values()) {
+			tableModel.addRow(new Object[] { "Counter", counter.getLabel(), metrics.getCount(counter) });
+		}
+		addHistogramRows(tableModel, "Method cost", metrics.getMethodCost());
+		if (metrics.isDetailedTiming()) {
+			addHistogramRows(tableModel, "String analysis cost", metrics.getStringCost());
+		} else {
+			tableModel.addRow(new Object[] { "String analysis cost", "", NOT_TIMED });
+		}
+		List<String> slowestClasses = metrics.getSlowestClasses();
+		long[] slowestClassNanos = metrics.getSlowestClassNanos();
+		for (int i = 0; i < slowestClasses.size(); i++) {
+			tableModel.addRow(new Object[] { "Slowest classes", slowestClasses.get(i), formatNanos(slowestClassNanos[i]) });
+		}
+		for (String failedMethod : metrics.getFailedMethods()) {
+			tableModel.addRow(new Object[] { "Failed methods", failedMethod, "" });
 		}
 
 		JTable table = new JTable(tableModel);
 		table.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS);
-		table.getColumnModel().getColumn(0).setPreferredWidth(400);
-		table.getColumnModel().getColumn(1).setPreferredWidth(300);
-		table.getColumnModel().getColumn(2).setPreferredWidth(300);
+		table.getColumnModel().getColumn(0).setPreferredWidth(150);
+		table.getColumnModel().getColumn(1).setPreferredWidth(550);
+		table.getColumnModel().getColumn(2).setPreferredWidth(200);
 
 		JScrollPane scrollPane = new JScrollPane(table);
 		scrollPane.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
 		panel.add(scrollPane, BorderLayout.CENTER);
 
-		JLabel infoLabel = new JLabel(String.format("Found %d strings", data.getAllStrings().size()));
+		JPanel bottomPanel = new JPanel(new BorderLayout());
+		JLabel infoLabel = new JLabel(String.format("%s run, %d threads, total %s (worker phases are summed over threads)",
+				metrics.getMode().name().toLowerCase(Locale.ROOT), metrics.getThreads(), formatNanos(totalNanos)));
 		infoLabel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
-		panel.add(infoLabel, BorderLayout.SOUTH);
+		bottomPanel.add(infoLabel, BorderLayout.CENTER);
+		JButton exportButton = new JButton("Export JSON...");
+		exportButton.addActionListener(e -> exportMetrics(panel, metrics));
+		bottomPanel.add(exportButton, BorderLayout.EAST);
+		panel.add(bottomPanel, BorderLayout.SOUTH);
 
 		return panel;
 	}
 
-	private static class LazyMethodCandidatesTableModel extends AbstractTableModel {
+	private static void addHistogramRows(DefaultTableModel tableModel, String section, CostHistogram histogram) {
+		long count = histogram.getCount();
+		tableModel.addRow(new Object[] { section, "Count", count });
+		tableModel.addRow(new Object[] { section, "Mean", formatNanos(count == 0 ? 0 : histogram.getTotalNanos() / count) });
+		tableModel.addRow(new Object[] { section, "Median (bucket bound)", formatNanos(histogram.getPercentile(50)) });
+		tableModel.addRow(new Object[] { section, "99th percentile (bucket bound)", formatNanos(histogram.getPercentile(99)) });
+		tableModel.addRow(new Object[] { section, "Max", formatNanos(histogram.getMaxNanos()) });
+		for (int i = 0; i < CostHistogram.BUCKETS_COUNT; i++) {
+			long bucketCount = histogram.getBucketCount(i);
+			if (bucketCount != 0) {
+				tableModel.addRow(new Object[] { section,
+						"< " + formatNanos(CostHistogram.getBucketUpperBound(i)), bucketCount });
+			}
+		}
+	}
+
+	private static String formatNanos(long nanos) {
+		if (nanos < 10_000) {
+			return nanos + " ns";
+		}
+		if (nanos < 10_000_000) {
+			return String.format("%.1f us", nanos / 1e3);
+		}
+		return String.format("%.1f ms", nanos / 1e6);
+	}
+
+	private void exportMetrics(Component parent, PassMetrics metrics) {
+		JFileChooser chooser = new JFileChooser();
+		chooser.setSelectedFile(new File("magic-strings-metrics.json"));
+		if (chooser.showSaveDialog(parent) != JFileChooser.APPROVE_OPTION) {
+			return;
+		}
+		Path file = chooser.getSelectedFile().toPath();
+		try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			metrics.writeJson(writer);
+			LOG.info("Magic Strings: Metrics exported to {}", file);
+		} catch (IOException e) {
+			LOG.error("Failed to export metrics to {}", file, e);
+			JOptionPane.showMessageDialog(parent, "Failed to export metrics: " + e.getMessage(),
+					"Error", JOptionPane.ERROR_MESSAGE);
+		}
+	}
+
+	/**
+	 * Read-only table model over the All Strings view.
+	 * Row count is fixed at creation, so strings appended later don't break the table.
+	 */
+	private static class AllStringsTableModel extends AbstractTableModel {
+		private static final long serialVersionUID = 1L;
+		private static final String[] COLUMN_NAMES = { "String Value", "Method", "Class" };
+
+		private final List<MagicStringsData.StringInfo> strings;
+		private final int rowCount;
+
+		AllStringsTableModel(List<MagicStringsData.StringInfo> strings) {
+			this.strings = strings;
+			this.rowCount = strings.size();
+		}
+
+		@Override
+		public int getRowCount() {
+			return rowCount;
+		}
+
+		@Override
+		public int getColumnCount() {
+			return COLUMN_NAMES.length;
+		}
+
+		@Override
+		public String getColumnName(int column) {
+			return COLUMN_NAMES[column];
+		}
+
+		@Override
+		public Object getValueAt(int rowIndex, int columnIndex) {
+			MagicStringsData.StringInfo strInfo = strings.get(rowIndex);
+			switch (columnIndex) {
+				case 0:
+					return strInfo.getValue();
+				case 1:
+					return strInfo.getMethodRef();
+				case 2:
+					return strInfo.getClassName();
+				default:
+					return "";
+			}
+		}
+	}
+
+	private static class LazyMethodCandidatesTableModel
+			extends LazyRowsTableModel<LazyMethodCandidatesTableModel.RowData> {
 		private static final long serialVersionUID = 1L;
 		private static final String[] COLUMN_NAMES = { "Method", "Current Name", "Candidate Name", "False Positive?",
 				"Raw Strings" };
 		private static final int MAX_RAW_STRING_DISPLAY_LENGTH = 200;
 
 		private final List<MagicStringsData.MethodCandidate> candidates;
+		private final MagicStringsData data;
 		private final RootNode root; // Use RootNode instead of JadxDecompiler (lightweight)
-		private final Map<String, String> methodNameCache;
-		// Cache for processed row data
-		private final Map<Integer, RowData> rowDataCache = new ConcurrentHashMap<>();
-		private SwingWorker<Void, Integer> backgroundWorker;
-		private int loadedCount = 0;
-		private JProgressBar progressBar;
-		private JLabel infoLabel;
 
 		// Helper class to store processed row data
-		private static class RowData {
+		static class RowData {
 			final String methodRef;
 			final String currentName;
 			final String candidateName;
@@ -2356,82 +2566,21 @@ public class MagicStringsGui {
 		}
 
 		public LazyMethodCandidatesTableModel(List<MagicStringsData.MethodCandidate> candidates,
-				RootNode root, Map<String, String> methodNameCache) {
+				MagicStringsData data, RootNode root) {
+			super(candidates.size());
 			this.candidates = candidates;
+			this.data = data;
 			this.root = root;
-			this.methodNameCache = methodNameCache;
-		}
-
-		public void startBackgroundLoading(JProgressBar progressBar, JLabel infoLabel) {
-			this.progressBar = progressBar;
-			this.infoLabel = infoLabel;
-
-			backgroundWorker = new SwingWorker<Void, Integer>() {
-				@Override
-				protected Void doInBackground() throws Exception {
-					int total = candidates.size();
-					int batchSize = Math.max(100, total / 100); // Process 1% at a time, min 100
-					List<Integer> batch = new ArrayList<>();
-
-					for (int i = 0; i < total; i++) {
-						processRow(i);
-						batch.add(i);
-
-						// Publish progress in batches
-						if (batch.size() >= batchSize || i == total - 1) {
-							publish(i + 1);
-							batch.clear();
-							// Small delay to keep UI responsive
-							Thread.sleep(10);
-						}
-					}
-					return null;
-				}
-
-				@Override
-				protected void process(List<Integer> chunks) {
-					if (!chunks.isEmpty()) {
-						int latest = chunks.get(chunks.size() - 1);
-						loadedCount = latest;
-						if (progressBar != null) {
-							progressBar.setValue(latest);
-							progressBar.setString(String.format("Loading candidates... %d/%d", latest, candidates.size()));
-						}
-						// Fire table update for loaded rows
-						fireTableRowsUpdated(0, Math.min(latest - 1, getRowCount() - 1));
-					}
-				}
-
-				@Override
-				protected void done() {
-					if (progressBar != null) {
-						progressBar.setValue(candidates.size());
-						progressBar.setString("Complete");
-						progressBar.setVisible(false);
-					}
-					if (infoLabel != null) {
-						infoLabel.setText(String.format("Loaded %d candidates", candidates.size()));
-					}
-					// Final update
-					fireTableDataChanged();
-				}
-			};
-
-			backgroundWorker.execute();
 		}
 
-		private void processRow(int rowIndex) {
-			if (rowDataCache.containsKey(rowIndex)) {
-				return; // Already processed
-			}
-
+		@Override
+		protected RowData loadRow(int rowIndex) {
 			MagicStringsData.MethodCandidate candidate = candidates.get(rowIndex);
 			String methodRef = candidate.getMethodRef();
 			String candidateName = candidate.getCandidate();
 			Set<String> rawStrings = candidate.getRawStrings();
 
-			// Get current method name (with caching)
-			String currentName = getMethodNameCached(methodRef);
+			String currentName = getCurrentName(data, root, candidate.getMethodId());
 			boolean isFalsePositive = isLikelyFalsePositive(currentName, candidateName);
 
 			// Optimize raw string display
@@ -2440,72 +2589,7 @@ public class MagicStringsGui {
 					? fullRawStr.substring(0, MAX_RAW_STRING_DISPLAY_LENGTH) + "..."
 					: fullRawStr;
 
-			rowDataCache.put(rowIndex, new RowData(methodRef, currentName, candidateName, isFalsePositive,
-					displayRawStr, fullRawStr));
-		}
-
-		private String getMethodNameCached(String methodRef) {
-			return methodNameCache.computeIfAbsent(methodRef, ref -> {
-				try {
-					MethodNode methodNode = findMethodNodeByRef(root, ref);
-					if (methodNode != null) {
-						return methodNode.getName();
-					}
-				} catch (Exception e) {
-					// Ignore
-				}
-				return "?";
-			});
-		}
-
-		private MethodNode findMethodNodeByRef(RootNode root, String methodRef) {
-			try {
-				int lastDot = methodRef.lastIndexOf('.');
-				if (lastDot < 0) {
-					return null;
-				}
-				String className = methodRef.substring(0, lastDot);
-				String methodPart = methodRef.substring(lastDot + 1);
-
-				// Resolve class directly from RootNode (lightweight)
-				ClassNode cls = root.resolveClass(className);
-				if (cls == null) {
-					cls = root.searchClassByFullAlias(className);
-				}
-				if (cls == null) {
-					return null;
-				}
-
-				// Check if methodRef includes signature (getFullId format) or just name (getFullName format)
-				boolean hasSignature = methodPart.contains("(") && methodPart.contains(")");
-
-				if (hasSignature) {
-					// Method ref is in getFullId() format: "methodName(Args)ReturnType"
-					MethodNode methodNode = cls.searchMethodByShortId(methodPart);
-					if (methodNode != null && methodNode.getMethodInfo().getFullId().equals(methodRef)) {
-						return methodNode;
-					}
-				} else {
-					// Method ref is in getFullName() format: "methodName" (backward compatibility)
-					// Search by exact full name match first
-					for (MethodNode m : cls.getMethods()) {
-						if (m.getMethodInfo().getFullName().equals(methodRef)) {
-							return m;
-						}
-					}
-					// Fallback: search by method name only
-					return cls.searchMethodByShortName(methodPart);
-				}
-
-				return null;
-			} catch (Exception e) {
-				return null;
-			}
-		}
-
-		@Override
-		public int getRowCount() {
-			return candidates.size();
+			return new RowData(methodRef, currentName, candidateName, isFalsePositive, displayRawStr, fullRawStr);
 		}
 
 		@Override
@@ -2519,30 +2603,19 @@ public class MagicStringsGui {
 		}
 
 		@Override
-		public Object getValueAt(int rowIndex, int columnIndex) {
-			// Trigger processing if not already done (lazy loading)
-			if (!rowDataCache.containsKey(rowIndex)) {
-				// Process immediately if not too many rows ahead
-				if (rowIndex < loadedCount + 100) {
-					processRow(rowIndex);
-				} else {
-					// Return placeholder for rows not yet processed
-					switch (columnIndex) {
-						case 0:
-							return candidates.get(rowIndex).getMethodRef();
-						case 2:
-							return candidates.get(rowIndex).getCandidate();
-						default:
-							return "Loading...";
-					}
-				}
-			}
-
-			RowData data = rowDataCache.get(rowIndex);
-			if (data == null) {
-				return "Loading...";
+		protected Object getPlaceholderAt(int rowIndex, int columnIndex) {
+			switch (columnIndex) {
+				case 0:
+					return candidates.get(rowIndex).getMethodRef();
+				case 2:
+					return candidates.get(rowIndex).getCandidate();
+				default:
+					return "Loading...";
 			}
+		}
 
+		@Override
+		protected Object getRowValueAt(RowData data, int columnIndex) {
 			switch (columnIndex) {
 				case 0:
 					return data.methodRef;
@@ -2559,34 +2632,25 @@ public class MagicStringsGui {
 			}
 		}
 
-		@Override
-		public boolean isCellEditable(int row, int column) {
-			return false;
-		}
-
 		public String getFullRawString(int rowIndex) {
-			RowData rowData = rowDataCache.get(rowIndex);
+			RowData rowData = getLoadedRow(rowIndex);
 			return rowData != null ? rowData.fullRawString : null;
 		}
 	}
 
-	private static class LazyTopCandidatesTableModel extends AbstractTableModel {
+	private static class LazyTopCandidatesTableModel
+			extends LazyRowsTableModel<LazyTopCandidatesTableModel.TopRowData> {
 		private static final long serialVersionUID = 1L;
 		private static final String[] COLUMN_NAMES = { "Method", "Current Name", "Candidate Name", "Score",
 				"Source File", "String Data", "Raw Strings" };
 		private static final int MAX_RAW_STRING_DISPLAY_LENGTH = 200;
 
 		private final List<TopCandidateWithSourceFile> candidates;
+		private final MagicStringsData data;
 		private final RootNode root;
-		private final Map<String, String> methodNameCache;
-		private final Map<Integer, TopRowData> rowDataCache = new ConcurrentHashMap<>();
-		private SwingWorker<Void, Integer> backgroundWorker;
-		private int loadedCount = 0;
-		private JProgressBar progressBar;
-		private JLabel infoLabel;
 
 		// Helper class to store processed row data
-		private static class TopRowData {
+		static class TopRowData {
 			final String methodRef;
 			final String currentName;
 			final String candidateName;
@@ -2610,71 +2674,15 @@ public class MagicStringsGui {
 		}
 
 		public LazyTopCandidatesTableModel(List<TopCandidateWithSourceFile> candidates,
-				RootNode root, Map<String, String> methodNameCache) {
+				MagicStringsData data, RootNode root) {
+			super(candidates.size());
 			this.candidates = candidates;
+			this.data = data;
 			this.root = root;
-			this.methodNameCache = methodNameCache;
 		}
 
-		public void startBackgroundLoading(JProgressBar progressBar, JLabel infoLabel) {
-			this.progressBar = progressBar;
-			this.infoLabel = infoLabel;
-
-			backgroundWorker = new SwingWorker<Void, Integer>() {
-				@Override
-				protected Void doInBackground() throws Exception {
-					int total = candidates.size();
-					int batchSize = Math.max(100, total / 100);
-					List<Integer> batch = new ArrayList<>();
-
-					for (int i = 0; i < total; i++) {
-						processRow(i);
-						batch.add(i);
-
-						if (batch.size() >= batchSize || i == total - 1) {
-							publish(i + 1);
-							batch.clear();
-							Thread.sleep(10);
-						}
-					}
-					return null;
-				}
-
-				@Override
-				protected void process(List<Integer> chunks) {
-					if (!chunks.isEmpty()) {
-						int latest = chunks.get(chunks.size() - 1);
-						loadedCount = latest;
-						if (progressBar != null) {
-							progressBar.setValue(latest);
-							progressBar.setString(String.format("Loading candidates... %d/%d", latest, candidates.size()));
-						}
-						fireTableRowsUpdated(0, Math.min(latest - 1, getRowCount() - 1));
-					}
-				}
-
-				@Override
-				protected void done() {
-					if (progressBar != null) {
-						progressBar.setValue(candidates.size());
-						progressBar.setString("Complete");
-						progressBar.setVisible(false);
-					}
-					if (infoLabel != null) {
-						infoLabel.setText(String.format("Loaded %d candidates", candidates.size()));
-					}
-					fireTableDataChanged();
-				}
-			};
-
-			backgroundWorker.execute();
-		}
-
-		private void processRow(int rowIndex) {
-			if (rowDataCache.containsKey(rowIndex)) {
-				return;
-			}
-
+		@Override
+		protected TopRowData loadRow(int rowIndex) {
 			TopCandidateWithSourceFile candidate = candidates.get(rowIndex);
 			String methodRef = candidate.getMethodRef();
 			String candidateName = candidate.getCandidate();
@@ -2683,8 +2691,7 @@ public class MagicStringsGui {
 			String stringData = candidate.getStringData();
 			Set<String> rawStrings = candidate.getRawStrings();
 
-			// Get current method name (with caching)
-			String currentName = getMethodNameCached(methodRef);
+			String currentName = getCurrentName(data, root, candidate.getMethodId());
 
 			// Optimize raw string display
 			String fullRawStr = String.join(", ", rawStrings);
@@ -2692,66 +2699,8 @@ public class MagicStringsGui {
 					? fullRawStr.substring(0, MAX_RAW_STRING_DISPLAY_LENGTH) + "..."
 					: fullRawStr;
 
-			rowDataCache.put(rowIndex, new TopRowData(methodRef, currentName, candidateName, score,
-					sourceFile, stringData, displayRawStr, fullRawStr));
-		}
-
-		private String getMethodNameCached(String methodRef) {
-			return methodNameCache.computeIfAbsent(methodRef, ref -> {
-				try {
-					MethodNode methodNode = findMethodNodeByRef(root, ref);
-					if (methodNode != null) {
-						return methodNode.getName();
-					}
-				} catch (Exception e) {
-					// Ignore
-				}
-				return "?";
-			});
-		}
-
-		private MethodNode findMethodNodeByRef(RootNode root, String methodRef) {
-			try {
-				int lastDot = methodRef.lastIndexOf('.');
-				if (lastDot < 0) {
-					return null;
-				}
-				String className = methodRef.substring(0, lastDot);
-				String methodPart = methodRef.substring(lastDot + 1);
-
-				ClassNode cls = root.resolveClass(className);
-				if (cls == null) {
-					cls = root.searchClassByFullAlias(className);
-				}
-				if (cls == null) {
-					return null;
-				}
-
-				boolean hasSignature = methodPart.contains("(") && methodPart.contains(")");
-
-				if (hasSignature) {
-					MethodNode methodNode = cls.searchMethodByShortId(methodPart);
-					if (methodNode != null && methodNode.getMethodInfo().getFullId().equals(methodRef)) {
-						return methodNode;
-					}
-				} else {
-					for (MethodNode m : cls.getMethods()) {
-						if (m.getMethodInfo().getFullName().equals(methodRef)) {
-							return m;
-						}
-					}
-					return cls.searchMethodByShortName(methodPart);
-				}
-
-				return null;
-			} catch (Exception e) {
-				return null;
-			}
-		}
-
-		@Override
-		public int getRowCount() {
-			return candidates.size();
+			return new TopRowData(methodRef, currentName, candidateName, score,
+					sourceFile, stringData, displayRawStr, fullRawStr);
 		}
 
 		@Override
@@ -2765,35 +2714,26 @@ public class MagicStringsGui {
 		}
 
 		@Override
-		public Object getValueAt(int rowIndex, int columnIndex) {
-			if (!rowDataCache.containsKey(rowIndex)) {
-				if (rowIndex < loadedCount + 100) {
-					processRow(rowIndex);
-				} else {
-					// Return placeholder for rows not yet processed
-					TopCandidateWithSourceFile candidate = candidates.get(rowIndex);
-					switch (columnIndex) {
-						case 0:
-							return candidate.getMethodRef();
-						case 2:
-							return candidate.getCandidate();
-						case 3:
-							return candidate.getScore();
-						case 4:
-							return candidate.getSourceFile();
-						case 5:
-							return candidate.getStringData();
-						default:
-							return "Loading...";
-					}
-				}
-			}
-
-			TopRowData data = rowDataCache.get(rowIndex);
-			if (data == null) {
-				return "Loading...";
+		protected Object getPlaceholderAt(int rowIndex, int columnIndex) {
+			TopCandidateWithSourceFile candidate = candidates.get(rowIndex);
+			switch (columnIndex) {
+				case 0:
+					return candidate.getMethodRef();
+				case 2:
+					return candidate.getCandidate();
+				case 3:
+					return candidate.getScore();
+				case 4:
+					return candidate.getSourceFile();
+				case 5:
+					return candidate.getStringData();
+				default:
+					return "Loading...";
 			}
+		}
 
+		@Override
+		protected Object getRowValueAt(TopRowData data, int columnIndex) {
 			switch (columnIndex) {
 				case 0:
 					return data.methodRef;
@@ -2814,13 +2754,8 @@ public class MagicStringsGui {
 			}
 		}
 
-		@Override
-		public boolean isCellEditable(int row, int column) {
-			return false;
-		}
-
 		public String getFullRawString(int rowIndex) {
-			TopRowData rowData = rowDataCache.get(rowIndex);
+			TopRowData rowData = getLoadedRow(rowIndex);
 			return rowData != null ? rowData.fullRawString : null;
 		}
 	}
@@ -0,0 +1,459 @@
+/**
+ * Turns method renames requested by candidates into a plan without conflicts, before anything is applied.
+ *
+ * Overriding methods must keep one name, so methods are joined into override groups (union-find over
+ * the override relations JADX computes from the class hierarchy) and a group is renamed as a whole:
+ * members without a candidate follow the group name. A group is left as is if its candidates disagree
+ * on the name, or if it overrides a method of a class outside the project (library or framework).
+ *
+ * A group is accepted only if no method outside the group with its new name and the parameter types
+ * of a member is declared in the class of that member, in its supertypes (project and library ones)
+ * or in its subtypes: that would be a clash or an accidental override, changing dispatch in the output.
+ * Names in use before renaming stay reserved, so a rejected group never clashes with an accepted one
+ * and every group is checked once. Project methods are indexed by name and parameter types once,
+ * so a check only visits methods with the same name and parameters, and supertypes are resolved
+ * once per class: the plan takes time linear in the number of candidates, related methods and methods
+ * of the project.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.gui;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jadx.core.clsp.ClspClass;
+import jadx.core.dex.attributes.AType;
+import jadx.core.dex.attributes.nodes.MethodOverrideAttr;
+import jadx.core.dex.info.MethodInfo;
+import jadx.core.dex.instructions.args.ArgType;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.IMethodDetails;
+import jadx.core.dex.nodes.MethodNode;
+import jadx.core.dex.nodes.RootNode;
+
+final class RenamePlanner {
+
+	static final class Rename {
+		private final MethodNode method;
+		private final String newName;
+
+		Rename(MethodNode method, String newName) {
+			this.method = method;
+			this.newName = newName;
+		}
+
+		MethodNode getMethod() {
+			return method;
+		}
+
+		String getNewName() {
+			return newName;
+		}
+	}
+
+	static final class Plan {
+		private final List<Rename> renames;
+		private final int groupConflicts;
+		private final int nameConflicts;
+		private final int libraryOverrides;
+		private final int followers;
+
+		private Plan(List<Rename> renames, int groupConflicts, int nameConflicts, int libraryOverrides,
+				int followers) {
+			this.renames = renames;
+			this.groupConflicts = groupConflicts;
+			this.nameConflicts = nameConflicts;
+			this.libraryOverrides = libraryOverrides;
+			this.followers = followers;
+		}
+
+		/**
+		 * Accepted renames in candidates order, methods of one override group are adjacent
+		 */
+		List<Rename> getRenames() {
+			return renames;
+		}
+
+		/**
+		 * Candidates skipped because their override group asked for different names
+		 */
+		int getGroupConflicts() {
+			return groupConflicts;
+		}
+
+		/**
+		 * Candidates skipped because the new name is already taken in a class of their group,
+		 * its supertypes or subtypes
+		 */
+		int getNameConflicts() {
+			return nameConflicts;
+		}
+
+		/**
+		 * Candidates skipped because their group overrides a method outside the project
+		 */
+		int getLibraryOverrides() {
+			return libraryOverrides;
+		}
+
+		/**
+		 * Methods without a candidate renamed to keep their override group consistent
+		 */
+		int getFollowers() {
+			return followers;
+		}
+	}
+
+	// Methods indexed as: candidates first (in input order), then related methods
+	private final Map<MethodNode, Integer> ids;
+	private final List<MethodNode> methods;
+	private int[] parent;
+	private final RootNode rootNode;
+	private final ClassHierarchy hierarchy;
+	// Project methods by name with parameter types (current names and accepted new names), filled on first use
+	private Map<String, List<MethodNode>> declaredMethods;
+
+	private RenamePlanner(RootNode root, int candidatesCount) {
+		this.rootNode = root;
+		hierarchy = new ClassHierarchy(root);
+		ids = new HashMap<>(candidatesCount * 2);
+		methods = new ArrayList<>(candidatesCount);
+		parent = new int[Math.max(16, candidatesCount)];
+	}
+
+	/**
+	 * @param candidates requested renames, at most one per method
+	 */
+	static Plan plan(RootNode root, List<Rename> candidates) {
+		return new RenamePlanner(root, candidates.size()).build(candidates);
+	}
+
+	private Plan build(List<Rename> candidates) {
+		int candidatesCount = candidates.size();
+		for (Rename candidate : candidates) {
+			indexOf(candidate.getMethod());
+		}
+		joinOverrideGroups(candidatesCount);
+
+		int count = methods.size();
+		int[] roots = new int[count];
+		for (int i = 0; i < count; i++) {
+			roots[i] = find(i);
+		}
+
+		// Group name from candidates, null if they disagree
+		String[] groupNames = new String[count];
+		boolean[] groupConflict = new boolean[count];
+		int[] groupCandidates = new int[count];
+		for (int i = 0; i < candidatesCount; i++) {
+			int root = roots[i];
+			String name = candidates.get(i).getNewName();
+			groupCandidates[root]++;
+			if (groupNames[root] == null && !groupConflict[root]) {
+				groupNames[root] = name;
+			} else if (!name.equals(groupNames[root])) {
+				groupNames[root] = null;
+				groupConflict[root] = true;
+			}
+		}
+
+		boolean[] libraryGroup = new boolean[count];
+		for (int i = 0; i < count; i++) {
+			if (overridesLibraryMethod(methods.get(i))) {
+				libraryGroup[roots[i]] = true;
+			}
+		}
+
+		// Members of each group as linked lists, in index order
+		int[] head = new int[count];
+		int[] tail = new int[count];
+		int[] next = new int[count];
+		Arrays.fill(head, -1);
+		for (int i = 0; i < count; i++) {
+			int root = roots[i];
+			next[i] = -1;
+			if (head[root] == -1) {
+				head[root] = i;
+			} else {
+				next[tail[root]] = i;
+			}
+			tail[root] = i;
+		}
+
+		List<Rename> renames = new ArrayList<>(candidatesCount);
+		int groupConflicts = 0;
+		int nameConflicts = 0;
+		int libraryOverrides = 0;
+		int followers = 0;
+		for (int i = 0; i < candidatesCount; i++) {
+			int root = roots[i];
+			if (head[root] == -1) {
+				continue; // Group already handled
+			}
+			int first = head[root];
+			head[root] = -1;
+			if (groupConflict[root]) {
+				groupConflicts += groupCandidates[root];
+			} else if (libraryGroup[root]) {
+				libraryOverrides += groupCandidates[root];
+			} else if (!isNameFree(root, first, next, groupNames[root])) {
+				nameConflicts += groupCandidates[root];
+			} else {
+				String name = groupNames[root];
+				for (int m = first; m != -1; m = next[m]) {
+					MethodNode method = methods.get(m);
+					if (name.equals(method.getAlias())) {
+						continue;
+					}
+					declaredMethods().computeIfAbsent(nameKey(method, name), k -> new ArrayList<>(1)).add(method);
+					renames.add(new Rename(method, name));
+					if (m >= candidatesCount) {
+						followers++;
+					}
+				}
+			}
+		}
+		return new Plan(renames, groupConflicts, nameConflicts, libraryOverrides, followers);
+	}
+
+	/**
+	 * Union each candidate with the methods it is related to by overriding
+	 */
+	private void joinOverrideGroups(int candidatesCount) {
+		// Related methods sets are usually shared by a whole group, visit each set once
+		Set<Set<MethodNode>> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (int i = 0; i < candidatesCount; i++) {
+			MethodOverrideAttr overrideAttr = methods.get(i).get(AType.METHOD_OVERRIDE);
+			if (overrideAttr == null) {
+				continue;
+			}
+			Set<MethodNode> related = overrideAttr.getRelatedMthNodes();
+			if (related == null || !visited.add(related)) {
+				continue;
+			}
+			for (MethodNode relatedMth : related) {
+				union(i, indexOf(relatedMth));
+			}
+		}
+	}
+
+	private static boolean overridesLibraryMethod(MethodNode method) {
+		MethodOverrideAttr overrideAttr = method.get(AType.METHOD_OVERRIDE);
+		if (overrideAttr == null || overrideAttr.getBaseMethods() == null) {
+			return false;
+		}
+		for (IMethodDetails baseMethod : overrideAttr.getBaseMethods()) {
+			if (!(baseMethod instanceof MethodNode)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isNameFree(int group, int first, int[] next, String name) {
+		for (int m = first; m != -1; m = next[m]) {
+			MethodNode method = methods.get(m);
+			if (name.equals(method.getAlias())) {
+				continue;
+			}
+			String key = nameKey(method, name);
+			ClassNode cls = method.getParentClass();
+			List<MethodNode> sameKey = declaredMethods().get(key);
+			if (sameKey != null) {
+				for (MethodNode other : sameKey) {
+					if (!isInGroup(other, group) && hierarchy.isRelated(cls, other.getParentClass())) {
+						return false;
+					}
+				}
+			}
+			if (hierarchy.isDeclaredInLibrary(cls, key)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isInGroup(MethodNode method, int group) {
+		Integer id = ids.get(method);
+		return id != null && find(id) == group;
+	}
+
+	private Map<String, List<MethodNode>> declaredMethods() {
+		if (declaredMethods == null) {
+			Map<String, List<MethodNode>> map = new HashMap<>();
+			for (ClassNode cls : rootNode.getClasses()) {
+				for (MethodNode method : cls.getMethods()) {
+					map.computeIfAbsent(nameKey(method, method.getAlias()), k -> new ArrayList<>(1)).add(method);
+				}
+			}
+			declaredMethods = map;
+		}
+		return declaredMethods;
+	}
+
+	/**
+	 * Name with parameter types, the return type doesn't make Java methods distinct
+	 */
+	private static String nameKey(MethodNode method, String name) {
+		MethodInfo info = method.getMethodInfo();
+		String shortId = info.getShortId();
+		return name + shortId.substring(info.getName().length(), shortId.indexOf(')') + 1);
+	}
+
+	/**
+	 * Name with parameter types from a method short id: name(args)ret
+	 */
+	private static String nameKey(String shortId) {
+		return shortId.substring(0, shortId.indexOf(')') + 1);
+	}
+
+	private int indexOf(MethodNode method) {
+		Integer id = ids.get(method);
+		if (id != null) {
+			return id;
+		}
+		int index = methods.size();
+		ids.put(method, index);
+		methods.add(method);
+		if (index == parent.length) {
+			parent = Arrays.copyOf(parent, index * 2);
+		}
+		parent[index] = index;
+		return index;
+	}
+
+	private int find(int i) {
+		int root = i;
+		while (parent[root] != root) {
+			root = parent[root];
+		}
+		while (parent[i] != root) {
+			int up = parent[i];
+			parent[i] = root;
+			i = up;
+		}
+		return root;
+	}
+
+	/**
+	 * Union keeping the lower index as root, so a group root is its earliest candidate
+	 */
+	private void union(int a, int b) {
+		int rootA = find(a);
+		int rootB = find(b);
+		if (rootA < rootB) {
+			parent[rootB] = rootA;
+		} else if (rootB < rootA) {
+			parent[rootA] = rootB;
+		}
+	}
+
+	/**
+	 * Supertypes of project classes, resolved once per class
+	 */
+	private static final class ClassHierarchy {
+		private final RootNode root;
+		private final Map<ClassNode, Set<ClassNode>> ancestors = new HashMap<>();
+		// Nearest library supertypes of a class (directly or through project supertypes)
+		private final Map<ClassNode, List<ClspClass>> libraryParents = new HashMap<>();
+		// Names with parameter types declared by a library class or its supertypes
+		private final Map<ClspClass, Set<String>> libraryKeys = new IdentityHashMap<>();
+
+		ClassHierarchy(RootNode root) {
+			this.root = root;
+		}
+
+		/**
+		 * Same class, or one class extends (implements) the other
+		 */
+		boolean isRelated(ClassNode cls, ClassNode other) {
+			return cls == other || getAncestors(cls).contains(other) || getAncestors(other).contains(cls);
+		}
+
+		boolean isDeclaredInLibrary(ClassNode cls, String key) {
+			getAncestors(cls);
+			for (ClspClass libraryParent : libraryParents.get(cls)) {
+				if (getLibraryKeys(libraryParent).contains(key)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private Set<ClassNode> getAncestors(ClassNode cls) {
+			Set<ClassNode> result = ancestors.get(cls);
+			if (result != null) {
+				return result;
+			}
+			result = new HashSet<>();
+			List<ClspClass> libs = new ArrayList<>(1);
+			// Stored before resolving supertypes, so a broken hierarchy with cycles stops here
+			ancestors.put(cls, result);
+			libraryParents.put(cls, libs);
+			for (ArgType superType : getSuperTypes(cls)) {
+				ClassNode parentCls = root.resolveClass(superType);
+				if (parentCls != null) {
+					if (parentCls != cls && result.add(parentCls)) {
+						result.addAll(getAncestors(parentCls));
+						for (ClspClass lib : libraryParents.get(parentCls)) {
+							addLibrary(libs, lib);
+						}
+					}
+				} else {
+					ClspClass lib = root.getClsp().getClsDetails(superType);
+					if (lib != null) {
+						addLibrary(libs, lib);
+					}
+				}
+			}
+			return result;
+		}
+
+		private static void addLibrary(List<ClspClass> libs, ClspClass lib) {
+			if (!libs.contains(lib)) {
+				libs.add(lib);
+			}
+		}
+
+		private static List<ArgType> getSuperTypes(ClassNode cls) {
+			List<ArgType> interfaces = cls.getInterfaces();
+			List<ArgType> superTypes = new ArrayList<>(interfaces.size() + 1);
+			if (cls.getSuperClass() != null) {
+				superTypes.add(cls.getSuperClass());
+			}
+			superTypes.addAll(interfaces);
+			return superTypes;
+		}
+
+		private Set<String> getLibraryKeys(ClspClass cls) {
+			Set<String> keys = libraryKeys.get(cls);
+			if (keys != null) {
+				return keys;
+			}
+			keys = new HashSet<>();
+			libraryKeys.put(cls, keys);
+			for (String shortId : cls.getMethodsMap().keySet()) {
+				keys.add(nameKey(shortId));
+			}
+			ArgType[] parents = cls.getParents();
+			if (parents != null) {
+				for (ArgType parentType : parents) {
+					ClspClass parentCls = root.getClsp().getClsDetails(parentType);
+					if (parentCls != null) {
+						keys.addAll(getLibraryKeys(parentCls));
+					}
+				}
+			}
+			return keys;
+		}
+	}
+}
@@ -0,0 +1,86 @@
+/**
+ * Thread-safe histogram of durations with power-of-two nanosecond buckets.
+ *
+ * Bucket i counts durations in [2^(i-1), 2^i) ns (bucket 0 counts zero durations),
+ * so recording is a leading-zeros count and one striped counter increment.
+ * Percentiles are reported as the upper bound of the bucket they fall in.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class CostHistogram {
+	public static final int BUCKETS_COUNT = 64;
+
+	private final LongAdder[] buckets = new LongAdder[BUCKETS_COUNT];
+	private final LongAdder totalNanos = new LongAdder();
+	private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+	CostHistogram() {
+		for (int i = 0; i < BUCKETS_COUNT; i++) {
+			buckets[i] = new LongAdder();
+		}
+	}
+
+	public void record(long nanos) {
+		long value = Math.max(0, nanos);
+		buckets[Math.min(BUCKETS_COUNT - 1, 64 - Long.numberOfLeadingZeros(value))].increment();
+		totalNanos.add(value);
+		maxNanos.accumulate(value);
+	}
+
+	public long getCount() {
+		long count = 0;
+		for (LongAdder bucket : buckets) {
+			count += bucket.sum();
+		}
+		return count;
+	}
+
+	public long getTotalNanos() {
+		return totalNanos.sum();
+	}
+
+	public long getMaxNanos() {
+		return maxNanos.get();
+	}
+
+	public long getBucketCount(int bucket) {
+		return buckets[bucket].sum();
+	}
+
+	/**
+	 * Exclusive upper bound of the bucket in nanoseconds
+	 */
+	public static long getBucketUpperBound(int bucket) {
+		return bucket >= 63 ? Long.MAX_VALUE : 1L << bucket;
+	}
+
+	/**
+	 * Upper bound of the bucket holding the given percentile (0-100), 0 if nothing was recorded
+	 */
+	public long getPercentile(double percentile) {
+		long[] counts = new long[BUCKETS_COUNT];
+		long total = 0;
+		for (int i = 0; i < BUCKETS_COUNT; i++) {
+			counts[i] = buckets[i].sum();
+			total += counts[i];
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS_COUNT; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return Math.min(getBucketUpperBound(i), getMaxNanos());
+			}
+		}
+		return getMaxNanos();
+	}
+}
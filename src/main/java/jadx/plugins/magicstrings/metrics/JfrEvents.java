@@ -0,0 +1,309 @@
+/**
+ * Java Flight Recorder events of the plugin, shown under "Magic Strings" in JFR tools.
+ *
+ * Events are created only while a recording has them enabled: every begin method returns null otherwise,
+ * and the matching end method ignores null, so call sites cost a flag check when JFR is not recording.
+ * The jdk.jfr module is optional, without it no event class is ever loaded.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+public final class JfrEvents {
+	private static final String CATEGORY = "Magic Strings";
+	private static final boolean AVAILABLE = ModuleLayer.boot().findModule("jdk.jfr").isPresent();
+
+	private JfrEvents() {
+	}
+
+	@Name("jadx.magicstrings.Phase")
+	@Label("Pass Phase")
+	@Category({ CATEGORY, "Pass" })
+	@Description("Phase of the extraction pass")
+	@StackTrace(false)
+	public static final class PhaseEvent extends Event {
+		static final EventType TYPE = EventType.getEventType(PhaseEvent.class);
+
+		@Label("Phase")
+		String phase;
+
+		@Label("Items")
+		@Description("Classes, methods or files processed by the phase")
+		long items;
+	}
+
+	@Name("jadx.magicstrings.ClassExtraction")
+	@Label("Class Extraction")
+	@Category({ CATEGORY, "Pass" })
+	@Description("String extraction of one class, recorded only for classes slower than the threshold")
+	@Threshold("10 ms")
+	@StackTrace(false)
+	public static final class ClassExtractionEvent extends Event {
+		static final EventType TYPE = EventType.getEventType(ClassExtractionEvent.class);
+
+		@Label("Class")
+		String className;
+
+		@Label("Methods")
+		int methods;
+
+		@Label("Strings")
+		int strings;
+	}
+
+	@Name("jadx.magicstrings.Filtering")
+	@Label("Candidates Filtering")
+	@Category({ CATEGORY, "Pass" })
+	@StackTrace(false)
+	public static final class FilteringEvent extends Event {
+		static final EventType TYPE = EventType.getEventType(FilteringEvent.class);
+
+		@Label("Methods")
+		int methods;
+
+		@Label("Recomputed Methods")
+		int recomputedMethods;
+
+		@Label("Kept Candidates")
+		int keptCandidates;
+
+		@Label("Chunks")
+		int chunks;
+
+		@Label("Threads")
+		int threads;
+	}
+
+	@Name("jadx.magicstrings.ResultsDialog")
+	@Label("Results Dialog Construction")
+	@Category({ CATEGORY, "GUI" })
+	@StackTrace(false)
+	public static final class DialogEvent extends Event {
+		static final EventType TYPE = EventType.getEventType(DialogEvent.class);
+
+		@Label("Tabs")
+		int tabs;
+
+		@Label("Filtered Candidates")
+		int filteredCandidates;
+
+		@Label("Methods With Candidates")
+		int methods;
+
+		@Label("Strings")
+		int strings;
+
+		@Label("Snapshot")
+		@Description("Extraction was still running, the dialog shows a copy of the data")
+		boolean snapshot;
+	}
+
+	@Name("jadx.magicstrings.SearchFilter")
+	@Label("Search Filtering")
+	@Category({ CATEGORY, "GUI" })
+	@StackTrace(false)
+	public static final class SearchFilterEvent extends Event {
+		static final EventType TYPE = EventType.getEventType(SearchFilterEvent.class);
+
+		@Label("Tab")
+		String tab;
+
+		@Label("Query Length")
+		int queryLength;
+
+		@Label("Rows")
+		int rows;
+
+		@Label("Visible Rows")
+		int visibleRows;
+	}
+
+	@Name("jadx.magicstrings.BulkRename")
+	@Label("Bulk Rename")
+	@Category({ CATEGORY, "GUI" })
+	@StackTrace(false)
+	public static final class BulkRenameEvent extends Event {
+		static final EventType TYPE = EventType.getEventType(BulkRenameEvent.class);
+
+		@Label("Candidates")
+		int candidates;
+
+		@Label("Renamed")
+		int renamed;
+
+		@Label("Skipped")
+		int skipped;
+
+		@Label("Failed")
+		int failed;
+	}
+
+	@Name("jadx.magicstrings.NavigationLookup")
+	@Label("Navigation Lookup")
+	@Category({ CATEGORY, "GUI" })
+	@Description("Lookup of the node to open for a method reference or a source file path")
+	@StackTrace(false)
+	public static final class NavigationLookupEvent extends Event {
+		static final EventType TYPE = EventType.getEventType(NavigationLookupEvent.class);
+
+		@Label("Target")
+		String target;
+
+		@Label("Method")
+		@Description("Target is a method reference, otherwise a source file path")
+		boolean method;
+
+		@Label("Found")
+		boolean found;
+	}
+
+	public static PhaseEvent beginPhase(String phase) {
+		if (!AVAILABLE || !PhaseEvent.TYPE.isEnabled()) {
+			return null;
+		}
+		PhaseEvent event = new PhaseEvent();
+		event.phase = phase;
+		event.begin();
+		return event;
+	}
+
+	public static void endPhase(PhaseEvent event, long items) {
+		if (event != null) {
+			event.items = items;
+			event.commit();
+		}
+	}
+
+	public static ClassExtractionEvent beginClassExtraction(String className) {
+		if (!AVAILABLE || !ClassExtractionEvent.TYPE.isEnabled()) {
+			return null;
+		}
+		ClassExtractionEvent event = new ClassExtractionEvent();
+		event.className = className;
+		event.begin();
+		return event;
+	}
+
+	public static void endClassExtraction(ClassExtractionEvent event, int methods, int strings) {
+		if (event != null) {
+			event.end();
+			if (event.shouldCommit()) {
+				event.methods = methods;
+				event.strings = strings;
+				event.commit();
+			}
+		}
+	}
+
+	public static FilteringEvent beginFiltering() {
+		if (!AVAILABLE || !FilteringEvent.TYPE.isEnabled()) {
+			return null;
+		}
+		FilteringEvent event = new FilteringEvent();
+		event.begin();
+		return event;
+	}
+
+	public static void endFiltering(FilteringEvent event, int methods, int recomputedMethods, int keptCandidates,
+			int chunks, int threads) {
+		if (event != null) {
+			event.methods = methods;
+			event.recomputedMethods = recomputedMethods;
+			event.keptCandidates = keptCandidates;
+			event.chunks = chunks;
+			event.threads = threads;
+			event.commit();
+		}
+	}
+
+	public static DialogEvent beginDialog() {
+		if (!AVAILABLE || !DialogEvent.TYPE.isEnabled()) {
+			return null;
+		}
+		DialogEvent event = new DialogEvent();
+		event.begin();
+		return event;
+	}
+
+	public static void endDialog(DialogEvent event, int tabs, int filteredCandidates, int methods, int strings,
+			boolean snapshot) {
+		if (event != null) {
+			event.tabs = tabs;
+			event.filteredCandidates = filteredCandidates;
+			event.methods = methods;
+			event.strings = strings;
+			event.snapshot = snapshot;
+			event.commit();
+		}
+	}
+
+	public static SearchFilterEvent beginSearchFilter(String tab, String query) {
+		if (!AVAILABLE || !SearchFilterEvent.TYPE.isEnabled()) {
+			return null;
+		}
+		SearchFilterEvent event = new SearchFilterEvent();
+		event.tab = tab;
+		event.queryLength = query != null ? query.trim().length() : 0;
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * @param rows        rows (or tree leaves) before filtering, -1 if unknown
+	 * @param visibleRows rows (or tree leaves) left after filtering, -1 if unknown
+	 */
+	public static void endSearchFilter(SearchFilterEvent event, int rows, int visibleRows) {
+		if (event != null) {
+			event.rows = rows;
+			event.visibleRows = visibleRows;
+			event.commit();
+		}
+	}
+
+	public static BulkRenameEvent beginBulkRename(int candidates) {
+		if (!AVAILABLE || !BulkRenameEvent.TYPE.isEnabled()) {
+			return null;
+		}
+		BulkRenameEvent event = new BulkRenameEvent();
+		event.candidates = candidates;
+		event.begin();
+		return event;
+	}
+
+	public static void endBulkRename(BulkRenameEvent event, int renamed, int skipped, int failed) {
+		if (event != null) {
+			event.renamed = renamed;
+			event.skipped = skipped;
+			event.failed = failed;
+			event.commit();
+		}
+	}
+
+	public static NavigationLookupEvent beginNavigationLookup(String target, boolean method) {
+		if (!AVAILABLE || !NavigationLookupEvent.TYPE.isEnabled()) {
+			return null;
+		}
+		NavigationLookupEvent event = new NavigationLookupEvent();
+		event.target = target;
+		event.method = method;
+		event.begin();
+		return event;
+	}
+
+	public static void endNavigationLookup(NavigationLookupEvent event, boolean found) {
+		if (event != null) {
+			event.found = found;
+			event.commit();
+		}
+	}
+}
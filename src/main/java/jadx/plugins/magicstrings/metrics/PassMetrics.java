@@ -0,0 +1,386 @@
+/**
+ * Metrics of one extraction pass run: phase timers, counters, cost histograms,
+ * slowest classes and methods which failed to be read.
+ *
+ * All recording methods are safe to call from extraction workers at once. Phases run by workers
+ * (everything between instruction visiting and storing results) sum the time of all workers,
+ * so with several threads they can add up to more than the wall time of the pass.
+ *
+ * Phases inside a method (string analysis and storing) and string costs are timed only
+ * with detailed timing, timing every string costs several clock reads per string.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class PassMetrics {
+	public static final int SLOWEST_CLASSES_COUNT = 20;
+	public static final int FAILED_METHODS_COUNT = 20;
+
+	public enum Phase {
+		CACHE_LOAD("Results cache load", false),
+		FINGERPRINT("Class fingerprinting", false),
+		VISIT_INSTRUCTIONS("Instruction visiting", true),
+		CLASSIFY("Blob classification", true),
+		SOURCE_FILE("Source file detection", true),
+		TOKENIZE("Tokenization", true),
+		SCORING("Candidate scoring", true),
+		STORE("Storing results", true),
+		MERGE("Shard merging", false),
+		FILTERING("Candidate filtering", false),
+		CACHE_SAVE("Results cache save", false);
+
+		private final String label;
+		private final boolean detailed;
+
+		Phase(String label, boolean detailed) {
+			this.label = label;
+			this.detailed = detailed;
+		}
+
+		public String getLabel() {
+			return label;
+		}
+
+		/**
+		 * Timed only with detailed timing
+		 */
+		public boolean isDetailed() {
+			return detailed;
+		}
+	}
+
+	public enum Counter {
+		CLASSES("Classes"),
+		METHODS("Methods"),
+		METHODS_FAILED("Methods skipped on errors"),
+		STRINGS_SEEN("Strings seen"),
+		STRINGS_SHORT("Strings skipped (too short)"),
+		STRINGS_CACHED("Strings from analysis cache"),
+		STRINGS_ANALYZED("Strings analysed"),
+		STRINGS_BLOB("Strings skipped (blobs)"),
+		CANDIDATES("Candidates found"),
+		SOURCE_FILE_REFS("Source file references");
+
+		private final String label;
+
+		Counter(String label) {
+			this.label = label;
+		}
+
+		public String getLabel() {
+			return label;
+		}
+	}
+
+	/**
+	 * How the results were produced
+	 */
+	public enum Mode {
+		FULL, INCREMENTAL, CACHED
+	}
+
+	private final LongAdder[] phaseNanos = new LongAdder[Phase.values().length];
+	private final LongAdder[] counters = new LongAdder[Counter.values().length];
+	private final CostHistogram methodCost = new CostHistogram();
+	private final CostHistogram stringCost = new CostHistogram();
+
+	// Slowest classes sorted by time (descending), guarded by this
+	private final String[] slowestClasses = new String[SLOWEST_CLASSES_COUNT];
+	private final long[] slowestClassNanos = new long[SLOWEST_CLASSES_COUNT];
+	private int slowestCount;
+	// Time of the last tracked slow class once the list is full, faster classes are rejected without locking
+	private volatile long slowestThreshold = -1;
+
+	// First failed methods with their errors, guarded by this
+	private final List<String> failedMethods = new ArrayList<>();
+
+	private volatile Mode mode = Mode.FULL;
+	private volatile int threads = 1;
+	private volatile boolean detailedTiming;
+	private volatile long totalNanos;
+
+	public PassMetrics() {
+		for (int i = 0; i < phaseNanos.length; i++) {
+			phaseNanos[i] = new LongAdder();
+		}
+		for (int i = 0; i < counters.length; i++) {
+			counters[i] = new LongAdder();
+		}
+	}
+
+	public void addPhaseTime(Phase phase, long nanos) {
+		phaseNanos[phase.ordinal()].add(nanos);
+	}
+
+	public void increment(Counter counter) {
+		counters[counter.ordinal()].increment();
+	}
+
+	public void add(Counter counter, long value) {
+		counters[counter.ordinal()].add(value);
+	}
+
+	/**
+	 * Total extraction time of one method (instruction visiting and analysis of its strings)
+	 */
+	public void recordMethod(long nanos) {
+		methodCost.record(nanos);
+	}
+
+	/**
+	 * Analysis time of one string (cache misses only)
+	 */
+	public void recordString(long nanos) {
+		stringCost.record(nanos);
+	}
+
+	public void recordClass(String className, long nanos) {
+		if (nanos <= slowestThreshold) {
+			return;
+		}
+		synchronized (this) {
+			int pos;
+			if (slowestCount < SLOWEST_CLASSES_COUNT) {
+				pos = slowestCount++;
+			} else if (nanos > slowestClassNanos[SLOWEST_CLASSES_COUNT - 1]) {
+				pos = SLOWEST_CLASSES_COUNT - 1;
+			} else {
+				return;
+			}
+			while (pos > 0 && slowestClassNanos[pos - 1] < nanos) {
+				slowestClasses[pos] = slowestClasses[pos - 1];
+				slowestClassNanos[pos] = slowestClassNanos[pos - 1];
+				pos--;
+			}
+			slowestClasses[pos] = className;
+			slowestClassNanos[pos] = nanos;
+			if (slowestCount == SLOWEST_CLASSES_COUNT) {
+				slowestThreshold = slowestClassNanos[SLOWEST_CLASSES_COUNT - 1];
+			}
+		}
+	}
+
+	/**
+	 * Count a method skipped because its code can't be read, the first few errors are kept
+	 */
+	public void recordFailedMethod(String methodRef, Throwable error) {
+		increment(Counter.METHODS_FAILED);
+		synchronized (this) {
+			if (failedMethods.size() < FAILED_METHODS_COUNT) {
+				failedMethods.add(methodRef + ": " + error);
+			}
+		}
+	}
+
+	public void setMode(Mode mode) {
+		this.mode = mode;
+	}
+
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
+	public void setDetailedTiming(boolean detailedTiming) {
+		this.detailedTiming = detailedTiming;
+	}
+
+	public void setTotalNanos(long totalNanos) {
+		this.totalNanos = totalNanos;
+	}
+
+	public long getPhaseNanos(Phase phase) {
+		return phaseNanos[phase.ordinal()].sum();
+	}
+
+	public long getCount(Counter counter) {
+		return counters[counter.ordinal()].sum();
+	}
+
+	public CostHistogram getMethodCost() {
+		return methodCost;
+	}
+
+	public CostHistogram getStringCost() {
+		return stringCost;
+	}
+
+	public synchronized List<String> getSlowestClasses() {
+		return List.of(Arrays.copyOf(slowestClasses, slowestCount));
+	}
+
+	public synchronized long[] getSlowestClassNanos() {
+		return Arrays.copyOf(slowestClassNanos, slowestCount);
+	}
+
+	public synchronized List<String> getFailedMethods() {
+		return List.copyOf(failedMethods);
+	}
+
+	public Mode getMode() {
+		return mode;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Detailed phases and string costs are collected, see {@link Phase#isDetailed()}
+	 */
+	public boolean isDetailedTiming() {
+		return detailedTiming;
+	}
+
+	/**
+	 * Wall time of the whole pass
+	 */
+	public long getTotalNanos() {
+		return totalNanos;
+	}
+
+	public String toJson() {
+		StringBuilder sb = new StringBuilder();
+		try {
+			writeJson(sb);
+		} catch (IOException e) {
+			throw new IllegalStateException(e); // StringBuilder doesn't throw
+		}
+		return sb.toString();
+	}
+
+	public void writeJson(Writer writer) throws IOException {
+		writeJson((Appendable) writer);
+		writer.flush();
+	}
+
+	private void writeJson(Appendable out) throws IOException {
+		out.append("{\n");
+		out.append("  \"mode\": ").append(quote(mode.name().toLowerCase(Locale.ROOT))).append(",\n");
+		out.append("  \"threads\": ").append(Integer.toString(threads)).append(",\n");
+		out.append("  \"detailedTiming\": ").append(Boolean.toString(detailedTiming)).append(",\n");
+		out.append("  \"totalNanos\": ").append(Long.toString(totalNanos)).append(",\n");
+
+		out.append("  \"phasesNanos\": {");
+		Phase[] phases = Phase.values();
+		for (int i = 0; i < phases.length; i++) {
+			out.append(i == 0 ? "\n" : ",\n");
+			out.append("    ").append(quote(jsonName(phases[i].name()))).append(": ")
+					.append(Long.toString(getPhaseNanos(phases[i])));
+		}
+		out.append("\n  },\n");
+
+		out.append("  \"counters\": {");
+		Counter[] counterValues = Counter.values();
+		for (int i = 0; i < counterValues.length; i++) {
+			out.append(i == 0 ? "\n" : ",\n");
+			out.append("    ").append(quote(jsonName(counterValues[i].name()))).append(": ")
+					.append(Long.toString(getCount(counterValues[i])));
+		}
+		out.append("\n  },\n");
+
+		out.append("  \"methodCost\": ");
+		writeHistogram(out, methodCost);
+		out.append(",\n  \"stringCost\": ");
+		writeHistogram(out, stringCost);
+		out.append(",\n");
+
+		List<String> classes = getSlowestClasses();
+		long[] classNanos = getSlowestClassNanos();
+		out.append("  \"slowestClasses\": [");
+		for (int i = 0; i < classes.size(); i++) {
+			out.append(i == 0 ? "\n" : ",\n");
+			out.append("    { \"class\": ").append(quote(classes.get(i)))
+					.append(", \"nanos\": ").append(Long.toString(classNanos[i])).append(" }");
+		}
+		out.append(classes.isEmpty() ? "],\n" : "\n  ],\n");
+
+		List<String> failed = getFailedMethods();
+		out.append("  \"failedMethods\": [");
+		for (int i = 0; i < failed.size(); i++) {
+			out.append(i == 0 ? "\n" : ",\n");
+			out.append("    ").append(quote(failed.get(i)));
+		}
+		out.append(failed.isEmpty() ? "]\n" : "\n  ]\n");
+		out.append("}\n");
+	}
+
+	private static void writeHistogram(Appendable out, CostHistogram histogram) throws IOException {
+		out.append("{ \"count\": ").append(Long.toString(histogram.getCount()))
+				.append(", \"totalNanos\": ").append(Long.toString(histogram.getTotalNanos()))
+				.append(", \"maxNanos\": ").append(Long.toString(histogram.getMaxNanos()))
+				.append(", \"p50Nanos\": ").append(Long.toString(histogram.getPercentile(50)))
+				.append(", \"p99Nanos\": ").append(Long.toString(histogram.getPercentile(99)))
+				.append(",\n    \"buckets\": [");
+		boolean first = true;
+		for (int i = 0; i < CostHistogram.BUCKETS_COUNT; i++) {
+			long count = histogram.getBucketCount(i);
+			if (count != 0) {
+				out.append(first ? "\n" : ",\n");
+				out.append("      { \"belowNanos\": ").append(Long.toString(CostHistogram.getBucketUpperBound(i)))
+						.append(", \"count\": ").append(Long.toString(count)).append(" }");
+				first = false;
+			}
+		}
+		out.append(first ? "] }" : "\n    ] }");
+	}
+
+	/**
+	 * Enum constant name in camelCase: STRINGS_SEEN -> stringsSeen
+	 */
+	private static String jsonName(String name) {
+		StringBuilder sb = new StringBuilder(name.length());
+		boolean upper = false;
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (c == '_') {
+				upper = true;
+			} else {
+				sb.append(upper ? c : Character.toLowerCase(c));
+				upper = false;
+			}
+		}
+		return sb.toString();
+	}
+
+	private static String quote(String str) {
+		StringBuilder sb = new StringBuilder(str.length() + 2);
+		sb.append('"');
+		for (int i = 0; i < str.length(); i++) {
+			char c = str.charAt(i);
+			switch (c) {
+				case '"':
+					sb.append("\\\"");
+					break;
+				case '\\':
+					sb.append("\\\\");
+					break;
+				case '\n':
+					sb.append("\\n");
+					break;
+				case '\r':
+					sb.append("\\r");
+					break;
+				case '\t':
+					sb.append("\\t");
+					break;
+				default:
+					if (c < 0x20) {
+						sb.append(String.format("\\u%04x", (int) c));
+					} else {
+						sb.append(c);
+					}
+			}
+		}
+		return sb.append('"').toString();
+	}
+}
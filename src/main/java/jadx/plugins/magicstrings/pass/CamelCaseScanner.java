@@ -0,0 +1,186 @@
+/**
+ * Hand-written scanner for lowerCamelCase method names, replaces two regex patterns:
+ * - exact token match: {@code ^[a-z][a-z0-9_]*([A-Z][a-z0-9_]*)*$}
+ * - names inside a token: {@code \b[a-z][a-z0-9_]*(?:[A-Z][a-z0-9_]*)+\b}
+ *
+ * Both patterns accept only ASCII identifier chars, so a name is always a whole run of
+ * {@code [A-Za-z0-9_]}: an exact match is a run covering the token and starting with a lowercase letter,
+ * and a found name is such a run with at least one uppercase letter and a word boundary on both sides.
+ * One pass over the token finds all runs and checks their boundaries.
+ *
+ * Word boundaries follow java.util.regex {@code \b}, so results are the same as with the patterns
+ * on any JDK: word chars are letters and digits of any script up to JDK 18 and only ASCII since JDK 19,
+ * and a non-spacing mark after a letter or digit counts as a word char.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.pass;
+
+import java.util.regex.Pattern;
+
+final class CamelCaseScanner {
+	// Behaviour of \b on this JDK: true if non-ASCII letters are word chars
+	private static final boolean UNICODE_WORD_BOUNDARY = Pattern.compile("\\b").matcher("\u00e9").find();
+
+	private String str = "";
+	private int regionStart;
+	private int regionEnd;
+	private int pos;
+	private int matchStart;
+	private int matchEnd;
+
+	/**
+	 * Check if the whole region is a method name (first pattern)
+	 */
+	static boolean isMethodName(String str, int start, int end) {
+		if (start >= end || !isLower(str.charAt(start))) {
+			return false;
+		}
+		for (int i = start + 1; i < end; i++) {
+			if (!isAsciiWord(str.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Start search of camelCase names in [start, end) of the string
+	 */
+	CamelCaseScanner reset(String str, int start, int end) {
+		this.str = str;
+		this.regionStart = start;
+		this.regionEnd = end;
+		this.pos = start;
+		return this;
+	}
+
+	/**
+	 * Find next camelCase name (second pattern), bounds are available through start() and end()
+	 */
+	boolean find() {
+		int end = regionEnd;
+		int i = pos;
+		while (i < end) {
+			if (!isAsciiWord(str.charAt(i))) {
+				i++;
+				continue;
+			}
+			int runStart = i;
+			boolean hasUpper = false;
+			while (i < end) {
+				char c = str.charAt(i);
+				if (isUpper(c)) {
+					hasUpper = true;
+				} else if (!isAsciiWord(c)) {
+					break;
+				}
+				i++;
+			}
+			if (hasUpper && isLower(str.charAt(runStart))
+					&& !isWordBefore(runStart) && !isWordAt(i)) {
+				matchStart = runStart;
+				matchEnd = i;
+				pos = i;
+				return true;
+			}
+		}
+		pos = end;
+		return false;
+	}
+
+	int start() {
+		return matchStart;
+	}
+
+	int end() {
+		return matchEnd;
+	}
+
+	/**
+	 * Left side of a regex word boundary at index
+	 */
+	private boolean isWordBefore(int index) {
+		if (index <= regionStart) {
+			return false;
+		}
+		char c = str.charAt(index - 1);
+		if (c < 0x80) {
+			return isAsciiWord(c);
+		}
+		int cp = c;
+		if (Character.isLowSurrogate(c) && index - 2 >= regionStart) {
+			char high = str.charAt(index - 2);
+			if (Character.isHighSurrogate(high)) {
+				cp = Character.toCodePoint(high, c);
+			}
+		}
+		return isWord(cp) || (isNonSpacingMark(cp) && hasBaseCharacter(index - 1));
+	}
+
+	/**
+	 * Right side of a regex word boundary at index
+	 */
+	private boolean isWordAt(int index) {
+		if (index >= regionEnd) {
+			return false;
+		}
+		char c = str.charAt(index);
+		if (c < 0x80) {
+			return isAsciiWord(c);
+		}
+		int cp = codePointAt(index);
+		return isWord(cp) || (isNonSpacingMark(cp) && hasBaseCharacter(index));
+	}
+
+	/**
+	 * Same as in java.util.regex: steps back by chars over non-spacing marks looking for a letter or digit
+	 */
+	private boolean hasBaseCharacter(int index) {
+		for (int x = index; x >= regionStart; x--) {
+			int cp = codePointAt(x);
+			if (Character.isLetterOrDigit(cp)) {
+				return true;
+			}
+			if (!isNonSpacingMark(cp)) {
+				return false;
+			}
+		}
+		return false;
+	}
+
+	private int codePointAt(int index) {
+		char c = str.charAt(index);
+		if (Character.isHighSurrogate(c) && index + 1 < regionEnd) {
+			char low = str.charAt(index + 1);
+			if (Character.isLowSurrogate(low)) {
+				return Character.toCodePoint(c, low);
+			}
+		}
+		return c;
+	}
+
+	private static boolean isWord(int cp) {
+		if (cp < 0x80) {
+			return isAsciiWord((char) cp);
+		}
+		return UNICODE_WORD_BOUNDARY && Character.isLetterOrDigit(cp);
+	}
+
+	private static boolean isNonSpacingMark(int cp) {
+		return Character.getType(cp) == Character.NON_SPACING_MARK;
+	}
+
+	private static boolean isAsciiWord(char c) {
+		return isLower(c) || isUpper(c) || (c >= '0' && c <= '9') || c == '_';
+	}
+
+	private static boolean isLower(char c) {
+		return c >= 'a' && c <= 'z';
+	}
+
+	private static boolean isUpper(char c) {
+		return c >= 'A' && c <= 'Z';
+	}
+}
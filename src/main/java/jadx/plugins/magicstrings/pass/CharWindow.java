@@ -0,0 +1,43 @@
+/**
+ * Mutable CharSequence view of a string region.
+ *
+ * Lets regex matchers run on a token or candidate without copying it into a new String.
+ * The same view is reset to many regions, so it must not escape the code that set it.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.pass;
+
+final class CharWindow implements CharSequence {
+	private String str = "";
+	private int start;
+	private int end;
+
+	CharWindow set(String str, int start, int end) {
+		this.str = str;
+		this.start = start;
+		this.end = end;
+		return this;
+	}
+
+	@Override
+	public int length() {
+		return end - start;
+	}
+
+	@Override
+	public char charAt(int index) {
+		return str.charAt(start + index);
+	}
+
+	@Override
+	public CharSequence subSequence(int from, int to) {
+		return str.subSequence(start + from, start + to);
+	}
+
+	@Override
+	public String toString() {
+		return str.substring(start, end);
+	}
+}
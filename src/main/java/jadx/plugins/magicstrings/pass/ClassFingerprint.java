@@ -0,0 +1,43 @@
+/**
+ * 64-bit content fingerprint of a class as seen by the extraction.
+ *
+ * Covers everything the stored results depend on: class name, method refs and names
+ * and all string constants in instruction order. Two classes with equal fingerprints
+ * produce the same extraction results, so unchanged classes can be skipped on reload.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.pass;
+
+final class ClassFingerprint {
+	private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+	private static final long FNV_PRIME = 0x100000001B3L;
+
+	private long hash = FNV_OFFSET_BASIS;
+
+	ClassFingerprint(String className) {
+		add(className);
+	}
+
+	/**
+	 * Mix in a value, length is included so concatenated values can't collide
+	 */
+	void add(String value) {
+		long h = hash;
+		int length = value.length();
+		h = (h ^ length) * FNV_PRIME;
+		for (int i = 0; i < length; i++) {
+			h = (h ^ value.charAt(i)) * FNV_PRIME;
+		}
+		hash = h;
+	}
+
+	long get() {
+		// Final avalanche, plain FNV leaves the high bits weak for short inputs
+		long h = hash;
+		h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+		h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+		return h ^ (h >>> 33);
+	}
+}
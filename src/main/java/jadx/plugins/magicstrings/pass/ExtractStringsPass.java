@@ -10,33 +10,52 @@
  * The pass uses sophisticated scoring mechanisms to filter and rank method name
  * candidates based on various factors like rarity, context, and pattern matching.
  * 
+ * When inputs change between runs, the previous results are reused and only classes
+ * with a different content fingerprint are retracted and extracted again.
+ * 
  * @author 0rshemesh
  * @license Apache License 2.0
  */
 package jadx.plugins.magicstrings.pass;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import jadx.api.plugins.JadxPluginContext;
 import jadx.api.plugins.input.data.ICodeReader;
 import jadx.api.plugins.input.insns.Opcode;
 import jadx.api.plugins.pass.JadxPassInfo;
 import jadx.api.plugins.pass.impl.SimpleJadxPassInfo;
 import jadx.api.plugins.pass.types.JadxPreparePass;
-import jadx.core.deobf.NameMapper;
 import jadx.core.dex.nodes.ClassNode;
 import jadx.core.dex.nodes.MethodNode;
 import jadx.core.dex.nodes.RootNode;
+import jadx.plugins.magicstrings.MagicStringsOptions;
+import jadx.plugins.magicstrings.MagicStringsPlugin;
+import jadx.plugins.magicstrings.cache.ResultsCache;
 import jadx.plugins.magicstrings.data.MagicStringsData;
+import jadx.plugins.magicstrings.data.MagicStringsSink;
+import jadx.plugins.magicstrings.data.ParallelChunks;
+import jadx.plugins.magicstrings.metrics.JfrEvents;
+import jadx.plugins.magicstrings.metrics.PassMetrics;
+import jadx.plugins.magicstrings.metrics.PassMetrics.Counter;
+import jadx.plugins.magicstrings.metrics.PassMetrics.Phase;
+import jadx.plugins.magicstrings.stoplist.Stoplist;
 
 /**
  * Pass to extract string constants and analyze them for source files and method names
@@ -45,129 +64,43 @@ public class ExtractStringsPass implements JadxPreparePass {
 	private static final Logger LOG = LoggerFactory.getLogger(ExtractStringsPass.class);
 
 	// Configuration constants
-	private static final int MIN_STRING_LENGTH = 4;
-	private static final int MIN_TOKEN_LENGTH = 4;
-	private static final int MIN_CANDIDATE_LENGTH = 4;
-	private static final int MAX_TOKEN_LENGTH_FOR_SEARCH = 500;
-	private static final int MAX_CANDIDATES_PER_METHOD = 2; // Only keep top 2 candidates per method
-	private static final int MIN_SCORE_TO_KEEP = 10; // Minimum score to keep a candidate (strict filtering)
-	private static final int MIN_CAMELCASE_LENGTH_SHORT = 8;
-	private static final int MIN_CAMELCASE_LENGTH_LONG = 12;
-	private static final int MIN_UPPERCASE_FOR_BONUS = 2;
-	private static final int FILE_EXTENSION_PROXIMITY = 30;
 	private static final int LOG_INTERVAL_DIVISOR = 20;
 	private static final int MIN_LOG_INTERVAL = 100;
+	private static final int MIN_CLASSES_PER_TASK = 16; // Smallest class chunk handed to a worker
+	private static final int ANALYSIS_CACHE_CAPACITY = StringAnalysisCache.DEFAULT_CAPACITY;
+	private static final String TRUNCATED_MARK = "\u2026";
+	private static final String EXTRACTION_PHASE_LABEL = "Class extraction";
 
-	// Scoring constants
-	private static final int SCORE_VALID_IDENTIFIER = 5;
-	private static final int SCORE_STANDALONE = 15;
-	private static final int SCORE_LOG_CONTEXT = 8;
-	private static final int SCORE_POSITION_LOG_STATEMENT = 12;
-	private static final int SCORE_CAMELCASE_LONG = 5;
-	private static final int SCORE_CAMELCASE_SHORT = 3;
-	private static final int PENALTY_BLACKLIST = -10;
-	private static final int PENALTY_INVALID_IDENTIFIER = -10;
-	private static final int PENALTY_ALL_UPPERCASE = -5;
-	private static final int PENALTY_PACKAGE_PATH = -15;
-	private static final int PENALTY_PACKAGE_PATH_FULL = -10;
-	private static final int PENALTY_PARTIAL_WORD = -8;
-	private static final int PENALTY_CLASS_NAME_IN_PATH = -5;
-	private static final int PENALTY_NEAR_FILE_EXTENSION = -5;
-	private static final int PENALTY_SHORT_SINGLE_WORD = -3;
-
-	// Regex for Java/Kotlin source files
-	private static final Pattern SOURCE_FILES_REGEXP = Pattern.compile(
-			"([a-z_/\\\\][a-z0-9_/\\\\:\\-\\.@]+\\.(java|kt|kts|scala|groovy))($|:| )",
-			Pattern.CASE_INSENSITIVE);
-
-	// Regex for method names (Java style: strict lowerCamelCase)
-	// Pattern: starts with lowercase letter, followed by alphanumeric, underscores, or camelCase words
-	// Allows: lowercase letters, digits, underscores, and uppercase letters (for camelCase)
-	// Examples: "getValue", "setValue2", "is_valid", "processData", "onCreate"
-	private static final Pattern METHOD_NAMES_REGEXP = Pattern.compile(
-			"^[a-z][a-z0-9_]*([A-Z][a-z0-9_]*)*$");
-
-	// Pattern for finding method names within strings (with word boundaries)
-	// Used when searching for method names as substrings within tokens
-	// Matches: camelCase method names (getValue, processData) - requires at least one uppercase letter
-	// Simple method names (get, set) are handled by exact matching on whole tokens
-	// Requires word boundaries to avoid matching parts of longer words
-	private static final Pattern METHOD_NAMES_FIND_PATTERN = Pattern.compile(
-			"\\b[a-z][a-z0-9_]*(?:[A-Z][a-z0-9_]*)+\\b");
-
-	// Common words that are not likely to be method names
-	private static final Set<String> NOT_METHOD_NAMES = Set.of(
-			"copyright", "license", "version", "cannot", "error", "invalid", "null",
-			"warning", "general", "argument", "written", "report", "failed", "assert",
-			"object", "integer", "unknown", "localhost", "native", "memory", "system",
-			"write", "read", "open", "close", "help", "exit", "test", "return", "libs",
-			"home", "ambiguous", "internal", "request", "inserting", "deleting", "removing",
-			"updating", "adding", "assertion", "flags", "overflow", "enabled", "disabled",
-			"enable", "disable", "virtual", "client", "server", "switch", "while", "offset",
-			"abort", "panic", "static", "updated", "pointer", "reason", "default", "success",
-			"expecting", "missing", "phrase", "unrecognized", "undefined", "corrupt", "corrupted",
-			// Common English words
-			"the", "not", "present", "downloading", "thumbnail", "file", "transfer", "incoming",
-			"android", "google", "apps", "shared", "com", "java", "processor",
-			"successfully", "queued", "download", "embedded", "initiate", "insert",
-			"schedule", "finishing", "actions", "push", "message", "storing", "sender", "msisdn",
-			"manual", "auto", "empty", "optional",
-			// Additional common English words
-			"for", "and", "or", "is", "are", "was", "were", "has", "have", "had", "with", "from",
-			"this", "that", "which", "what", "when", "where", "who", "how",
-			// Common package segments
-			"org", "net", "io",
-			// Common file-related words
-			"path", "dir", "directory", "extension");
-
-
-	// Pattern to detect class names (PascalCase - starts with uppercase)
-	private static final Pattern CLASS_NAME_PATTERN = Pattern.compile("^[A-Z][A-Za-z0-9]+$");
-
-	// Pattern to detect file extensions
-	private static final Pattern FILE_EXTENSION_PATTERN = Pattern.compile("^.*\\.(java|kt|class|kts|scala|groovy)$");
-
-	// Pattern to detect package paths
-	private static final Pattern PACKAGE_PATH_FULL_PATTERN = Pattern.compile("^[a-z_][a-z0-9_]*(\\/[a-z_][a-z0-9_]*)+$");
-
-	// Pattern to detect log literals (contains spaces, punctuation, format specifiers)
-	private static final Pattern LOG_LITERAL_PATTERN = Pattern.compile(".*[\\s\\.\\?%\\{\\}].*");
-
-	// Common file extensions to check
-	private static final String[] FILE_EXTENSIONS = {".java", ".kt", ".class", ".kts", ".scala", ".groovy"};
-	private static final String[] SOURCE_EXTENSIONS = {".java", ".kt", ".scala"};
-
-	// Path separators
-	private static final char PATH_SEPARATOR_FORWARD = '/';
-	private static final char PATH_SEPARATOR_BACKWARD = '\\';
-	private static final char PACKAGE_SEPARATOR = '.';
-
-	private static class CandidateScore {
-		private final String candidate;
-		private final String sourceString;
-		private int score;
-
-		public CandidateScore(String candidate, String sourceString) {
-			this.candidate = candidate;
-			this.sourceString = sourceString;
-			this.score = 0;
-		}
+	// String analysis, shared by all extraction workers. Created in init() when options are already set
+	private StringAnalyzer analyzer;
 
-		public String getCandidate() {
-			return candidate;
-		}
+	// User supplied stoplists, loaded in init()
+	private List<Stoplist> stoplists = List.of();
 
-		public String getSourceString() {
-			return sourceString;
-		}
+	// Per-run cache of analysis results, shared by all extraction workers
+	private StringAnalysisCache analysisCache;
 
-		public int getScore() {
-			return score;
-		}
+	// Per-run counters of string kinds, shared by all extraction workers
+	private StringStats stringStats;
 
-		public void addScore(int points) {
-			this.score += points;
-		}
+	// Per-run timers and counters, attached to the results
+	private PassMetrics metrics;
+
+	// Plugin context, null when the pass is used standalone (results are not cached then)
+	private final JadxPluginContext context;
+	private final MagicStringsOptions options;
+
+	public ExtractStringsPass() {
+		this(null);
+	}
+
+	public ExtractStringsPass(JadxPluginContext context) {
+		this(context, new MagicStringsOptions());
+	}
+
+	public ExtractStringsPass(JadxPluginContext context, MagicStringsOptions options) {
+		this.context = context;
+		this.options = options;
 	}
 
 	@Override
@@ -178,6 +111,7 @@ public class ExtractStringsPass implements JadxPreparePass {
 	@Override
 	public void init(RootNode root) {
 		LOG.debug("Magic Strings: ExtractStringsPass.init() ");
+		MagicStringsData data = null;
 		try {
 			if (root == null) {
 				LOG.warn("Magic Strings: RootNode is null, aborting");
@@ -185,622 +119,587 @@ public class ExtractStringsPass implements JadxPreparePass {
 			}
 			LOG.info("Magic Strings: Initializing extraction pass");
 			long startTime = System.currentTimeMillis();
+			long startNanos = System.nanoTime();
+			metrics = new PassMetrics();
+			metrics.setThreads(getThreadsCount(root));
+			metrics.setDetailedTiming(options.isDetailedTiming());
+			stoplists = loadStoplists();
+			analyzer = new StringAnalyzer(options, stoplists, options.isDetailedTiming() ? metrics : null);
+
+			ResultsCache resultsCache = null;
+			String cacheKey = null;
+			String lineageKey = null;
+			MagicStringsData previous = null;
+			if (context != null) {
+				resultsCache = new ResultsCache(context.files().getPluginCacheDir());
+				cacheKey = buildCacheKey(root);
+				long loadStartTime = System.nanoTime();
+				JfrEvents.PhaseEvent loadEvent = JfrEvents.beginPhase(Phase.CACHE_LOAD.getLabel());
+				MagicStringsData cached = cacheKey != null ? resultsCache.load(cacheKey) : null;
+				metrics.addPhaseTime(Phase.CACHE_LOAD, System.nanoTime() - loadStartTime);
+				JfrEvents.endPhase(loadEvent, cached != null ? cached.getMethodCandidates().size() : 0);
+				if (cached != null) {
+					metrics.setMode(PassMetrics.Mode.CACHED);
+					metrics.setTotalNanos(System.nanoTime() - startNanos);
+					cached.setMetrics(metrics);
+					MagicStringsData.setData(root, cached);
+					LOG.info("Magic Strings: Loaded {} filtered candidates from cache in {}ms",
+							cached.getFilteredCandidates().size(), System.currentTimeMillis() - startTime);
+					return;
+				}
+				if (cacheKey != null) {
+					lineageKey = ResultsCache.buildLineageKey(root.getArgs(), MagicStringsPlugin.getVersion(), getCacheSettings());
+					previous = resultsCache.loadPrevious(lineageKey);
+				}
+			}
 
-			MagicStringsData data = MagicStringsData.getData(root);
-			extractStrings(root, data);
-
-			long extractionTime = System.currentTimeMillis() - startTime;
-			LOG.info("Magic Strings: Found {} method candidates, processing filters...", data.getMethodCandidates().size());
-
-			long filterStartTime = System.currentTimeMillis();
-			data.processFilteredCandidates();
-			long filterTime = System.currentTimeMillis() - filterStartTime;
+			analysisCache = new StringAnalysisCache(ANALYSIS_CACHE_CAPACITY);
+			stringStats = new StringStats();
+			long filterStartTime;
+			if (previous != null && !previous.getClassFingerprints().isEmpty()) {
+				// Inputs changed since the previous run: rescan only changed classes
+				data = previous;
+				data.setExtractionComplete(false);
+				data.setMetrics(metrics);
+				metrics.setMode(PassMetrics.Mode.INCREMENTAL);
+				MagicStringsData.setData(root, data);
+				updateChangedClasses(root, data);
+				filterStartTime = System.nanoTime();
+				data.updateFilteredCandidates(getThreadsCount(root));
+				MagicStringsData compacted = data.compactIfStale(getThreadsCount(root));
+				if (compacted != data) {
+					// Drop symbols of retracted strings, so saved results don't grow with every reload
+					LOG.debug("Magic Strings: Compacted results after incremental update");
+					MagicStringsData.setData(root, compacted);
+					data = compacted;
+				}
+			} else {
+				data = MagicStringsData.getData(root);
+				data.setExtractionComplete(false);
+				data.setMetrics(metrics);
+				extractStrings(root.getClasses(), getThreadsCount(root), data);
+				LOG.info("Magic Strings: Found {} method candidates, processing filters...", data.getMethodCandidates().size());
+				filterStartTime = System.nanoTime();
+				data.processFilteredCandidates(getThreadsCount(root));
+			}
+			long filterTime = System.nanoTime() - filterStartTime;
+			metrics.addPhaseTime(Phase.FILTERING, filterTime);
+			metrics.add(Counter.STRINGS_CACHED, analysisCache.getHits());
+			logCacheStats(analysisCache);
+			stringStats.log();
+			data.setExtractionComplete(true);
 
 			long totalTime = System.currentTimeMillis() - startTime;
+			long filterTimeMs = filterTime / 1_000_000;
 			LOG.info("Magic Strings: Complete. {} filtered candidates in {}ms (extraction: {}ms, filtering: {}ms)",
-					data.getFilteredCandidates().size(), totalTime, extractionTime, filterTime);
+					data.getFilteredCandidates().size(), totalTime, totalTime - filterTimeMs, filterTimeMs);
+
+			if (cacheKey != null) {
+				long saveStartTime = System.nanoTime();
+				JfrEvents.PhaseEvent saveEvent = JfrEvents.beginPhase(Phase.CACHE_SAVE.getLabel());
+				resultsCache.save(cacheKey, data);
+				resultsCache.saveLineage(lineageKey, cacheKey);
+				long saveTime = System.nanoTime() - saveStartTime;
+				metrics.addPhaseTime(Phase.CACHE_SAVE, saveTime);
+				JfrEvents.endPhase(saveEvent, data.getMethodCandidates().size());
+				LOG.debug("Magic Strings: Results saved to cache in {}ms", saveTime / 1_000_000);
+			}
+			metrics.setTotalNanos(System.nanoTime() - startNanos);
 		} catch (Exception e) {
 			LOG.error("Magic Strings plugin error", e);
-		}
-	}
-
-	private void extractStrings(RootNode root, MagicStringsData data) {
-		int totalClasses = root.getClasses().size();
-		int processedClasses = 0;
-		int processedMethods = 0;
-		long startTime = System.currentTimeMillis();
-		int logInterval = Math.max(MIN_LOG_INTERVAL, totalClasses / LOG_INTERVAL_DIVISOR);
-
-		LOG.info("Magic Strings: Starting extraction from {} classes", totalClasses);
-
-		for (ClassNode cls : root.getClasses()) {
-			processedClasses++;
-			if (processedClasses % logInterval == 0) {
-				long elapsed = System.currentTimeMillis() - startTime;
-				LOG.info("Magic Strings: Processed {}/{} classes ({} methods), {}ms elapsed",
-						processedClasses, totalClasses, processedMethods, elapsed);
-			}
-
-			for (MethodNode mth : cls.getMethods()) {
-				if (mth.isNoCode()) {
-					continue;
-				}
-				// No need to load method - code reader works without full decompilation
-				extractStringsFromMethod(cls, mth, data);
-				processedMethods++;
+		} finally {
+			analysisCache = null;
+			stringStats = null;
+			if (data != null && !data.isExtractionComplete()) {
+				// Failed run: keep partial results, but don't report them as still in progress
+				data.setExtractionComplete(true);
 			}
 		}
-
-		long totalTime = System.currentTimeMillis() - startTime;
-		LOG.info("Magic Strings: Extraction complete. Processed {} classes, {} methods in {}ms",
-				processedClasses, processedMethods, totalTime);
 	}
 
-	private void extractStringsFromMethod(ClassNode cls, MethodNode mth, MagicStringsData data) {
+	/**
+	 * Key for the persistent results cache or null if inputs can't be hashed
+	 */
+	private String buildCacheKey(RootNode root) {
 		try {
-			String className = cls.getFullName();
-			String methodRef = mth.getMethodInfo().getFullId();
-			String methodName = mth.getName();
-
-			ICodeReader codeReader = mth.getCodeReader();
-			if (codeReader != null) {
-				codeReader.visitInstructions(insn -> {
-					if (insn.getOpcode() == Opcode.CONST_STRING) {
-						insn.decode();
-						String str = insn.getIndexAsString();
-						
-						if (str != null && str.length() >= MIN_STRING_LENGTH) {
-							data.getAllStrings().add(
-									new MagicStringsData.StringInfo(str, methodRef, className));
-
-							checkSourceFile(str, methodRef, methodName, data);
-
-							checkMethodNames(str, methodRef, data);
-						}
-					}
-				});
-			}
+			long startTime = System.currentTimeMillis();
+			String key = ResultsCache.buildKey(root.getArgs(), context.getDecompiler(),
+					MagicStringsPlugin.getVersion(), getCacheSettings());
+			LOG.debug("Magic Strings: Inputs hashed in {}ms", System.currentTimeMillis() - startTime);
+			return key;
 		} catch (Exception e) {
-			// Skip methods that cause issues
-			// Don't fail the entire pass
+			LOG.warn("Magic Strings: Failed to hash inputs, results cache disabled", e);
+			return null;
 		}
 	}
 
-	private void checkSourceFile(String str, String methodRef, String methodName, MagicStringsData data) {
-		Matcher matcher = SOURCE_FILES_REGEXP.matcher(str);
-		if (matcher.find()) {
-			String filePath = matcher.group(1);
-			data.getSourceFiles()
-					.computeIfAbsent(filePath, k -> new ArrayList<>())
-					.add(new MagicStringsData.SourceFileReference(methodRef, methodName, str));
-		}
+	/**
+	 * Load stoplists from options, files which fail to load are skipped
+	 */
+	private List<Stoplist> loadStoplists() {
+		List<Stoplist> list = new ArrayList<>();
+		for (Path path : options.getStoplists()) {
+			try {
+				long startTime = System.currentTimeMillis();
+				Stoplist stoplist = Stoplist.load(path);
+				list.add(stoplist);
+				LOG.info("Magic Strings: Loaded stoplist {} with {} words in {}ms",
+						path, stoplist.size(), System.currentTimeMillis() - startTime);
+			} catch (Exception e) {
+				LOG.warn("Magic Strings: Failed to load stoplist {}, skipping it", path, e);
+			}
+		}
+		return list;
 	}
 
-	private void checkMethodNames(String str, String methodRef, MagicStringsData data) {
-		// Early exit: skip if string is too short
-		if (str == null || str.length() < MIN_STRING_LENGTH - 1) {
-			return;
-		}
-
-		// Tokenization-first approach: split by commas if present, otherwise use whole string
-		List<String> tokens = tokenizeString(str);
-
-		// Collect all candidates with scores
-		List<CandidateScore> candidatesWithScores = new ArrayList<>();
-
-		// Reusable matchers for performance (created once per method call)
-		Matcher exactMatcher = METHOD_NAMES_REGEXP.matcher("");
-		Matcher findMatcher = METHOD_NAMES_FIND_PATTERN.matcher("");
+	/**
+	 * Analysis settings which affect stored results
+	 */
+	private String getCacheSettings() {
+		StringBuilder stoplistHashes = new StringBuilder();
+		for (Stoplist stoplist : stoplists) {
+			stoplistHashes.append(Long.toHexString(stoplist.getContentHash())).append(',');
+		}
+		return "minStringLength=" + StringAnalyzer.MIN_STRING_LENGTH
+				+ ";maxCandidates=" + StringAnalyzer.MAX_CANDIDATES_PER_METHOD
+				+ ";minScore=" + StringAnalyzer.MIN_SCORE_TO_KEEP
+				+ ";blobFilter=" + options.isBlobFilter()
+				+ ";minBlobLength=" + options.getMinBlobLength()
+				+ ";maxAnalyzeLength=" + options.getMaxAnalyzeLength()
+				+ ";maxStoredLength=" + options.getMaxStoredLength()
+				+ ";stoplists=" + stoplistHashes;
+	}
 
-		// Analyze each token separately
-		for (int i = 0; i < tokens.size(); i++) {
-			String token = tokens.get(i);
-			if (token == null) {
-				continue;
+	/**
+	 * Retract stored results of changed and removed classes, then extract changed and new classes again
+	 */
+	private void updateChangedClasses(RootNode root, MagicStringsData data) {
+		List<ClassNode> classes = root.getClasses();
+		int threads = getThreadsCount(root);
+		long startTime = System.currentTimeMillis();
+		long fingerprintStartTime = System.nanoTime();
+		JfrEvents.PhaseEvent fingerprintEvent = JfrEvents.beginPhase(Phase.FINGERPRINT.getLabel());
+		long[] fingerprints = computeFingerprints(classes, threads);
+		metrics.addPhaseTime(Phase.FINGERPRINT, System.nanoTime() - fingerprintStartTime);
+		JfrEvents.endPhase(fingerprintEvent, classes.size());
+
+		Map<String, Long> stored = data.getClassFingerprints();
+		Set<String> retracted = new HashSet<>(stored.keySet());
+		List<ClassNode> changed = new ArrayList<>();
+		int removed = stored.size();
+		for (int i = 0; i < classes.size(); i++) {
+			String className = classes.get(i).getFullName();
+			Long fingerprint = stored.get(className);
+			if (fingerprint != null) {
+				removed--;
+			}
+			if (fingerprint != null && fingerprint == fingerprints[i]) {
+				retracted.remove(className);
+			} else {
+				changed.add(classes.get(i));
 			}
-			token = token.trim();
+		}
+		LOG.info("Magic Strings: Fingerprinted {} classes in {}ms, {} changed or new, {} removed",
+				classes.size(), System.currentTimeMillis() - startTime, changed.size(), removed);
+		data.retractClasses(retracted);
+		extractStrings(changed, threads, data);
+	}
 
-			// Skip empty or very short tokens
-			if (token.length() < MIN_TOKEN_LENGTH) {
-				continue;
+	private long[] computeFingerprints(List<ClassNode> classes, int threads) {
+		long[] fingerprints = new long[classes.size()];
+		ParallelChunks.forEach(classes.size(), threads, MIN_CLASSES_PER_TASK, (chunk, from, to) -> {
+			for (int i = from; i < to; i++) {
+				fingerprints[i] = fingerprintClass(classes.get(i));
 			}
+		});
+		return fingerprints;
+	}
 
-			// Apply exclusion filters first (early exit for performance)
-			if (isExcludedToken(token)) {
+	/**
+	 * Same fingerprint as computed during extraction, without analysing the strings
+	 */
+	private long fingerprintClass(ClassNode cls) {
+		ClassFingerprint fingerprint = new ClassFingerprint(cls.getFullName());
+		for (MethodNode mth : cls.getMethods()) {
+			if (mth.isNoCode()) {
 				continue;
 			}
-
-			// Check if entire token matches method name pattern (exact match)
-			exactMatcher.reset(token);
-			if (exactMatcher.matches()) {
-				CandidateScore candidateScore = new CandidateScore(token, str);
-				scoreCandidate(candidateScore, token, i, tokens, str);
-				// Only keep candidates with score above minimum threshold (strict filtering)
-				if (candidateScore.getScore() >= MIN_SCORE_TO_KEEP) {
-					candidatesWithScores.add(candidateScore);
-				}
-			} else if (token.length() < MAX_TOKEN_LENGTH_FOR_SEARCH) {
-				// Only search within token if it's not too long (performance optimization)
-				// Token doesn't match pattern, but might contain method name as substring
-				// Use find pattern with word boundaries to avoid matching parts of longer words
-				findMatcher.reset(token);
-				while (findMatcher.find()) {
-					String candidate = findMatcher.group(0);
-					if (candidate.length() >= MIN_CANDIDATE_LENGTH) {
-						// Additional validation: ensure candidate matches our method name pattern
-						// Reuse exactMatcher for validation (to avoid false positives)
-						exactMatcher.reset(candidate);
-						if (exactMatcher.matches()) {
-							CandidateScore candidateScore = new CandidateScore(candidate, str);
-							scoreCandidate(candidateScore, token, i, tokens, str);
-							// Only keep candidates with score above minimum threshold (strict filtering)
-							if (candidateScore.getScore() >= MIN_SCORE_TO_KEEP) {
-								candidatesWithScores.add(candidateScore);
-							}
-						}
-					}
-				}
-			}
-		}
-
-		
-		if (candidatesWithScores.isEmpty()) {
-			return;
+			fingerprint.add(mth.getMethodInfo().getFullId());
+			fingerprint.add(mth.getName());
+			visitConstStrings(mth, fingerprint::add, null);
 		}
+		return fingerprint.get();
+	}
 
-		candidatesWithScores.sort(Comparator.comparingInt(CandidateScore::getScore).reversed());
-
-		int maxCandidates = Math.min(MAX_CANDIDATES_PER_METHOD, candidatesWithScores.size());
+	private static int getThreadsCount(RootNode root) {
+		return Math.max(1, root.getArgs().getThreadsCount());
+	}
 
-		if (!candidatesWithScores.isEmpty() && maxCandidates > 1) {
-			int topScore = candidatesWithScores.get(0).getScore();
-			for (int i = maxCandidates - 1; i >= 1; i--) {
-				if (candidatesWithScores.get(i).getScore() < topScore - 5) {
-					maxCandidates = i; // Reduce max candidates
-					break;
-				}
-			}
-		}
+	private void extractStrings(List<ClassNode> classes, int threads, MagicStringsData data) {
+		int totalClasses = classes.size();
+		long startTime = System.currentTimeMillis();
+		int logInterval = Math.max(MIN_LOG_INTERVAL, totalClasses / LOG_INTERVAL_DIVISOR);
+		ExtractionProgress progress = new ExtractionProgress(totalClasses, logInterval, startTime);
+
+		LOG.info("Magic Strings: Starting extraction from {} classes using {} threads", totalClasses, threads);
+		JfrEvents.PhaseEvent extractionEvent = JfrEvents.beginPhase(EXTRACTION_PHASE_LABEL);
+
+		// Each chunk is extracted into its own shard, shards are merged in class order as soon as
+		// all previous chunks are done, so partial results show up while extraction is running
+		// and the result is identical to a single-threaded run
+		int chunksCount = ParallelChunks.chunksCount(totalClasses, threads, MIN_CLASSES_PER_TASK);
+		ShardsPublisher publisher = new ShardsPublisher(data, chunksCount);
+		ParallelChunks.forEach(totalClasses, threads, MIN_CLASSES_PER_TASK, (chunk, from, to) -> {
+			MagicStringsData shard = MagicStringsData.createShard();
+			extractClasses(classes, from, to, shard, progress);
+			publisher.chunkDone(chunk, shard);
+		});
+		JfrEvents.endPhase(extractionEvent, totalClasses);
 
-		// Keep top candidates per method
-		for (int i = 0; i < maxCandidates; i++) {
-			CandidateScore cs = candidatesWithScores.get(i);
-			String candidate = cs.getCandidate();
-			data.getMethodCandidates()
-					.computeIfAbsent(methodRef, k -> new HashSet<>())
-					.add(candidate);
-			data.getMethodRawStrings()
-					.computeIfAbsent(methodRef, k -> new HashSet<>())
-					.add(cs.getSourceString());
-			// Track rarity (how many methods use this candidate)
-			data.getCandidateRarity()
-					.computeIfAbsent(candidate, k -> new HashSet<>())
-					.add(methodRef);
-			// Store score for later filtering
-			data.getCandidateScores()
-					.computeIfAbsent(methodRef, k -> new HashMap<>())
-					.put(candidate, cs.getScore());
-		}
+		long totalTime = System.currentTimeMillis() - startTime;
+		LOG.info("Magic Strings: Extraction complete. Processed {} classes, {} methods in {}ms",
+				progress.processedClasses.get(), progress.processedMethods.get(), totalTime);
 	}
 
-	private List<String> tokenizeString(String str) {
-		List<String> tokens = new ArrayList<>();
-		if (str == null || str.isEmpty()) {
-			return tokens;
-		}
-
-		if (str.contains(",")) {
-			String[] parts = str.split(",");
-			for (String part : parts) {
-				if (part != null) {
-					part = part.trim();
-					// Remove surrounding quotes if present
-					part = removeQuotes(part);
-					if (!part.isEmpty()) {
-						tokens.add(part);
-					}
+	private void extractClasses(List<ClassNode> classes, int from, int to, MagicStringsSink sink,
+			ExtractionProgress progress) {
+		MethodStringsVisitor visitor = new MethodStringsVisitor(sink);
+		for (int i = from; i < to; i++) {
+			ClassNode cls = classes.get(i);
+			long classStartTime = System.nanoTime();
+			JfrEvents.ClassExtractionEvent event = JfrEvents.beginClassExtraction(cls.getFullName());
+			ClassFingerprint fingerprint = new ClassFingerprint(cls.getFullName());
+			visitor.startClass(cls, fingerprint);
+			int methodsCount = 0;
+			int stringsCount = 0;
+			for (MethodNode mth : cls.getMethods()) {
+				if (mth.isNoCode()) {
+					continue;
 				}
+				// No need to load method - code reader works without full decompilation
+				stringsCount += extractStringsFromMethod(mth, visitor);
+				methodsCount++;
+				progress.processedMethods.incrementAndGet();
 			}
+			sink.setClassFingerprint(cls.getFullName(), fingerprint.get());
+			metrics.increment(Counter.CLASSES);
+			metrics.recordClass(cls.getFullName(), System.nanoTime() - classStartTime);
+			JfrEvents.endClassExtraction(event, methodsCount, stringsCount);
+			progress.classDone();
 		}
-
-		// If no commas found or no valid tokens, use the whole string
-		if (tokens.isEmpty()) {
-			String cleaned = removeQuotes(str.trim());
-			if (!cleaned.isEmpty()) {
-				tokens.add(cleaned);
-			}
-		}
-
-		return tokens;
-	}
-
-	private String removeQuotes(String str) {
-		if (str == null || str.length() < 2) {
-			return str;
-		}
-		char first = str.charAt(0);
-		char last = str.charAt(str.length() - 1);
-		if ((first == '"' && last == '"') || (first == '\'' && last == '\'')) {
-			return str.substring(1, str.length() - 1);
-		}
-		return str;
 	}
 
-	private boolean isExcludedToken(String token) {
-		if (token == null || token.isEmpty()) {
-			return true;
-		}
+	/**
+	 * Counts of string occurrences by kind, truncated strings are counted separately
+	 */
+	private final class StringStats {
+		private final LongAdder[] kinds = new LongAdder[StringKind.values().length];
+		private final LongAdder analyzedTruncated = new LongAdder();
+		private final LongAdder storedTruncated = new LongAdder();
 
-		int len = token.length();
-		boolean startsWithUpper = len > 0 && Character.isUpperCase(token.charAt(0));
-
-		// Quick check: if token contains path separators, it's likely a path
-		if (token.indexOf(PATH_SEPARATOR_FORWARD) >= 0 || token.indexOf(PATH_SEPARATOR_BACKWARD) >= 0) {
-			// Exclude package paths
-			if (PACKAGE_PATH_FULL_PATTERN.matcher(token).matches()) {
-				return true;
+		StringStats() {
+			for (int i = 0; i < kinds.length; i++) {
+				kinds[i] = new LongAdder();
 			}
 		}
 
-		// Quick check: if token contains file extension, exclude it
-		if (token.indexOf(PACKAGE_SEPARATOR) >= 0) {
-			// Check for file extensions
-			for (String ext : FILE_EXTENSIONS) {
-				if (token.endsWith(ext)) {
-					if (FILE_EXTENSION_PATTERN.matcher(token).matches()) {
-						return true;
-					}
-					break; // Found extension, no need to check others
+		/**
+		 * Add counts of one method
+		 */
+		void add(int[] kindCounts, int analyzedTruncatedCount, int storedTruncatedCount) {
+			for (int i = 0; i < kindCounts.length; i++) {
+				if (kindCounts[i] != 0) {
+					kinds[i].add(kindCounts[i]);
 				}
 			}
-		}
-
-		// Quick check: if token starts with uppercase, might be PascalCase
-		if (startsWithUpper) {
-			// Exclude PascalCase (class names)
-			if (CLASS_NAME_PATTERN.matcher(token).matches()) {
-				return true;
+			if (analyzedTruncatedCount != 0) {
+				analyzedTruncated.add(analyzedTruncatedCount);
+			}
+			if (storedTruncatedCount != 0) {
+				storedTruncated.add(storedTruncatedCount);
 			}
 		}
 
-		// Exclude log literals (contains spaces, punctuation, format specifiers)
-		// Check for common log literal indicators first (performance optimization)
-		if (token.indexOf(' ') >= 0 || token.indexOf('%') >= 0 
-				|| token.indexOf('{') >= 0 || token.indexOf('}') >= 0) {
-			if (LOG_LITERAL_PATTERN.matcher(token).matches()) {
-				return true;
+		void log() {
+			StringBuilder sb = new StringBuilder();
+			for (StringKind kind : StringKind.values()) {
+				if (sb.length() != 0) {
+					sb.append(", ");
+				}
+				sb.append(kind.name().toLowerCase(Locale.ROOT)).append('=').append(kinds[kind.ordinal()].sum());
 			}
+			LOG.info("Magic Strings: String kinds: {} (analysed prefix only: {}, truncated in results: {})",
+					sb, analyzedTruncated.sum(), storedTruncated.sum());
 		}
-
-		return false;
 	}
 
-	private void scoreCandidate(CandidateScore cs, String token, int tokenIndex, List<String> tokens, String fullString) {
-		String candidate = cs.getCandidate();
-		if (candidate == null || candidate.isEmpty()) {
-			return;
-		}
-
-		// Check against blacklist first - heavy penalty
-		String candidateLower = candidate.toLowerCase();
-		if (NOT_METHOD_NAMES.contains(candidateLower)) {
-			cs.addScore(PENALTY_BLACKLIST);
-			return;
-		}
-
-		// Validate Java identifier
-		if (NameMapper.isValidIdentifier(candidate)) {
-			cs.addScore(SCORE_VALID_IDENTIFIER);
-		} else {
-			cs.addScore(PENALTY_INVALID_IDENTIFIER);
-			return;
-		}
-
-		// All uppercase is likely a constant
-		if (isAllUpperCase(candidate)) {
-			cs.addScore(PENALTY_ALL_UPPERCASE);
-			return;
-		}
-
-		// High score: Standalone candidate (entire token is the candidate)
-		if (isStandaloneCandidate(candidate, token)) {
-			cs.addScore(SCORE_STANDALONE);
-		}
-
-		// High score: Position-based scoring (token index 1 in comma-separated log statements)
-		scoreByPosition(cs, tokenIndex, tokens);
-
-		// High score: Appears in log statement context
-		if (isInLogContext(candidate, fullString, tokenIndex, tokens)) {
-			cs.addScore(SCORE_LOG_CONTEXT);
-		}
-
-		// Medium score: Well-formed camelCase with multiple words
-		int upperCaseCount = countUpperCaseLetters(candidate);
-		int candidateLength = candidate.length();
-		if (upperCaseCount >= MIN_UPPERCASE_FOR_BONUS && candidateLength > MIN_CAMELCASE_LENGTH_LONG) {
-			cs.addScore(SCORE_CAMELCASE_LONG);
-		} else if (upperCaseCount >= 1 && candidateLength > MIN_CAMELCASE_LENGTH_SHORT) {
-			cs.addScore(SCORE_CAMELCASE_SHORT);
-		}
-
-		// Penalty: Part of package path (more aggressive)
-		boolean containsPath = token.indexOf(PATH_SEPARATOR_FORWARD) >= 0 
-				|| token.indexOf(PATH_SEPARATOR_BACKWARD) >= 0
-				|| token.indexOf(PACKAGE_SEPARATOR) >= 0;
-		if (containsPath) {
-			if (isInPackagePath(candidate, token)) {
-				cs.addScore(PENALTY_PACKAGE_PATH);
-			}
-			// Also check if candidate appears in full string as part of path
-			if (isInPackagePath(candidate, fullString)) {
-				cs.addScore(PENALTY_PACKAGE_PATH_FULL);
+	/**
+	 * Merges chunk shards into the data in chunk order. The worker finishing the next chunk to merge
+	 * also merges the following chunks already done, other workers go on with extraction meanwhile.
+	 */
+	private final class ShardsPublisher {
+		private final MagicStringsData data;
+		private final AtomicReferenceArray<MagicStringsData> shards;
+		private final ReentrantLock mergeLock = new ReentrantLock();
+		// First chunk not merged yet, written under mergeLock
+		private volatile int nextChunk;
+
+		ShardsPublisher(MagicStringsData data, int chunksCount) {
+			this.data = data;
+			this.shards = new AtomicReferenceArray<>(chunksCount);
+		}
+
+		void chunkDone(int chunk, MagicStringsData shard) {
+			shards.set(chunk, shard);
+			// The lock holder checks for ready chunks again after unlocking, so a failed tryLock can return
+			while (isNextReady() && mergeLock.tryLock()) {
+				try {
+					while (isNextReady()) {
+						merge(shards.getAndSet(nextChunk, null));
+						nextChunk++;
+					}
+				} finally {
+					mergeLock.unlock();
+				}
 			}
 		}
 
-		// Penalty: Partial word (substring of longer word or class name)
-		if (isPartialWord(candidate, token)) {
-			cs.addScore(PENALTY_PARTIAL_WORD);
-		}
-		// Check if candidate is substring of class name in tokens
-		if (isPartialOfClassName(candidate, tokens)) {
-			cs.addScore(PENALTY_PARTIAL_WORD);
+		private boolean isNextReady() {
+			int next = nextChunk;
+			return next < shards.length() && shards.get(next) != null;
 		}
 
-		// Penalty: Single word, short
-		if (upperCaseCount == 0 && candidateLength < MIN_CAMELCASE_LENGTH_SHORT) {
-			cs.addScore(PENALTY_SHORT_SINGLE_WORD);
-		}
-
-		// Penalty: Class name in path context
-		boolean containsFileExtension = hasFileExtension(token);
-		if (CLASS_NAME_PATTERN.matcher(candidate).matches()) {
-			if (containsPath || containsFileExtension) {
-				cs.addScore(PENALTY_CLASS_NAME_IN_PATH);
-			}
-		}
-
-		// Penalty: Near file extension
-		if (containsFileExtension && isNearFileExtension(candidate, token)) {
-			cs.addScore(PENALTY_NEAR_FILE_EXTENSION);
+		private void merge(MagicStringsData shard) {
+			long mergeStartTime = System.nanoTime();
+			JfrEvents.PhaseEvent mergeEvent = JfrEvents.beginPhase(Phase.MERGE.getLabel());
+			data.mergeFrom(shard);
+			metrics.addPhaseTime(Phase.MERGE, System.nanoTime() - mergeStartTime);
+			JfrEvents.endPhase(mergeEvent, 1);
 		}
 	}
 
-	private boolean isAllUpperCase(String str) {
-		if (str == null || str.isEmpty()) {
-			return false;
-		}
-		// Quick check: if any lowercase letter exists, it's not all uppercase
-		for (int i = 0; i < str.length(); i++) {
-			char c = str.charAt(i);
-			if (Character.isLetter(c) && Character.isLowerCase(c)) {
-				return false;
-			}
-		}
-		return true;
-	}
+	private static final class ExtractionProgress {
+		private final int totalClasses;
+		private final int logInterval;
+		private final long startTime;
+		private final AtomicInteger processedClasses = new AtomicInteger();
+		private final AtomicInteger processedMethods = new AtomicInteger();
 
-	private boolean hasFileExtension(String token) {
-		if (token == null) {
-			return false;
+		ExtractionProgress(int totalClasses, int logInterval, long startTime) {
+			this.totalClasses = totalClasses;
+			this.logInterval = logInterval;
+			this.startTime = startTime;
 		}
-		for (String ext : SOURCE_EXTENSIONS) {
-			if (token.contains(ext)) {
-				return true;
+
+		void classDone() {
+			int processed = processedClasses.incrementAndGet();
+			if (processed % logInterval == 0) {
+				long elapsed = System.currentTimeMillis() - startTime;
+				LOG.info("Magic Strings: Processed {}/{} classes ({} methods), {}ms elapsed",
+						processed, totalClasses, processedMethods.get(), elapsed);
 			}
 		}
-		return false;
 	}
 
-	private boolean isStandaloneCandidate(String candidate, String segment) {
-		String trimmed = segment.trim();
-		// Check if candidate equals the segment (allowing for minor whitespace)
-		return trimmed.equals(candidate) || trimmed.equals("\"" + candidate + "\"");
+	/**
+	 * @return number of strings seen in the method
+	 */
+	private int extractStringsFromMethod(MethodNode mth, MethodStringsVisitor visitor) {
+		visitor.startMethod(mth);
+		long startTime = System.nanoTime();
+		visitConstStrings(mth, visitor, metrics);
+		long methodTime = System.nanoTime() - startTime;
+		visitor.endMethod(methodTime);
+		metrics.recordMethod(methodTime);
+		return visitor.stringsCount;
 	}
 
-	private void scoreByPosition(CandidateScore cs, int tokenIndex, List<String> tokens) {
-		// High score for position 1 (second token) - typical method name position in log statements
-		if (tokenIndex == 1 && tokens.size() >= 3) {
-			// Check if previous token looks like logger name and next token looks like log message
-			String prevToken = tokens.get(0);
-			String nextToken = tokens.size() > 2 ? tokens.get(2) : "";
-			if (prevToken != null && nextToken != null) {
-				prevToken = prevToken.trim();
-				nextToken = nextToken.trim();
-				// Logger names are often PascalCase or simple words
-				boolean prevIsLogger = CLASS_NAME_PATTERN.matcher(prevToken).matches() || prevToken.length() < 20;
-				// Log messages often contain spaces or punctuation
-				boolean nextIsMessage = LOG_LITERAL_PATTERN.matcher(nextToken).matches() || nextToken.length() > 20;
-				if (prevIsLogger && nextIsMessage) {
-					cs.addScore(SCORE_POSITION_LOG_STATEMENT);
+	/**
+	 * Analyses and stores const strings of one method at a time, reused for all methods of a class chunk.
+	 * Counters are summed per method and added to metrics when the method is done,
+	 * single strings are timed only with detailed timing.
+	 */
+	private final class MethodStringsVisitor implements Consumer<String> {
+		private final MagicStringsSink sink;
+		private final boolean detailedTiming;
+		private final Function<String, StringAnalysis> analyzeMiss = this::analyzeMiss;
+		private final int[] kinds = new int[StringKind.values().length];
+
+		private String className;
+		private ClassFingerprint fingerprint;
+		private String methodRef;
+		private String methodName;
+
+		// Counts of the current method
+		private int stringsCount;
+		private int shortCount;
+		private int analyzedCount;
+		private int blobCount;
+		private int candidatesCount;
+		private int sourceFileRefsCount;
+		private int analyzedTruncatedCount;
+		private int storedTruncatedCount;
+		// Time spent on strings and on storing them, the rest of the method time is instruction visiting
+		private long stringsNanos;
+		private long storeNanos;
+
+		MethodStringsVisitor(MagicStringsSink sink) {
+			this.sink = sink;
+			this.detailedTiming = metrics.isDetailedTiming();
+		}
+
+		void startClass(ClassNode cls, ClassFingerprint classFingerprint) {
+			this.className = cls.getFullName();
+			this.fingerprint = classFingerprint;
+		}
+
+		void startMethod(MethodNode mth) {
+			methodRef = mth.getMethodInfo().getFullId();
+			methodName = mth.getName();
+			fingerprint.add(methodRef);
+			fingerprint.add(methodName);
+			Arrays.fill(kinds, 0);
+			stringsCount = 0;
+			shortCount = 0;
+			analyzedCount = 0;
+			blobCount = 0;
+			candidatesCount = 0;
+			sourceFileRefsCount = 0;
+			analyzedTruncatedCount = 0;
+			storedTruncatedCount = 0;
+			stringsNanos = 0;
+			storeNanos = 0;
+		}
+
+		@Override
+		public void accept(String str) {
+			long startTime = detailedTiming ? System.nanoTime() : 0;
+			stringsCount++;
+			fingerprint.add(str);
+			if (str.length() < StringAnalyzer.MIN_STRING_LENGTH) {
+				shortCount++;
+				if (detailedTiming) {
+					stringsNanos += System.nanoTime() - startTime;
 				}
+				return;
 			}
-		}
-	}
-
-	private boolean isInLogContext(String candidate, String fullString, int tokenIndex, List<String> tokens) {
-		Pattern logPattern1 = Pattern.compile(
-				"[a-z][a-z0-9_/]*[/\\\\][A-Z][a-zA-Z0-9_]*\\s*[,\"']\\s*" + Pattern.quote(candidate)
-						+ "\\s*[,\"']\\s*\\d+\\s*[,\"']\\s*[^,\"']+\\.java",
-				Pattern.CASE_INSENSITIVE);
-		if (logPattern1.matcher(fullString).find()) {
-			return true;
-		}
-
-		// Pattern 2: candidate appears between package path and file extension with line number
-		// Matches: ... "candidate", number, "...java"
-		Pattern logPattern2 = Pattern.compile(
-				"[,\"']\\s*" + Pattern.quote(candidate) + "\\s*[,\"']\\s*\\d+\\s*[,\"']\\s*[^,\"']+\\.java",
-				Pattern.CASE_INSENSITIVE);
-		if (logPattern2.matcher(fullString).find()) {
-			return true;
-		}
-
-		// Pattern 3: logger, candidate, message pattern (comma-separated)
-		if (tokenIndex == 1 && tokens.size() >= 3) {
-			String prevToken = tokens.get(0).trim();
-			String nextToken = tokens.size() > 2 ? tokens.get(2).trim() : "";
-			if (CLASS_NAME_PATTERN.matcher(prevToken).matches() && LOG_LITERAL_PATTERN.matcher(nextToken).matches()) {
-				return true;
+			StringAnalysis analysis = analysisCache.get(str, analyzeMiss);
+			long storeStartTime = detailedTiming ? System.nanoTime() : 0;
+			String stored = truncateForStorage(str);
+			sink.addString(stored, methodRef, className);
+			countKind(analysis.getKind(), str, stored);
+			String sourceFile = analysis.getSourceFile();
+			if (sourceFile != null) {
+				sink.addSourceFileRef(sourceFile, methodRef, methodName, stored);
+				sourceFileRefsCount++;
+			}
+			for (int i = 0; i < analysis.getCandidatesCount(); i++) {
+				sink.addCandidate(methodRef, analysis.getCandidate(i), analysis.getScore(i), stored);
+			}
+			candidatesCount += analysis.getCandidatesCount();
+			if (detailedTiming) {
+				long endTime = System.nanoTime();
+				storeNanos += endTime - storeStartTime;
+				stringsNanos += endTime - startTime;
+			}
+		}
+
+		/**
+		 * Analyse a string missing in the analysis cache
+		 */
+		private StringAnalysis analyzeMiss(String str) {
+			StringAnalysis analysis = analyzer.analyze(str);
+			if (analysis.getKind().isBlob()) {
+				blobCount++;
+			} else {
+				analyzedCount++;
 			}
+			return analysis;
 		}
 
-		// Pattern 4: package/Class, candidate (method name in log call)
-		Pattern logPattern4 = Pattern.compile(
-				"[a-z][a-z0-9_/]*[/\\\\][A-Z][a-zA-Z0-9_]*\\s*[,\"']\\s*" + Pattern.quote(candidate),
-				Pattern.CASE_INSENSITIVE);
-		return logPattern4.matcher(fullString).find();
-	}
-
-	private boolean isInPackagePath(String candidate, String segment) {
-		if (segment == null || candidate == null || candidate.isEmpty()) {
-			return false;
+		private void countKind(StringKind kind, String str, String stored) {
+			kinds[kind.ordinal()]++;
+			int maxAnalyzeLength = options.getMaxAnalyzeLength();
+			if (!kind.isBlob() && maxAnalyzeLength > 0 && str.length() > maxAnalyzeLength) {
+				analyzedTruncatedCount++;
+			}
+			if (stored != str) {
+				storedTruncatedCount++;
+			}
 		}
 
-		int index = 0;
-		int candidateLen = candidate.length();
-		int segmentLen = segment.length();
-
-		while ((index = segment.indexOf(candidate, index)) != -1) {
-			boolean isPathSegment = false;
-
-			// Check if it's between path separators
-			if (index > 0) {
-				char before = segment.charAt(index - 1);
-				if (isPathSeparator(before)) {
-					int afterIndex = index + candidateLen;
-					if (afterIndex < segmentLen) {
-						char after = segment.charAt(afterIndex);
-						if (isPathSeparator(after)) {
-							isPathSegment = true;
-						}
-					} else {
-						isPathSegment = true;
-					}
-				}
-			} else {
-				int afterIndex = index + candidateLen;
-				if (afterIndex < segmentLen) {
-					char after = segment.charAt(afterIndex);
-					if (isPathSeparator(after)) {
-						isPathSegment = true;
-					}
-				}
+		void endMethod(long methodNanos) {
+			metrics.increment(Counter.METHODS);
+			if (detailedTiming) {
+				metrics.addPhaseTime(Phase.VISIT_INSTRUCTIONS, methodNanos - stringsNanos);
 			}
-
-			// Also check if it's part of a package-like structure (com/app/android/...)
-			if (!isPathSegment && index > 0) {
-				int checkStart = Math.max(0, index - 20); // Check up to 20 chars back
-				String beforeCandidate = segment.substring(checkStart, index);
-				if (beforeCandidate.indexOf(PATH_SEPARATOR_FORWARD) >= 0 
-						|| beforeCandidate.indexOf(PATH_SEPARATOR_BACKWARD) >= 0) {
-					int afterIndex = index + candidateLen;
-					if (afterIndex < segmentLen) {
-						char after = segment.charAt(afterIndex);
-						if (isPathSeparator(after)) {
-							isPathSegment = true;
-						}
-					}
-				}
+			if (stringsCount == 0) {
+				return;
 			}
-
-			if (isPathSegment) {
-				return true;
+			addCount(Counter.STRINGS_SEEN, stringsCount);
+			addCount(Counter.STRINGS_SHORT, shortCount);
+			addCount(Counter.STRINGS_ANALYZED, analyzedCount);
+			addCount(Counter.STRINGS_BLOB, blobCount);
+			addCount(Counter.CANDIDATES, candidatesCount);
+			addCount(Counter.SOURCE_FILE_REFS, sourceFileRefsCount);
+			stringStats.add(kinds, analyzedTruncatedCount, storedTruncatedCount);
+			if (detailedTiming) {
+				metrics.addPhaseTime(Phase.STORE, storeNanos);
 			}
-
-			index++;
 		}
-		return false;
-	}
-
-
-	private boolean isPathSeparator(char c) {
-		return c == PATH_SEPARATOR_FORWARD || c == PATH_SEPARATOR_BACKWARD || c == PACKAGE_SEPARATOR;
-	}
 
-
-	private boolean isNearFileExtension(String candidate, String segment) {
-		if (segment == null || candidate == null) {
-			return false;
-		}
-		int candidateIndex = segment.indexOf(candidate);
-		if (candidateIndex < 0) {
-			return false;
-		}
-
-		// Check proximity to any source file extension
-		for (String ext : SOURCE_EXTENSIONS) {
-			int extIndex = segment.indexOf(ext);
-			if (extIndex > 0 && candidateIndex < extIndex 
-					&& candidateIndex > extIndex - FILE_EXTENSION_PROXIMITY) {
-				return true;
+		private void addCount(Counter counter, int count) {
+			if (count != 0) {
+				metrics.add(counter, count);
 			}
 		}
-		return false;
 	}
 
-	private boolean isPartialWord(String candidate, String fullString) {
-		if (fullString == null || candidate == null || candidate.isEmpty()) {
-			return false;
+	/**
+	 * Cut strings over the configured limit, so huge constants are not kept in results in full
+	 */
+	private String truncateForStorage(String str) {
+		int maxLength = options.getMaxStoredLength();
+		if (maxLength <= 0 || str.length() <= maxLength) {
+			return str;
 		}
-
-		int index = 0;
-		int candidateLen = candidate.length();
-		int fullStringLen = fullString.length();
-
-		while ((index = fullString.indexOf(candidate, index)) != -1) {
-			// Check if it's part of a longer word
-			if (index > 0) {
-				char before = fullString.charAt(index - 1);
-				if (Character.isLetterOrDigit(before)) {
-					return true;
-				}
-			}
-			int afterIndex = index + candidateLen;
-			if (afterIndex < fullStringLen) {
-				char after = fullString.charAt(afterIndex);
-				if (Character.isLetterOrDigit(after)) {
-					return true;
-				}
-			}
-			index++;
+		int end = maxLength;
+		if (Character.isHighSurrogate(str.charAt(end - 1))) {
+			end--;
 		}
-		return false;
+		return str.substring(0, end) + TRUNCATED_MARK;
 	}
 
-	
-	private boolean isPartialOfClassName(String candidate, List<String> tokens) {
-		if (candidate == null || candidate.isEmpty() || tokens == null) {
-			return false;
-		}
-
-		for (String token : tokens) {
-			if (token == null || token.isEmpty()) {
-				continue;
-			}
-			if (!Character.isUpperCase(token.charAt(0))) {
-				continue;
+	/**
+	 * Visit const strings of the method, errors are counted in metrics (if not null) and the method is skipped
+	 */
+	private static void visitConstStrings(MethodNode mth, Consumer<String> visitor, PassMetrics metrics) {
+		try {
+			ICodeReader codeReader = mth.getCodeReader();
+			if (codeReader != null) {
+				codeReader.visitInstructions(insn -> {
+					if (insn.getOpcode() == Opcode.CONST_STRING) {
+						insn.decode();
+						String str = insn.getIndexAsString();
+						if (str != null) {
+							visitor.accept(str);
+						}
+					}
+				});
 			}
-			if (CLASS_NAME_PATTERN.matcher(token).matches()) {
-				if (token.contains(candidate) && !token.equals(candidate)) {
-					return true;
-				}
+		} catch (Exception e) {
+			// Skip methods that cause issues
+			// Don't fail the entire pass
+			if (metrics != null) {
+				metrics.recordFailedMethod(mth.getMethodInfo().getFullId(), e);
 			}
 		}
-		return false;
 	}
 
-
-	private int countUpperCaseLetters(String str) {
-		if (str == null || str.isEmpty()) {
-			return 0;
-		}
-		int count = 0;
-		for (int i = 0; i < str.length(); i++) {
-			if (Character.isUpperCase(str.charAt(i))) {
-				count++;
-			}
-		}
-		return count;
+	private void logCacheStats(StringAnalysisCache cache) {
+		long hits = cache.getHits();
+		long total = hits + cache.getMisses();
+		LOG.info("Magic Strings: Analysis cache {} hits, {} misses ({}% hit rate), {} cached strings",
+				hits, cache.getMisses(), total == 0 ? 0 : hits * 100 / total, cache.size());
 	}
 }
@@ -0,0 +1,248 @@
+/**
+ * Hand-written scanner for method names in log-like string layouts.
+ *
+ * Replaces per-candidate regex compilation in isInLogContext. The string is parsed once
+ * (lazily, on the first candidate check) into the positions where a method name may appear:
+ * - name slots after a "package/Class" token and a separator: {@code com/app/Foo, name...}
+ * - quoted names followed by a line number and a ".java" file: {@code "name", 12, "Foo.java"}
+ * After that every candidate is checked with plain region comparisons and no allocation.
+ * Candidates are regions of the same string and one scanner is reused for many strings (see reset).
+ *
+ * Matching is ASCII case-insensitive, same as the regex patterns it replaces:
+ * - {@code [a-z][a-z0-9_/]*[/\\][A-Z][a-zA-Z0-9_]*\s*[,"']\s*NAME}
+ * - {@code [,"']\s*NAME\s*[,"']\s*\d+\s*[,"']\s*[^,"']+\.java}
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.pass;
+
+final class LogContextScanner {
+	private static final int[] NONE = new int[0];
+
+	private String str = "";
+	private boolean scanned;
+
+	// Start positions of names placed after a "package/Class" token
+	private int[] classNameStarts = NONE;
+	private int classNameCount;
+
+	// [start, end) pairs of names followed by a line number and a ".java" file
+	private int[] lineRefSlots = NONE;
+	private int lineRefCount;
+
+	/**
+	 * Switch to a new string, found slots are kept until the first candidate check
+	 */
+	void reset(String str) {
+		this.str = str;
+		this.scanned = false;
+		this.classNameCount = 0;
+		this.lineRefCount = 0;
+	}
+
+	/**
+	 * Check the candidate at [candStart, candEnd) of the current string
+	 */
+	boolean matchesCandidate(int candStart, int candEnd) {
+		if (!scanned) {
+			scan();
+			scanned = true;
+		}
+		int len = candEnd - candStart;
+		for (int i = 0; i < lineRefCount; i++) {
+			int start = lineRefSlots[i * 2];
+			int end = lineRefSlots[i * 2 + 1];
+			if (end - start == len && regionMatchesAscii(start, candStart, len)) {
+				return true;
+			}
+		}
+		for (int i = 0; i < classNameCount; i++) {
+			int start = classNameStarts[i];
+			if (start + len <= str.length() && regionMatchesAscii(start, candStart, len)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void scan() {
+		int len = str.length();
+		for (int sep = 0; sep < len; sep++) {
+			if (!isSeparator(str.charAt(sep))) {
+				continue;
+			}
+			int nameStart = skipWhitespace(sep + 1);
+			if (nameStart >= len) {
+				break;
+			}
+			if (hasClassTokenBefore(sep)) {
+				addClassNameStart(nameStart);
+			}
+			int nameEnd = lineRefNameEnd(nameStart);
+			if (nameEnd > nameStart) {
+				addLineRefSlot(nameStart, nameEnd);
+			}
+		}
+	}
+
+	/**
+	 * Check for {@code [a-z][a-z0-9_/]*[/\\][A-Z][a-zA-Z0-9_]*\s*} right before the separator
+	 */
+	private boolean hasClassTokenBefore(int sep) {
+		int end = sep - 1;
+		while (end >= 0 && isWhitespace(str.charAt(end))) {
+			end--;
+		}
+		if (end < 0 || !isWordChar(str.charAt(end))) {
+			return false;
+		}
+		int start = end;
+		while (start > 0 && isWordChar(str.charAt(start - 1))) {
+			start--;
+		}
+		if (!isAsciiLetter(str.charAt(start)) || start < 2) {
+			return false;
+		}
+		char slash = str.charAt(start - 1);
+		if (slash != '/' && slash != '\\') {
+			return false;
+		}
+		// package part must contain a letter somewhere in its path characters run
+		for (int i = start - 2; i >= 0; i--) {
+			char c = str.charAt(i);
+			if (isAsciiLetter(c)) {
+				return true;
+			}
+			if (!isWordChar(c) && c != '/') {
+				return false;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Parse {@code NAME\s*[,"']\s*\d+\s*[,"']\s*[^,"']+\.java} starting at name start.
+	 *
+	 * @return end of the name (whitespace trimmed) or -1 if layout doesn't match
+	 */
+	private int lineRefNameEnd(int nameStart) {
+		int len = str.length();
+		int sep = nameStart;
+		while (sep < len && !isSeparator(str.charAt(sep))) {
+			sep++;
+		}
+		if (sep >= len) {
+			return -1;
+		}
+		int nameEnd = sep;
+		while (nameEnd > nameStart && isWhitespace(str.charAt(nameEnd - 1))) {
+			nameEnd--;
+		}
+		if (nameEnd == nameStart) {
+			return -1;
+		}
+		int pos = skipWhitespace(sep + 1);
+		int digitsStart = pos;
+		while (pos < len && isDigit(str.charAt(pos))) {
+			pos++;
+		}
+		if (pos == digitsStart) {
+			return -1;
+		}
+		pos = skipWhitespace(pos);
+		if (pos >= len || !isSeparator(str.charAt(pos))) {
+			return -1;
+		}
+		// file name: at least one non-separator char, then ".java" before the next separator
+		int fileStart = pos + 1;
+		int fileEnd = fileStart;
+		while (fileEnd < len && !isSeparator(str.charAt(fileEnd))) {
+			fileEnd++;
+		}
+		for (int i = fileStart + 1; i + 5 <= fileEnd; i++) {
+			if (str.charAt(i) == '.' && regionMatchesAscii(i + 1, "java")) {
+				return nameEnd;
+			}
+		}
+		return -1;
+	}
+
+	private boolean regionMatchesAscii(int offset, int otherOffset, int len) {
+		for (int i = 0; i < len; i++) {
+			char a = str.charAt(offset + i);
+			char b = str.charAt(otherOffset + i);
+			if (a != b && toLowerAscii(a) != toLowerAscii(b)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean regionMatchesAscii(int offset, String expected) {
+		int len = expected.length();
+		for (int i = 0; i < len; i++) {
+			char a = str.charAt(offset + i);
+			char b = expected.charAt(i);
+			if (a != b && toLowerAscii(a) != toLowerAscii(b)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int skipWhitespace(int pos) {
+		int len = str.length();
+		while (pos < len && isWhitespace(str.charAt(pos))) {
+			pos++;
+		}
+		return pos;
+	}
+
+	private void addClassNameStart(int start) {
+		if (classNameCount == classNameStarts.length) {
+			classNameStarts = grow(classNameStarts, 4);
+		}
+		classNameStarts[classNameCount++] = start;
+	}
+
+	private void addLineRefSlot(int start, int end) {
+		if (lineRefCount * 2 == lineRefSlots.length) {
+			lineRefSlots = grow(lineRefSlots, 4);
+		}
+		lineRefSlots[lineRefCount * 2] = start;
+		lineRefSlots[lineRefCount * 2 + 1] = end;
+		lineRefCount++;
+	}
+
+	private static int[] grow(int[] arr, int minSize) {
+		int[] grown = new int[Math.max(minSize, arr.length * 2)];
+		System.arraycopy(arr, 0, grown, 0, arr.length);
+		return grown;
+	}
+
+	private static boolean isSeparator(char c) {
+		return c == ',' || c == '"' || c == '\'';
+	}
+
+	// Same set as regex \s
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean isAsciiLetter(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+	}
+
+	private static boolean isWordChar(char c) {
+		return isAsciiLetter(c) || isDigit(c) || c == '_';
+	}
+
+	private static char toLowerAscii(char c) {
+		return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+	}
+}
@@ -0,0 +1,120 @@
+/**
+ * Linear-time detector for source file paths in string constants.
+ *
+ * Replaces {@code ([a-z_/\\][a-z0-9_/\\:\-\.@]+\.(java|kt|kts|scala|groovy))($|:| )}
+ * (ASCII case-insensitive), which backtracks quadratically on long path-like strings
+ * without a match. Returns exactly what {@code Matcher.find()} + {@code group(1)} returns:
+ * <ul>
+ * <li>a path lies inside one run of path chars, so runs are scanned left to right and
+ * the first run with a match wins (leftmost match start)</li>
+ * <li>the path starts at the first start char of the run (any later start has fewer ends)</li>
+ * <li>the path ends at the last extension anchor of the run ('.', extension, terminator),
+ * same as the greedy body of the regex</li>
+ * </ul>
+ * Every char is visited once plus a constant-length check per '.', so the cost is O(n).
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.pass;
+
+final class SourcePathDetector {
+	// In regex alternation order, "kt" must be tried before "kts"
+	private static final String[] EXTENSIONS = { "java", "kt", "kts", "scala", "groovy" };
+
+	private SourcePathDetector() {
+	}
+
+	/**
+	 * First source file path in the string or null
+	 */
+	static String find(String str) {
+		int len = str.length();
+		int i = 0;
+		while (i < len) {
+			if (!isPathChar(str.charAt(i))) {
+				i++;
+				continue;
+			}
+			int start = -1;
+			int end = -1;
+			while (i < len) {
+				char c = str.charAt(i);
+				if (!isPathChar(c)) {
+					break;
+				}
+				if (start == -1) {
+					if (isStartChar(c)) {
+						start = i;
+					}
+				} else if (c == '.' && i >= start + 2) {
+					// At least one path char between start and '.'
+					int extEnd = extensionEnd(str, i + 1);
+					if (extEnd != -1) {
+						end = extEnd;
+					}
+				}
+				i++;
+			}
+			if (end != -1) {
+				return str.substring(start, end);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * End of a source extension starting at {@code pos} and followed by a terminator, or -1
+	 */
+	private static int extensionEnd(String str, int pos) {
+		for (String ext : EXTENSIONS) {
+			int end = pos + ext.length();
+			if (end <= str.length() && extensionMatches(str, pos, ext) && isTerminator(str, end)) {
+				return end;
+			}
+		}
+		return -1;
+	}
+
+	private static boolean extensionMatches(String str, int pos, String ext) {
+		for (int i = 0; i < ext.length(); i++) {
+			char c = str.charAt(pos + i);
+			// ASCII-only case folding: (c | 0x20) maps only 'A'-'Z' onto 'a'-'z'
+			if (c >= 0x80 || (c | 0x20) != ext.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Regex {@code ($|:| )}: '$' without MULTILINE also matches before a line terminator ending the input
+	 */
+	private static boolean isTerminator(String str, int pos) {
+		int len = str.length();
+		if (pos == len) {
+			return true;
+		}
+		char c = str.charAt(pos);
+		if (c == ':' || c == ' ') {
+			return true;
+		}
+		if (pos == len - 1) {
+			return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+		}
+		return pos == len - 2 && c == '\r' && str.charAt(pos + 1) == '\n';
+	}
+
+	private static boolean isStartChar(char c) {
+		return isAsciiLetter(c) || c == '_' || c == '/' || c == '\\';
+	}
+
+	private static boolean isPathChar(char c) {
+		return isAsciiLetter(c) || (c >= '0' && c <= '9')
+				|| c == '_' || c == '/' || c == '\\' || c == ':' || c == '-' || c == '.' || c == '@';
+	}
+
+	private static boolean isAsciiLetter(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+	}
+}
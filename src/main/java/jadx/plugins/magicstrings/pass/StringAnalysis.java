@@ -0,0 +1,70 @@
+/**
+ * Result of analysing a single string constant.
+ *
+ * Depends only on the string value, so it can be computed once and reused
+ * for every method that contains the same constant.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.pass;
+
+final class StringAnalysis {
+	static final StringAnalysis EMPTY = new StringAnalysis(StringKind.TEXT, null, new String[0], new int[0]);
+
+	private static final StringAnalysis[] BLOBS = new StringAnalysis[StringKind.values().length];
+
+	static {
+		for (StringKind kind : StringKind.values()) {
+			BLOBS[kind.ordinal()] = new StringAnalysis(kind, null, EMPTY.candidates, EMPTY.scores);
+		}
+	}
+
+	private final StringKind kind;
+	// Source file path found in the string or null
+	private final String sourceFile;
+	// Top method name candidates, ordered by score (descending)
+	private final String[] candidates;
+	private final int[] scores;
+
+	StringAnalysis(StringKind kind, String sourceFile, String[] candidates, int[] scores) {
+		this.kind = kind;
+		this.sourceFile = sourceFile;
+		this.candidates = candidates;
+		this.scores = scores;
+	}
+
+	static StringAnalysis of(String sourceFile, String[] candidates, int[] scores) {
+		if (sourceFile == null && candidates.length == 0) {
+			return EMPTY;
+		}
+		return new StringAnalysis(StringKind.TEXT, sourceFile, candidates, scores);
+	}
+
+	/**
+	 * Shared result for a string skipped as a blob
+	 */
+	static StringAnalysis blob(StringKind kind) {
+		return BLOBS[kind.ordinal()];
+	}
+
+	StringKind getKind() {
+		return kind;
+	}
+
+	String getSourceFile() {
+		return sourceFile;
+	}
+
+	int getCandidatesCount() {
+		return candidates.length;
+	}
+
+	String getCandidate(int index) {
+		return candidates[index];
+	}
+
+	int getScore(int index) {
+		return scores[index];
+	}
+}
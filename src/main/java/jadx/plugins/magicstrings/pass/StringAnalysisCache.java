@@ -0,0 +1,74 @@
+/**
+ * Bounded cache of string analysis results keyed by string value.
+ *
+ * The same constants (logger tags, format strings, copied "Class, method, msg" triples)
+ * appear in thousands of methods, so each unique value is analysed only once.
+ *
+ * The cache keeps two generations: new entries go to the current one and when it is full
+ * it becomes the previous generation (dropping the older one). Entries found in the previous
+ * generation are promoted back, so frequently used strings survive rotation.
+ * This gives LRU-like behaviour with plain concurrent maps and no per-access bookkeeping.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.pass;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+final class StringAnalysisCache {
+	static final int DEFAULT_CAPACITY = 1 << 16;
+
+	private final int generationCapacity;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private volatile Map<String, StringAnalysis> current = new ConcurrentHashMap<>();
+	private volatile Map<String, StringAnalysis> previous = new ConcurrentHashMap<>();
+
+	StringAnalysisCache(int capacity) {
+		this.generationCapacity = Math.max(1, capacity / 2);
+	}
+
+	StringAnalysis get(String str, Function<String, StringAnalysis> analyzer) {
+		Map<String, StringAnalysis> cur = current;
+		StringAnalysis result = cur.get(str);
+		if (result != null) {
+			hits.increment();
+			return result;
+		}
+		result = previous.get(str);
+		if (result != null) {
+			hits.increment();
+		} else {
+			misses.increment();
+			result = analyzer.apply(str);
+		}
+		cur.put(str, result);
+		if (cur.size() > generationCapacity) {
+			rotate(cur);
+		}
+		return result;
+	}
+
+	private synchronized void rotate(Map<String, StringAnalysis> full) {
+		if (current == full) {
+			previous = full;
+			current = new ConcurrentHashMap<>();
+		}
+	}
+
+	long getHits() {
+		return hits.sum();
+	}
+
+	long getMisses() {
+		return misses.sum();
+	}
+
+	int size() {
+		return current.size() + previous.size();
+	}
+}
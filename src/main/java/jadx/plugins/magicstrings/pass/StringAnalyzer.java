@@ -0,0 +1,879 @@
+/**
+ * Analysis of a single string constant: source file references and method name candidates.
+ *
+ * Results depend only on the string value and the configured limits, so the analyzer can be shared
+ * between extraction workers, cached per value (see StringAnalysisCache) or used on its own,
+ * e.g. from benchmarks. Blobs recognized by {@link StringClassifier} are not analysed at all,
+ * and only a prefix of very long strings is searched.
+ *
+ * Tokens and candidates are kept as [start, end) offsets into the analysed string and checked
+ * through reusable views and matchers held in per-thread scratch state, so the analysis
+ * allocates nothing except the names of candidates that are finally kept.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.pass;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import jadx.core.deobf.NameMapper;
+import jadx.plugins.magicstrings.MagicStringsOptions;
+import jadx.plugins.magicstrings.data.TopK;
+import jadx.plugins.magicstrings.metrics.PassMetrics;
+import jadx.plugins.magicstrings.metrics.PassMetrics.Phase;
+import jadx.plugins.magicstrings.stoplist.Stoplist;
+
+final class StringAnalyzer {
+	// Configuration constants
+	static final int MIN_STRING_LENGTH = 4;
+	private static final int MIN_TOKEN_LENGTH = 4;
+	private static final int MIN_CANDIDATE_LENGTH = 4;
+	private static final int MAX_TOKEN_LENGTH_FOR_SEARCH = 500;
+	static final int MAX_CANDIDATES_PER_METHOD = 2; // Only keep top 2 candidates per method
+	static final int MIN_SCORE_TO_KEEP = 10; // Minimum score to keep a candidate (strict filtering)
+	private static final int MIN_CAMELCASE_LENGTH_SHORT = 8;
+	private static final int MIN_CAMELCASE_LENGTH_LONG = 12;
+	private static final int MIN_UPPERCASE_FOR_BONUS = 2;
+	private static final int FILE_EXTENSION_PROXIMITY = 30;
+
+	// Scoring constants
+	private static final int SCORE_VALID_IDENTIFIER = 5;
+	private static final int SCORE_STANDALONE = 15;
+	private static final int SCORE_LOG_CONTEXT = 8;
+	private static final int SCORE_POSITION_LOG_STATEMENT = 12;
+	private static final int SCORE_CAMELCASE_LONG = 5;
+	private static final int SCORE_CAMELCASE_SHORT = 3;
+	private static final int PENALTY_BLACKLIST = -10;
+	private static final int PENALTY_INVALID_IDENTIFIER = -10;
+	private static final int PENALTY_ALL_UPPERCASE = -5;
+	private static final int PENALTY_PACKAGE_PATH = -15;
+	private static final int PENALTY_PACKAGE_PATH_FULL = -10;
+	private static final int PENALTY_PARTIAL_WORD = -8;
+	private static final int PENALTY_CLASS_NAME_IN_PATH = -5;
+	private static final int PENALTY_NEAR_FILE_EXTENSION = -5;
+	private static final int PENALTY_SHORT_SINGLE_WORD = -3;
+
+	// Method names (Java style: strict lowerCamelCase) are found by CamelCaseScanner:
+	// - a whole token: starts with lowercase letter, followed by letters, digits or underscores
+	//   Examples: "getValue", "setValue2", "is_valid", "processData", "onCreate"
+	// - inside a token: camelCase names (getValue, processData) with at least one uppercase letter
+	//   and word boundaries to avoid matching parts of longer words
+
+	// Common words that are not likely to be method names, default contents of the stoplist
+	private static final Set<String> NOT_METHOD_NAMES = Set.of(
+			"copyright", "license", "version", "cannot", "error", "invalid", "null",
+			"warning", "general", "argument", "written", "report", "failed", "assert",
+			"object", "integer", "unknown", "localhost", "native", "memory", "system",
+			"write", "read", "open", "close", "help", "exit", "test", "return", "libs",
+			"home", "ambiguous", "internal", "request", "inserting", "deleting", "removing",
+			"updating", "adding", "assertion", "flags", "overflow", "enabled", "disabled",
+			"enable", "disable", "virtual", "client", "server", "switch", "while", "offset",
+			"abort", "panic", "static", "updated", "pointer", "reason", "default", "success",
+			"expecting", "missing", "phrase", "unrecognized", "undefined", "corrupt", "corrupted",
+			// Common English words
+			"the", "not", "present", "downloading", "thumbnail", "file", "transfer", "incoming",
+			"android", "google", "apps", "shared", "com", "java", "processor",
+			"successfully", "queued", "download", "embedded", "initiate", "insert",
+			"schedule", "finishing", "actions", "push", "message", "storing", "sender", "msisdn",
+			"manual", "auto", "empty", "optional",
+			// Additional common English words
+			"for", "and", "or", "is", "are", "was", "were", "has", "have", "had", "with", "from",
+			"this", "that", "which", "what", "when", "where", "who", "how",
+			// Common package segments
+			"org", "net", "io",
+			// Common file-related words
+			"path", "dir", "directory", "extension");
+
+	private static final Stoplist BUILT_IN_STOPLIST = Stoplist.of(NOT_METHOD_NAMES);
+
+	// Java reserved words, same as in NameMapper (the only invalid identifiers our patterns can match)
+	private static final String[][] RESERVED_WORDS_BY_LENGTH = groupByLength(Set.of(
+			"abstract", "assert", "boolean", "break", "byte", "case", "catch", "char", "class", "const",
+			"continue", "default", "do", "double", "else", "enum", "extends", "false", "final", "finally",
+			"float", "for", "goto", "if", "implements", "import", "instanceof", "int", "interface", "long",
+			"native", "new", "null", "package", "private", "protected", "public", "return", "short", "static",
+			"strictfp", "super", "switch", "synchronized", "this", "throw", "throws", "transient", "true", "try",
+			"void", "volatile", "while"));
+
+
+	// Pattern to detect class names (PascalCase - starts with uppercase)
+	private static final Pattern CLASS_NAME_PATTERN = Pattern.compile("^[A-Z][A-Za-z0-9]+$");
+
+	// Pattern to detect file extensions
+	private static final Pattern FILE_EXTENSION_PATTERN = Pattern.compile("^.*\\.(java|kt|class|kts|scala|groovy)$");
+
+	// Pattern to detect package paths
+	private static final Pattern PACKAGE_PATH_FULL_PATTERN = Pattern.compile("^[a-z_][a-z0-9_]*(\\/[a-z_][a-z0-9_]*)+$");
+
+	// Pattern to detect log literals (contains spaces, punctuation, format specifiers)
+	private static final Pattern LOG_LITERAL_PATTERN = Pattern.compile(".*[\\s\\.\\?%\\{\\}].*");
+
+	// Common file extensions to check
+	private static final String[] FILE_EXTENSIONS = {".java", ".kt", ".class", ".kts", ".scala", ".groovy"};
+	private static final String[] SOURCE_EXTENSIONS = {".java", ".kt", ".scala"};
+
+	// Path separators
+	private static final char PATH_SEPARATOR_FORWARD = '/';
+	private static final char PATH_SEPARATOR_BACKWARD = '\\';
+	private static final char PACKAGE_SEPARATOR = '.';
+
+	private static final String[] NO_CANDIDATES = new String[0];
+	private static final int[] NO_SCORES = new int[0];
+
+	private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+	/**
+	 * Per-thread working state, reused for every analysed string
+	 */
+	private static final class Scratch {
+		// Token bounds after trimming and quotes removal (may still have whitespace inside quotes)
+		int[] tokenStarts = new int[16];
+		int[] tokenEnds = new int[16];
+		int tokenCount;
+
+		// Best candidates with score >= MIN_SCORE_TO_KEEP, value is (start << 32 | end)
+		final TopK topCandidates = new TopK(MAX_CANDIDATES_PER_METHOD);
+
+		// Start of the current phase (System.nanoTime), used only when metrics are collected
+		long phaseStart;
+
+		final CamelCaseScanner camelCaseScanner = new CamelCaseScanner();
+		// View for one-shot regex checks of a region
+		final CharWindow probeView = new CharWindow();
+		final Matcher classNameMatcher = CLASS_NAME_PATTERN.matcher("");
+		final Matcher fileExtensionMatcher = FILE_EXTENSION_PATTERN.matcher("");
+		final Matcher packagePathMatcher = PACKAGE_PATH_FULL_PATTERN.matcher("");
+		final Matcher logLiteralMatcher = LOG_LITERAL_PATTERN.matcher("");
+		final LogContextScanner logContext = new LogContextScanner();
+
+		void addToken(int start, int end) {
+			if (tokenCount == tokenStarts.length) {
+				tokenStarts = Arrays.copyOf(tokenStarts, tokenCount * 2);
+				tokenEnds = Arrays.copyOf(tokenEnds, tokenCount * 2);
+			}
+			tokenStarts[tokenCount] = start;
+			tokenEnds[tokenCount] = end;
+			tokenCount++;
+		}
+
+		void addCandidate(int start, int end, int score) {
+			topCandidates.offer(score, (long) start << 32 | end);
+		}
+
+		int candidateStart(int rank) {
+			return (int) (topCandidates.value(rank) >>> 32);
+		}
+
+		int candidateEnd(int rank) {
+			return (int) topCandidates.value(rank);
+		}
+
+		int candidateScore(int rank) {
+			return (int) topCandidates.key(rank);
+		}
+
+		boolean matches(Matcher matcher, String str, int start, int end) {
+			return matcher.reset(probeView.set(str, start, end)).matches();
+		}
+	}
+
+	private final StringClassifier classifier;
+	private final int maxAnalyzeLength;
+	// Built-in stoplist followed by user supplied ones
+	private final Stoplist[] stoplists;
+	// Phase timers and string costs of analyze(), null if not collected (analysed strings are counted by the caller)
+	private final PassMetrics metrics;
+
+	StringAnalyzer() {
+		this(new MagicStringsOptions(), List.of(), null);
+	}
+
+	StringAnalyzer(MagicStringsOptions options, List<Stoplist> userStoplists, PassMetrics metrics) {
+		this.metrics = metrics;
+		this.classifier = new StringClassifier(options.isBlobFilter(), options.getMinBlobLength());
+		this.maxAnalyzeLength = options.getMaxAnalyzeLength();
+		this.stoplists = new Stoplist[userStoplists.size() + 1];
+		this.stoplists[0] = BUILT_IN_STOPLIST;
+		for (int i = 0; i < userStoplists.size(); i++) {
+			this.stoplists[i + 1] = userStoplists.get(i);
+		}
+	}
+
+	/**
+	 * Analyse a string value independently of the method it was found in
+	 */
+	StringAnalysis analyze(String value) {
+		if (metrics == null) {
+			StringKind kind = classifier.classify(value);
+			if (kind.isBlob()) {
+				return StringAnalysis.blob(kind);
+			}
+			String str = limitLength(value);
+			return collectCandidates(str, checkSourceFile(str));
+		}
+		long startTime = System.nanoTime();
+		StringKind kind = classifier.classify(value);
+		long time = lap(Phase.CLASSIFY, startTime);
+		if (kind.isBlob()) {
+			return StringAnalysis.blob(kind);
+		}
+		String str = limitLength(value);
+		String sourceFile = checkSourceFile(str);
+		time = lap(Phase.SOURCE_FILE, time);
+		Scratch s = SCRATCH.get();
+		s.phaseStart = time;
+		StringAnalysis analysis = collectCandidates(str, sourceFile);
+		lap(Phase.SCORING, s.phaseStart);
+		metrics.recordString(System.nanoTime() - startTime);
+		return analysis;
+	}
+
+	private String limitLength(String value) {
+		if (maxAnalyzeLength > 0 && value.length() > maxAnalyzeLength) {
+			int end = maxAnalyzeLength;
+			if (Character.isHighSurrogate(value.charAt(end - 1))) {
+				end--; // Don't split a surrogate pair
+			}
+			return value.substring(0, end);
+		}
+		return value;
+	}
+
+	/**
+	 * Add time since the mark to the phase, returns the current time as the next mark
+	 */
+	private long lap(Phase phase, long mark) {
+		long now = System.nanoTime();
+		metrics.addPhaseTime(phase, now - mark);
+		return now;
+	}
+
+	/**
+	 * Java/Kotlin source file path in the string, see {@link SourcePathDetector}
+	 */
+	String checkSourceFile(String str) {
+		return SourcePathDetector.find(str);
+	}
+
+	/**
+	 * Find the top method name candidates in a string, ordered by score (descending)
+	 */
+	StringAnalysis checkMethodNames(String str) {
+		if (metrics != null) {
+			SCRATCH.get().phaseStart = System.nanoTime();
+		}
+		return collectCandidates(str, null);
+	}
+
+	private StringAnalysis collectCandidates(String str, String sourceFile) {
+		Scratch s = SCRATCH.get();
+		int count = findCandidates(str, s);
+		if (count == 0) {
+			return StringAnalysis.of(sourceFile, NO_CANDIDATES, NO_SCORES);
+		}
+		// Only the kept candidates are materialized
+		String[] names = new String[count];
+		int[] scores = new int[count];
+		for (int i = 0; i < count; i++) {
+			names[i] = str.substring(s.candidateStart(i), s.candidateEnd(i));
+			scores[i] = s.candidateScore(i);
+		}
+		return StringAnalysis.of(sourceFile, names, scores);
+	}
+
+	/**
+	 * Select top scratch candidates by score (descending), earlier ones first on equal scores
+	 *
+	 * @return number of leading candidates to keep
+	 */
+	private int findCandidates(String str, Scratch s) {
+		s.topCandidates.clear();
+		// Early exit: skip if string is too short
+		if (str == null || str.length() < MIN_STRING_LENGTH - 1) {
+			return 0;
+		}
+
+		// Tokenization-first approach: split by commas if present, otherwise use whole string
+		tokenize(str, s);
+		if (metrics != null) {
+			s.phaseStart = lap(Phase.TOKENIZE, s.phaseStart);
+		}
+
+		// Log layout of the whole string, parsed once on the first candidate check
+		s.logContext.reset(str);
+
+		// Analyze each token separately
+		for (int i = 0; i < s.tokenCount; i++) {
+			int start = trimStart(str, s.tokenStarts[i], s.tokenEnds[i]);
+			int end = trimEnd(str, start, s.tokenEnds[i]);
+
+			// Skip empty or very short tokens
+			if (end - start < MIN_TOKEN_LENGTH) {
+				continue;
+			}
+
+			// Apply exclusion filters first (early exit for performance)
+			if (isExcludedToken(str, start, end, s)) {
+				continue;
+			}
+
+			// Check if entire token is a method name (exact match)
+			if (CamelCaseScanner.isMethodName(str, start, end)) {
+				int score = scoreCandidate(str, start, end, i, start, end, s);
+				// Only keep candidates with score above minimum threshold (strict filtering)
+				if (score >= MIN_SCORE_TO_KEEP) {
+					s.addCandidate(start, end, score);
+				}
+			} else if (end - start < MAX_TOKEN_LENGTH_FOR_SEARCH) {
+				// Only search within token if it's not too long (performance optimization)
+				// Token isn't a method name, but might contain camelCase names surrounded by word boundaries
+				CamelCaseScanner scanner = s.camelCaseScanner.reset(str, start, end);
+				while (scanner.find()) {
+					int candidateStart = scanner.start();
+					int candidateEnd = scanner.end();
+					if (candidateEnd - candidateStart >= MIN_CANDIDATE_LENGTH) {
+						int score = scoreCandidate(str, candidateStart, candidateEnd, i, start, end, s);
+						if (score >= MIN_SCORE_TO_KEEP) {
+							s.addCandidate(candidateStart, candidateEnd, score);
+						}
+					}
+				}
+			}
+		}
+
+		int maxCandidates = s.topCandidates.size();
+		if (maxCandidates > 1) {
+			int topScore = s.candidateScore(0);
+			for (int i = maxCandidates - 1; i >= 1; i--) {
+				if (s.candidateScore(i) < topScore - 5) {
+					maxCandidates = i; // Reduce max candidates
+					break;
+				}
+			}
+		}
+		return maxCandidates;
+	}
+
+	/**
+	 * Split by commas into scratch token bounds, each token trimmed and unquoted
+	 */
+	private void tokenize(String str, Scratch s) {
+		s.tokenCount = 0;
+		int len = str.length();
+		if (len == 0) {
+			return;
+		}
+		if (str.indexOf(',') >= 0) {
+			int partStart = 0;
+			while (true) {
+				int comma = str.indexOf(',', partStart);
+				int partEnd = comma < 0 ? len : comma;
+				addToken(str, partStart, partEnd, s);
+				if (comma < 0) {
+					break;
+				}
+				partStart = comma + 1;
+			}
+		}
+		// If no commas found or no valid tokens, use the whole string
+		if (s.tokenCount == 0) {
+			addToken(str, 0, len, s);
+		}
+	}
+
+	private void addToken(String str, int start, int end, Scratch s) {
+		start = trimStart(str, start, end);
+		end = trimEnd(str, start, end);
+		// Remove surrounding quotes if present
+		if (end - start >= 2) {
+			char first = str.charAt(start);
+			char last = str.charAt(end - 1);
+			if ((first == '"' && last == '"') || (first == '\'' && last == '\'')) {
+				start++;
+				end--;
+			}
+		}
+		if (start < end) {
+			s.addToken(start, end);
+		}
+	}
+
+	/**
+	 * Token count of a string, see {@link #tokenBounds(String)}
+	 */
+	int tokenize(String str) {
+		Scratch s = SCRATCH.get();
+		tokenize(str, s);
+		return s.tokenCount;
+	}
+
+	/**
+	 * Token bounds as [start, end) pairs, for benchmarks setup
+	 */
+	int[] tokenBounds(String str) {
+		Scratch s = SCRATCH.get();
+		tokenize(str, s);
+		int[] bounds = new int[s.tokenCount * 2];
+		for (int i = 0; i < s.tokenCount; i++) {
+			bounds[i * 2] = s.tokenStarts[i];
+			bounds[i * 2 + 1] = s.tokenEnds[i];
+		}
+		return bounds;
+	}
+
+	// Same as String.trim()
+	private static int trimStart(String str, int start, int end) {
+		while (start < end && str.charAt(start) <= ' ') {
+			start++;
+		}
+		return start;
+	}
+
+	private static int trimEnd(String str, int start, int end) {
+		while (end > start && str.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		return end;
+	}
+
+	boolean isExcludedToken(String token) {
+		return token == null || isExcludedToken(token, 0, token.length(), SCRATCH.get());
+	}
+
+	private boolean isExcludedToken(String str, int start, int end, Scratch s) {
+		if (start >= end) {
+			return true;
+		}
+
+		boolean startsWithUpper = Character.isUpperCase(str.charAt(start));
+
+		// Quick check: if token contains path separators, it's likely a path
+		if (indexOf(str, PATH_SEPARATOR_FORWARD, start, end) >= 0
+				|| indexOf(str, PATH_SEPARATOR_BACKWARD, start, end) >= 0) {
+			// Exclude package paths
+			if (s.matches(s.packagePathMatcher, str, start, end)) {
+				return true;
+			}
+		}
+
+		// Quick check: if token contains file extension, exclude it
+		if (indexOf(str, PACKAGE_SEPARATOR, start, end) >= 0) {
+			// Check for file extensions
+			for (String ext : FILE_EXTENSIONS) {
+				int extLen = ext.length();
+				if (end - start >= extLen && str.startsWith(ext, end - extLen)) {
+					if (s.matches(s.fileExtensionMatcher, str, start, end)) {
+						return true;
+					}
+					break; // Found extension, no need to check others
+				}
+			}
+		}
+
+		// Quick check: if token starts with uppercase, might be PascalCase
+		if (startsWithUpper) {
+			// Exclude PascalCase (class names)
+			if (s.matches(s.classNameMatcher, str, start, end)) {
+				return true;
+			}
+		}
+
+		// Exclude log literals (contains spaces, punctuation, format specifiers)
+		// Check for common log literal indicators first (performance optimization)
+		if (indexOf(str, ' ', start, end) >= 0 || indexOf(str, '%', start, end) >= 0
+				|| indexOf(str, '{', start, end) >= 0 || indexOf(str, '}', start, end) >= 0) {
+			if (s.matches(s.logLiteralMatcher, str, start, end)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Score a candidate at [candidateStart, candidateEnd) found in the token with index tokenIndex,
+	 * for benchmarks (includes tokenization of the string)
+	 */
+	int scoreCandidate(String str, int candidateStart, int candidateEnd, int tokenIndex) {
+		Scratch s = SCRATCH.get();
+		tokenize(str, s);
+		s.logContext.reset(str);
+		int start = trimStart(str, s.tokenStarts[tokenIndex], s.tokenEnds[tokenIndex]);
+		int end = trimEnd(str, start, s.tokenEnds[tokenIndex]);
+		return scoreCandidate(str, candidateStart, candidateEnd, tokenIndex, start, end, s);
+	}
+
+	/**
+	 * Score the candidate at [candStart, candEnd) of the trimmed token at [tokenStart, tokenEnd)
+	 */
+	private int scoreCandidate(String str, int candStart, int candEnd, int tokenIndex,
+			int tokenStart, int tokenEnd, Scratch s) {
+		int candidateLength = candEnd - candStart;
+		if (candidateLength == 0) {
+			return 0;
+		}
+
+		// Check against blacklist first - heavy penalty
+		if (isStopWord(str, candStart, candEnd)) {
+			return PENALTY_BLACKLIST;
+		}
+
+		// Validate Java identifier
+		if (!isValidIdentifier(str, candStart, candEnd)) {
+			return PENALTY_INVALID_IDENTIFIER;
+		}
+		int score = SCORE_VALID_IDENTIFIER;
+
+		// All uppercase is likely a constant
+		if (isAllUpperCase(str, candStart, candEnd)) {
+			return score + PENALTY_ALL_UPPERCASE;
+		}
+
+		// High score: Standalone candidate (entire token is the candidate)
+		if (isStandaloneCandidate(str, candStart, candEnd, tokenStart, tokenEnd)) {
+			score += SCORE_STANDALONE;
+		}
+
+		// High score: Position-based scoring (token index 1 in comma-separated log statements)
+		score += scoreByPosition(str, tokenIndex, s);
+
+		// High score: Appears in log statement context
+		if (isInLogContext(str, candStart, candEnd, tokenIndex, s)) {
+			score += SCORE_LOG_CONTEXT;
+		}
+
+		// Medium score: Well-formed camelCase with multiple words
+		int upperCaseCount = countUpperCaseLetters(str, candStart, candEnd);
+		if (upperCaseCount >= MIN_UPPERCASE_FOR_BONUS && candidateLength > MIN_CAMELCASE_LENGTH_LONG) {
+			score += SCORE_CAMELCASE_LONG;
+		} else if (upperCaseCount >= 1 && candidateLength > MIN_CAMELCASE_LENGTH_SHORT) {
+			score += SCORE_CAMELCASE_SHORT;
+		}
+
+		// Penalty: Part of package path (more aggressive)
+		boolean containsPath = indexOf(str, PATH_SEPARATOR_FORWARD, tokenStart, tokenEnd) >= 0
+				|| indexOf(str, PATH_SEPARATOR_BACKWARD, tokenStart, tokenEnd) >= 0
+				|| indexOf(str, PACKAGE_SEPARATOR, tokenStart, tokenEnd) >= 0;
+		if (containsPath) {
+			if (isInPackagePath(str, candStart, candEnd, tokenStart, tokenEnd)) {
+				score += PENALTY_PACKAGE_PATH;
+			}
+			// Also check if candidate appears in full string as part of path
+			if (isInPackagePath(str, candStart, candEnd, 0, str.length())) {
+				score += PENALTY_PACKAGE_PATH_FULL;
+			}
+		}
+
+		// Penalty: Partial word (substring of longer word or class name)
+		if (isPartialWord(str, candStart, candEnd, tokenStart, tokenEnd)) {
+			score += PENALTY_PARTIAL_WORD;
+		}
+		// Check if candidate is substring of class name in tokens
+		if (isPartialOfClassName(str, candStart, candEnd, s)) {
+			score += PENALTY_PARTIAL_WORD;
+		}
+
+		// Penalty: Single word, short
+		if (upperCaseCount == 0 && candidateLength < MIN_CAMELCASE_LENGTH_SHORT) {
+			score += PENALTY_SHORT_SINGLE_WORD;
+		}
+
+		// Penalty: Class name in path context
+		boolean containsFileExtension = hasFileExtension(str, tokenStart, tokenEnd);
+		if (s.matches(s.classNameMatcher, str, candStart, candEnd)) {
+			if (containsPath || containsFileExtension) {
+				score += PENALTY_CLASS_NAME_IN_PATH;
+			}
+		}
+
+		// Penalty: Near file extension
+		if (containsFileExtension && isNearFileExtension(str, candStart, candEnd, tokenStart, tokenEnd)) {
+			score += PENALTY_NEAR_FILE_EXTENSION;
+		}
+		return score;
+	}
+
+	private boolean isStopWord(String str, int start, int end) {
+		for (Stoplist stoplist : stoplists) {
+			if (stoplist.contains(str, start, end)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Same result as NameMapper.isValidIdentifier, without a String copy for plain ASCII names
+	 */
+	private static boolean isValidIdentifier(String str, int start, int end) {
+		char first = str.charAt(start);
+		boolean plain = isAsciiLetter(first) || first == '_';
+		for (int i = start + 1; plain && i < end; i++) {
+			char c = str.charAt(i);
+			plain = isAsciiLetter(c) || (c >= '0' && c <= '9') || c == '_';
+		}
+		if (plain) {
+			return !containsRegion(RESERVED_WORDS_BY_LENGTH, str, start, end);
+		}
+		return NameMapper.isValidIdentifier(str.substring(start, end));
+	}
+
+	private static boolean isAsciiLetter(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+	}
+
+	private static String[][] groupByLength(Set<String> words) {
+		int maxLength = 0;
+		for (String word : words) {
+			maxLength = Math.max(maxLength, word.length());
+		}
+		List<List<String>> groups = new ArrayList<>();
+		for (int i = 0; i <= maxLength; i++) {
+			groups.add(new ArrayList<>());
+		}
+		for (String word : words) {
+			groups.get(word.length()).add(word);
+		}
+		String[][] table = new String[maxLength + 1][];
+		for (int i = 0; i <= maxLength; i++) {
+			table[i] = groups.get(i).toArray(new String[0]);
+		}
+		return table;
+	}
+
+	private static boolean containsRegion(String[][] table, String str, int start, int end) {
+		int len = end - start;
+		if (len >= table.length) {
+			return false;
+		}
+		for (String word : table[len]) {
+			if (str.regionMatches(start, word, 0, len)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isAllUpperCase(String str, int start, int end) {
+		if (start >= end) {
+			return false;
+		}
+		// Quick check: if any lowercase letter exists, it's not all uppercase
+		for (int i = start; i < end; i++) {
+			char c = str.charAt(i);
+			if (Character.isLetter(c) && Character.isLowerCase(c)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean hasFileExtension(String str, int start, int end) {
+		for (String ext : SOURCE_EXTENSIONS) {
+			if (indexOf(str, ext, start, end) >= 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isStandaloneCandidate(String str, int candStart, int candEnd, int tokenStart, int tokenEnd) {
+		// Check if candidate equals the token, optionally in double quotes
+		int candidateLength = candEnd - candStart;
+		int tokenLength = tokenEnd - tokenStart;
+		if (tokenLength == candidateLength) {
+			return str.regionMatches(tokenStart, str, candStart, candidateLength);
+		}
+		return tokenLength == candidateLength + 2
+				&& str.charAt(tokenStart) == '"' && str.charAt(tokenEnd - 1) == '"'
+				&& str.regionMatches(tokenStart + 1, str, candStart, candidateLength);
+	}
+
+	private int scoreByPosition(String str, int tokenIndex, Scratch s) {
+		// High score for position 1 (second token) - typical method name position in log statements
+		if (tokenIndex == 1 && s.tokenCount >= 3) {
+			// Check if previous token looks like logger name and next token looks like log message
+			int prevStart = trimStart(str, s.tokenStarts[0], s.tokenEnds[0]);
+			int prevEnd = trimEnd(str, prevStart, s.tokenEnds[0]);
+			int nextStart = trimStart(str, s.tokenStarts[2], s.tokenEnds[2]);
+			int nextEnd = trimEnd(str, nextStart, s.tokenEnds[2]);
+			// Logger names are often PascalCase or simple words
+			boolean prevIsLogger = s.matches(s.classNameMatcher, str, prevStart, prevEnd) || prevEnd - prevStart < 20;
+			// Log messages often contain spaces or punctuation
+			boolean nextIsMessage = s.matches(s.logLiteralMatcher, str, nextStart, nextEnd) || nextEnd - nextStart > 20;
+			if (prevIsLogger && nextIsMessage) {
+				return SCORE_POSITION_LOG_STATEMENT;
+			}
+		}
+		return 0;
+	}
+
+	private boolean isInLogContext(String str, int candStart, int candEnd, int tokenIndex, Scratch s) {
+		// Pattern 3: logger, candidate, message pattern (comma-separated)
+		if (tokenIndex == 1 && s.tokenCount >= 3) {
+			int prevStart = trimStart(str, s.tokenStarts[0], s.tokenEnds[0]);
+			int prevEnd = trimEnd(str, prevStart, s.tokenEnds[0]);
+			int nextStart = trimStart(str, s.tokenStarts[2], s.tokenEnds[2]);
+			int nextEnd = trimEnd(str, nextStart, s.tokenEnds[2]);
+			if (s.matches(s.classNameMatcher, str, prevStart, prevEnd)
+					&& s.matches(s.logLiteralMatcher, str, nextStart, nextEnd)) {
+				return true;
+			}
+		}
+
+		// Patterns 1, 2, 4: "candidate", number, "...java" and package/Class, candidate
+		return s.logContext.matchesCandidate(candStart, candEnd);
+	}
+
+	private boolean isInPackagePath(String str, int candStart, int candEnd, int segStart, int segEnd) {
+		int candidateLen = candEnd - candStart;
+		int index = segStart;
+		while ((index = indexOf(str, candStart, candidateLen, index, segEnd)) != -1) {
+			boolean isPathSegment = false;
+			int afterIndex = index + candidateLen;
+
+			// Check if it's between path separators
+			if (index > segStart) {
+				char before = str.charAt(index - 1);
+				if (isPathSeparator(before)) {
+					if (afterIndex < segEnd) {
+						if (isPathSeparator(str.charAt(afterIndex))) {
+							isPathSegment = true;
+						}
+					} else {
+						isPathSegment = true;
+					}
+				}
+			} else if (afterIndex < segEnd && isPathSeparator(str.charAt(afterIndex))) {
+				isPathSegment = true;
+			}
+
+			// Also check if it's part of a package-like structure (com/app/android/...)
+			if (!isPathSegment && index > segStart) {
+				int checkStart = Math.max(segStart, index - 20); // Check up to 20 chars back
+				if (indexOf(str, PATH_SEPARATOR_FORWARD, checkStart, index) >= 0
+						|| indexOf(str, PATH_SEPARATOR_BACKWARD, checkStart, index) >= 0) {
+					if (afterIndex < segEnd && isPathSeparator(str.charAt(afterIndex))) {
+						isPathSegment = true;
+					}
+				}
+			}
+
+			if (isPathSegment) {
+				return true;
+			}
+
+			index++;
+		}
+		return false;
+	}
+
+
+	private boolean isPathSeparator(char c) {
+		return c == PATH_SEPARATOR_FORWARD || c == PATH_SEPARATOR_BACKWARD || c == PACKAGE_SEPARATOR;
+	}
+
+
+	private boolean isNearFileExtension(String str, int candStart, int candEnd, int segStart, int segEnd) {
+		int candidateIndex = indexOf(str, candStart, candEnd - candStart, segStart, segEnd);
+		if (candidateIndex < 0) {
+			return false;
+		}
+		candidateIndex -= segStart;
+
+		// Check proximity to any source file extension
+		for (String ext : SOURCE_EXTENSIONS) {
+			int extIndex = indexOf(str, ext, segStart, segEnd) - segStart;
+			if (extIndex > 0 && candidateIndex < extIndex
+					&& candidateIndex > extIndex - FILE_EXTENSION_PROXIMITY) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isPartialWord(String str, int candStart, int candEnd, int segStart, int segEnd) {
+		int candidateLen = candEnd - candStart;
+		int index = segStart;
+		while ((index = indexOf(str, candStart, candidateLen, index, segEnd)) != -1) {
+			// Check if it's part of a longer word
+			if (index > segStart && Character.isLetterOrDigit(str.charAt(index - 1))) {
+				return true;
+			}
+			int afterIndex = index + candidateLen;
+			if (afterIndex < segEnd && Character.isLetterOrDigit(str.charAt(afterIndex))) {
+				return true;
+			}
+			index++;
+		}
+		return false;
+	}
+
+	
+	private boolean isPartialOfClassName(String str, int candStart, int candEnd, Scratch s) {
+		int candidateLen = candEnd - candStart;
+		for (int i = 0; i < s.tokenCount; i++) {
+			int start = s.tokenStarts[i];
+			int end = s.tokenEnds[i];
+			if (!Character.isUpperCase(str.charAt(start))) {
+				continue;
+			}
+			// Contains the candidate but is not equal to it
+			if (end - start != candidateLen
+					&& s.matches(s.classNameMatcher, str, start, end)
+					&& indexOf(str, candStart, candidateLen, start, end) >= 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	private int countUpperCaseLetters(String str, int start, int end) {
+		int count = 0;
+		for (int i = start; i < end; i++) {
+			if (Character.isUpperCase(str.charAt(i))) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static int indexOf(String str, char c, int from, int to) {
+		for (int i = from; i < to; i++) {
+			if (str.charAt(i) == c) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static int indexOf(String str, String needle, int from, int to) {
+		int last = to - needle.length();
+		for (int i = from; i <= last; i++) {
+			if (str.startsWith(needle, i)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Index of the region [needleStart, needleStart + needleLen) of str within [from, to) of str
+	 */
+	private static int indexOf(String str, int needleStart, int needleLen, int from, int to) {
+		int last = to - needleLen;
+		for (int i = from; i <= last; i++) {
+			if (str.regionMatches(i, str, needleStart, needleLen)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
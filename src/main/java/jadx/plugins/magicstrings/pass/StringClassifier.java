@@ -0,0 +1,112 @@
+/**
+ * Cheap pre-analysis classification of string constants.
+ *
+ * Obfuscated apps embed multi-kilobyte base64, hex, encrypted payloads and JSON documents
+ * as constants. Running the tokenizer and candidate search on them is expensive and only
+ * produces noise, so such blobs are detected with a single pass over the chars:
+ * a character class histogram plus Shannon entropy of the char distribution.
+ * Strings shorter than the minimal blob length are always TEXT.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.pass;
+
+import java.util.Arrays;
+
+final class StringClassifier {
+	private static final int LARGE_JSON_LENGTH = 1024;
+	// Bits per char: English text and identifiers stay around 4, random base64 is close to 6
+	private static final double BASE64_MIN_ENTROPY = 4.5;
+	private static final double HIGH_ENTROPY = 5.5;
+	private static final int BUCKETS = 256;
+	private static final double LOG_2 = Math.log(2);
+
+	// Char histogram, reused by every string classified on the thread
+	private static final ThreadLocal<int[]> COUNTS = ThreadLocal.withInitial(() -> new int[BUCKETS]);
+
+	private final boolean enabled;
+	private final int minBlobLength;
+
+	StringClassifier(boolean enabled, int minBlobLength) {
+		this.enabled = enabled;
+		this.minBlobLength = Math.max(1, minBlobLength);
+	}
+
+	StringKind classify(String str) {
+		int len = str.length();
+		if (!enabled || len < minBlobLength) {
+			return StringKind.TEXT;
+		}
+		int lower = 0;
+		int upper = 0;
+		int digits = 0;
+		int base64Symbols = 0;
+		int whitespace = 0;
+		boolean hexOnly = true;
+		int[] counts = COUNTS.get();
+		Arrays.fill(counts, 0);
+		for (int i = 0; i < len; i++) {
+			char c = str.charAt(i);
+			counts[c < 128 ? c : 128 + (c & 127)]++;
+			if (c >= 'a' && c <= 'z') {
+				lower++;
+				hexOnly &= c <= 'f';
+			} else if (c >= 'A' && c <= 'Z') {
+				upper++;
+				hexOnly &= c <= 'F';
+			} else if (c >= '0' && c <= '9') {
+				digits++;
+			} else {
+				hexOnly = false;
+				if (c == '+' || c == '/' || c == '=' || c == '-' || c == '_') {
+					base64Symbols++;
+				} else if (Character.isWhitespace(c)) {
+					whitespace++;
+				}
+			}
+		}
+		if (hexOnly && digits > 0) {
+			return StringKind.HEX;
+		}
+		if (len >= LARGE_JSON_LENGTH && isJsonLike(str)) {
+			return StringKind.JSON;
+		}
+		double entropy = entropy(counts, len);
+		if (lower + upper + digits + base64Symbols == len && lower > 0 && upper > 0 && digits > 0
+				&& entropy >= BASE64_MIN_ENTROPY) {
+			return StringKind.BASE64;
+		}
+		if (entropy >= HIGH_ENTROPY && whitespace * 20 < len) {
+			return StringKind.HIGH_ENTROPY;
+		}
+		return StringKind.TEXT;
+	}
+
+	private static boolean isJsonLike(String str) {
+		int start = 0;
+		int end = str.length() - 1;
+		while (start < end && Character.isWhitespace(str.charAt(start))) {
+			start++;
+		}
+		while (end > start && Character.isWhitespace(str.charAt(end))) {
+			end--;
+		}
+		char first = str.charAt(start);
+		char last = str.charAt(end);
+		return (first == '{' && last == '}') || (first == '[' && last == ']');
+	}
+
+	/**
+	 * Shannon entropy in bits per char
+	 */
+	private static double entropy(int[] counts, int total) {
+		double sum = 0;
+		for (int count : counts) {
+			if (count != 0) {
+				sum += count * Math.log(count);
+			}
+		}
+		return (Math.log(total) - sum / total) / LOG_2;
+	}
+}
@@ -0,0 +1,28 @@
+/**
+ * Class of a string constant assigned before analysis, see {@link StringClassifier}.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.pass;
+
+enum StringKind {
+	TEXT(false),
+	BASE64(true),
+	HEX(true),
+	JSON(true),
+	HIGH_ENTROPY(true);
+
+	private final boolean blob;
+
+	StringKind(boolean blob) {
+		this.blob = blob;
+	}
+
+	/**
+	 * Blobs can't contain useful source paths or method names and are not analysed
+	 */
+	boolean isBlob() {
+		return blob;
+	}
+}
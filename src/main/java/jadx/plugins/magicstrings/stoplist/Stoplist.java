@@ -0,0 +1,154 @@
+/**
+ * Case-insensitive set of words which are not method names.
+ *
+ * Backed by a compiled minimal perfect hash table (see {@link StoplistFormat}) read in place,
+ * usually from a memory-mapped file, so even stoplists with hundreds of thousands of words
+ * are cheap to open and take no heap. Lookups check a region of a string and don't allocate.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.stoplist;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+public final class Stoplist {
+	private final ByteBuffer buf;
+	private final int wordsCount;
+	private final int bucketsCount;
+	private final int charWidth;
+	private final long contentHash;
+	private final int displacementsOffset;
+	private final int keyOffsetsOffset;
+	private final int keyDataOffset;
+
+	private Stoplist(ByteBuffer buf, int wordsCount, int bucketsCount, int charWidth, long contentHash) {
+		this.buf = buf;
+		this.wordsCount = wordsCount;
+		this.bucketsCount = bucketsCount;
+		this.charWidth = charWidth;
+		this.contentHash = contentHash;
+		this.displacementsOffset = StoplistFormat.HEADER_SIZE;
+		this.keyOffsetsOffset = displacementsOffset + bucketsCount * 4;
+		this.keyDataOffset = keyOffsetsOffset + (wordsCount + 1) * 4;
+	}
+
+	/**
+	 * Stoplist with the given words, compiled in memory
+	 */
+	public static Stoplist of(Collection<String> words) {
+		try {
+			return open(ByteBuffer.wrap(StoplistBuilder.build(words)));
+		} catch (IOException e) {
+			throw new IllegalStateException("Failed to build stoplist", e);
+		}
+	}
+
+	/**
+	 * Memory-map a compiled stoplist, any other file is read as a plain text word list and compiled in memory
+	 */
+	public static Stoplist load(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() >= StoplistFormat.HEADER_SIZE) {
+				MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+				if (buf.getInt(0) == StoplistFormat.MAGIC) {
+					return open(buf);
+				}
+			}
+		}
+		return of(StoplistBuilder.readWords(file));
+	}
+
+	/**
+	 * Validate header and table bounds of the buffer content
+	 *
+	 * @throws IOException if content is not a supported format version or tables are malformed
+	 */
+	public static Stoplist open(ByteBuffer buffer) throws IOException {
+		ByteBuffer buf = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+		int size = buf.limit();
+		if (size < StoplistFormat.HEADER_SIZE || buf.getInt(0) != StoplistFormat.MAGIC) {
+			throw new IOException("Not a compiled stoplist");
+		}
+		int version = buf.getInt(4);
+		if (version != StoplistFormat.VERSION) {
+			throw new IOException("Unsupported stoplist format version: " + version
+					+ ", expected: " + StoplistFormat.VERSION);
+		}
+		int wordsCount = buf.getInt(8);
+		int bucketsCount = buf.getInt(12);
+		int charWidth = buf.getInt(16);
+		long contentHash = ((long) buf.getInt(20) << 32) | (buf.getInt(24) & 0xFFFFFFFFL);
+		if (wordsCount < 0 || bucketsCount <= 0 || (charWidth != 1 && charWidth != 2)) {
+			throw new IOException("Malformed stoplist header");
+		}
+		long keyDataOffset = StoplistFormat.HEADER_SIZE + bucketsCount * 4L + (wordsCount + 1L) * 4;
+		if (keyDataOffset > size) {
+			throw new IOException("Stoplist tables are out of file bounds");
+		}
+		Stoplist stoplist = new Stoplist(buf, wordsCount, bucketsCount, charWidth, contentHash);
+		// Offsets are checked once here, so lookups can read keys without bounds checks
+		long dataChars = (size - keyDataOffset) / charWidth;
+		int prev = 0;
+		for (int slot = 0; slot <= wordsCount; slot++) {
+			int offset = buf.getInt(stoplist.keyOffsetsOffset + slot * 4);
+			if (offset < prev || offset > dataChars) {
+				throw new IOException("Stoplist word " + slot + " is out of data bounds");
+			}
+			prev = offset;
+		}
+		return stoplist;
+	}
+
+	public boolean contains(String word) {
+		return contains(word, 0, word.length());
+	}
+
+	/**
+	 * Check if [start, end) of the string is a stop word (ignoring case)
+	 */
+	public boolean contains(String str, int start, int end) {
+		if (wordsCount == 0) {
+			return false;
+		}
+		long hash = StoplistFormat.hash(str, start, end);
+		int displacement = buf.getInt(displacementsOffset + StoplistFormat.bucket(hash, bucketsCount) * 4);
+		int slot = StoplistFormat.slot(hash, displacement, wordsCount);
+		int keyStart = buf.getInt(keyOffsetsOffset + slot * 4);
+		int keyEnd = buf.getInt(keyOffsetsOffset + slot * 4 + 4);
+		if (keyEnd - keyStart != end - start) {
+			return false;
+		}
+		for (int i = 0; i < end - start; i++) {
+			if (keyChar(keyStart + i) != StoplistFormat.fold(str.charAt(start + i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private char keyChar(int index) {
+		if (charWidth == 1) {
+			return (char) (buf.get(keyDataOffset + index) & 0xFF);
+		}
+		return buf.getChar(keyDataOffset + index * 2);
+	}
+
+	public int size() {
+		return wordsCount;
+	}
+
+	/**
+	 * Hash of the words set, independent of the words order and case in the source lists
+	 */
+	public long getContentHash() {
+		return contentHash;
+	}
+}
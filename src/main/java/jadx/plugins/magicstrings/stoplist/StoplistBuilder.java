@@ -0,0 +1,230 @@
+/**
+ * Offline builder of compiled stoplists, see {@link StoplistFormat} for the layout.
+ *
+ * Large stoplists (dictionaries, SDK and library method names) should be compiled once
+ * and then memory-mapped by {@link Stoplist#load}:
+ *
+ * <pre>
+ * ./gradlew buildStoplist -Pstoplist.args="words.txt sdk-methods.txt out.stoplist"
+ * </pre>
+ *
+ * Word lists are plain text files with one word per line, empty lines and lines starting with '#' are skipped.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.stoplist;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+public final class StoplistBuilder {
+	private static final int BUFFER_SIZE = 1 << 16;
+	private static final int MAX_DISPLACEMENT = 1 << 24;
+
+	private StoplistBuilder() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("Usage: StoplistBuilder <word list>... <output file>");
+			System.exit(1);
+		}
+		List<String> words = new ArrayList<>();
+		for (int i = 0; i < args.length - 1; i++) {
+			words.addAll(readWords(Paths.get(args[i])));
+		}
+		Path output = Paths.get(args[args.length - 1]);
+		long startTime = System.currentTimeMillis();
+		try (OutputStream out = Files.newOutputStream(output)) {
+			write(words, out);
+		}
+		System.out.println("Stoplist with " + words.size() + " words written to " + output
+				+ " (" + Files.size(output) + " bytes) in " + (System.currentTimeMillis() - startTime) + "ms");
+	}
+
+	/**
+	 * Words of a plain text word list
+	 */
+	public static List<String> readWords(Path file) throws IOException {
+		List<String> words = new ArrayList<>();
+		for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+			String word = line.trim();
+			if (!word.isEmpty() && word.charAt(0) != '#') {
+				words.add(word);
+			}
+		}
+		return words;
+	}
+
+	static byte[] build(Collection<String> words) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		write(words, out);
+		return out.toByteArray();
+	}
+
+	/**
+	 * Compile words into a stoplist, duplicates after case folding are merged
+	 */
+	public static void write(Collection<String> words, OutputStream output) throws IOException {
+		String[] keys = foldAll(words);
+		int count = keys.length;
+		int bucketsCount = Math.max(1, (count + StoplistFormat.BUCKET_SIZE - 1) / StoplistFormat.BUCKET_SIZE);
+		long[] hashes = new long[count];
+		int[] bucketSizes = new int[bucketsCount];
+		for (int i = 0; i < count; i++) {
+			hashes[i] = StoplistFormat.hash(keys[i], 0, keys[i].length());
+			bucketSizes[StoplistFormat.bucket(hashes[i], bucketsCount)]++;
+		}
+		// Keys grouped by bucket: bucket b owns bucketKeys[bucketStarts[b], bucketStarts[b + 1])
+		int[] bucketStarts = new int[bucketsCount + 1];
+		for (int b = 0; b < bucketsCount; b++) {
+			bucketStarts[b + 1] = bucketStarts[b] + bucketSizes[b];
+		}
+		int[] bucketKeys = new int[count];
+		int[] fill = Arrays.copyOf(bucketStarts, bucketsCount);
+		for (int i = 0; i < count; i++) {
+			bucketKeys[fill[StoplistFormat.bucket(hashes[i], bucketsCount)]++] = i;
+		}
+
+		int[] displacements = new int[bucketsCount];
+		int[] slotKeys = new int[count];
+		Arrays.fill(slotKeys, -1);
+		int[] slots = new int[maxOf(bucketSizes)];
+		// Largest buckets first, while the table is still empty
+		for (int bucket : bucketsBySize(bucketSizes)) {
+			int start = bucketStarts[bucket];
+			int size = bucketStarts[bucket + 1] - start;
+			if (size == 0) {
+				break;
+			}
+			int displacement = 0;
+			while (!tryPlace(hashes, bucketKeys, start, size, displacement, slotKeys, slots)) {
+				if (++displacement == MAX_DISPLACEMENT) {
+					throw new IOException("Failed to build stoplist: can't place bucket of " + size + " words");
+				}
+			}
+			displacements[bucket] = displacement;
+			for (int k = 0; k < size; k++) {
+				slotKeys[slots[k]] = bucketKeys[start + k];
+			}
+		}
+
+		int charWidth = 1;
+		long contentHash = 1;
+		for (String key : keys) {
+			for (int i = 0; i < key.length(); i++) {
+				if (key.charAt(i) >= 0x100) {
+					charWidth = 2;
+				}
+			}
+			// keys are sorted, so the content hash doesn't depend on the input order
+			contentHash = contentHash * 31 + StoplistFormat.hash(key, 0, key.length());
+		}
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output, BUFFER_SIZE));
+		out.writeInt(StoplistFormat.MAGIC);
+		out.writeInt(StoplistFormat.VERSION);
+		out.writeInt(count);
+		out.writeInt(bucketsCount);
+		out.writeInt(charWidth);
+		out.writeInt((int) (contentHash >>> 32));
+		out.writeInt((int) contentHash);
+		out.writeInt(0);
+		for (int displacement : displacements) {
+			out.writeInt(displacement);
+		}
+		int offset = 0;
+		out.writeInt(offset);
+		for (int slot = 0; slot < count; slot++) {
+			offset += keys[slotKeys[slot]].length();
+			out.writeInt(offset);
+		}
+		for (int slot = 0; slot < count; slot++) {
+			String key = keys[slotKeys[slot]];
+			for (int i = 0; i < key.length(); i++) {
+				if (charWidth == 1) {
+					out.writeByte(key.charAt(i));
+				} else {
+					out.writeChar(key.charAt(i));
+				}
+			}
+		}
+		out.flush();
+	}
+
+	private static String[] foldAll(Collection<String> words) {
+		TreeSet<String> folded = new TreeSet<>();
+		StringBuilder sb = new StringBuilder();
+		for (String word : words) {
+			sb.setLength(0);
+			for (int i = 0; i < word.length(); i++) {
+				sb.append(StoplistFormat.fold(word.charAt(i)));
+			}
+			if (sb.length() != 0) {
+				folded.add(sb.toString());
+			}
+		}
+		return folded.toArray(new String[0]);
+	}
+
+	/**
+	 * Find distinct free slots for all keys of a bucket with the displacement, slots are returned in slots
+	 */
+	private static boolean tryPlace(long[] hashes, int[] bucketKeys, int start, int size, int displacement,
+			int[] slotKeys, int[] slots) {
+		int wordsCount = slotKeys.length;
+		for (int k = 0; k < size; k++) {
+			int slot = StoplistFormat.slot(hashes[bucketKeys[start + k]], displacement, wordsCount);
+			if (slotKeys[slot] != -1) {
+				return false;
+			}
+			for (int j = 0; j < k; j++) {
+				if (slots[j] == slot) {
+					return false;
+				}
+			}
+			slots[k] = slot;
+		}
+		return true;
+	}
+
+	/**
+	 * Bucket ids ordered by size (descending), counting sort
+	 */
+	private static int[] bucketsBySize(int[] bucketSizes) {
+		int maxSize = maxOf(bucketSizes);
+		int[] sizeStarts = new int[maxSize + 2];
+		for (int size : bucketSizes) {
+			sizeStarts[maxSize - size + 1]++;
+		}
+		for (int i = 1; i < sizeStarts.length; i++) {
+			sizeStarts[i] += sizeStarts[i - 1];
+		}
+		int[] order = new int[bucketSizes.length];
+		for (int b = 0; b < bucketSizes.length; b++) {
+			order[sizeStarts[maxSize - bucketSizes[b]]++] = b;
+		}
+		return order;
+	}
+
+	private static int maxOf(int[] values) {
+		int max = 0;
+		for (int value : values) {
+			max = Math.max(max, value);
+		}
+		return max;
+	}
+}
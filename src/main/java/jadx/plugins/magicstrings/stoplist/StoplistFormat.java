@@ -0,0 +1,74 @@
+/**
+ * Binary file format of a compiled stoplist.
+ *
+ * Words are stored in a minimal perfect hash table (hash and displace): every word is hashed
+ * into a bucket, and the bucket displacement selects a hash function that sends all words
+ * of the bucket to distinct slots. Slots are numbered 0..words count - 1, so the table has no empty slots.
+ * A lookup is one hash, one displacement read and one key comparison, all in place in a mapped buffer.
+ *
+ * Words are case folded with Character.toLowerCase per char before hashing and storing.
+ *
+ * All values are big-endian ints:
+ * - header: magic, format version, words count, buckets count, char width (1 or 2 bytes),
+ * content hash (high, low), reserved
+ * - DISPLACEMENTS: (displacement) per bucket
+ * - KEY_OFFSETS: (words count + 1) start offsets into KEY_DATA in chars, word at slot i is [i, i + 1)
+ * - KEY_DATA: folded chars of all words in slot order, one byte each (all chars below 0x100) or UTF-16
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.stoplist;
+
+final class StoplistFormat {
+	static final int MAGIC = 0x4D53534C; // "MSSL"
+	static final int VERSION = 1;
+
+	static final int HEADER_SIZE = 32;
+
+	// Average words per bucket, more means a smaller table but a slower build
+	static final int BUCKET_SIZE = 4;
+
+	private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+	private static final long FNV_PRIME = 0x100000001B3L;
+	private static final long DISPLACEMENT_STEP = 0x9E3779B97F4A7C15L;
+
+	private StoplistFormat() {
+	}
+
+	static char fold(char c) {
+		if (c < 0x80) {
+			return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+		}
+		return Character.toLowerCase(c);
+	}
+
+	/**
+	 * Hash of the folded chars of [start, end)
+	 */
+	static long hash(CharSequence str, int start, int end) {
+		long h = FNV_OFFSET;
+		for (int i = start; i < end; i++) {
+			h = (h ^ fold(str.charAt(i))) * FNV_PRIME;
+		}
+		return mix(h ^ (end - start));
+	}
+
+	static int bucket(long hash, int bucketsCount) {
+		return (int) Long.remainderUnsigned(hash, bucketsCount);
+	}
+
+	static int slot(long hash, int displacement, int wordsCount) {
+		return (int) Long.remainderUnsigned(mix(hash + displacement * DISPLACEMENT_STEP), wordsCount);
+	}
+
+	// MurmurHash3 finalizer
+	private static long mix(long h) {
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		h *= 0xC4CEB9FE1A85EC53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
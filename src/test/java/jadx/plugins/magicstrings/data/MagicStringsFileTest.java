@@ -0,0 +1,227 @@
+/**
+ * Round-trip test of {@link MagicStringsFileWriter} and {@link MagicStringsFileReader} through a mapped file.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.data;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MagicStringsFileTest {
+	private static final int CLASSES_COUNT = 60;
+	private static final int METHODS_PER_CLASS = 6;
+
+	// Small pool, so candidates are shared by several methods and rarity varies
+	private static final String[] CANDIDATES = {
+			"getValue", "onCreate", "parseHeader", "sendRequest", "isValid", "loadConfig", "decrypt", "\u00e9tat",
+			"\u0436\u0434\u0430\u0442\u044c", "\ud83d\ude00", "",
+	};
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void roundTripThroughMappedFile() throws IOException {
+		MagicStringsData data = createData();
+		MagicStringsData read = MagicStringsData.readFrom(map(write(data)));
+
+		assertEquals(copyOf(data.getMethodCandidates()), copyOf(read.getMethodCandidates()));
+		assertEquals(copyOf(data.getMethodRawStrings()), copyOf(read.getMethodRawStrings()));
+		assertEquals(scoresOf(data), scoresOf(read));
+		for (String candidate : CANDIDATES) {
+			assertEquals(data.getCandidateRarity(candidate), read.getCandidateRarity(candidate), candidate);
+		}
+		assertEquals(sourceFilesOf(data), sourceFilesOf(read));
+		assertEquals(allStringsOf(data), allStringsOf(read));
+		assertEquals(data.getClassFingerprints(), read.getClassFingerprints());
+		assertEquals(filteredOf(data), filteredOf(read));
+		for (String methodRef : data.getMethodCandidates().keySet()) {
+			assertEquals(data.getMethodId(methodRef), read.getMethodId(methodRef), methodRef);
+		}
+		assertTrue(read.isExtractionComplete());
+
+		// Reader views over the same file, without building the model
+		MagicStringsFileReader reader = MagicStringsFileReader.open(map(write(data)));
+		assertEquals(data.getAllStrings().size(), reader.getStringsCount());
+		assertEquals(data.getFilteredCandidates().size(), reader.getFilteredCount());
+		assertEquals(data.getClassFingerprints().size(), reader.getClassesCount());
+		for (int c = 0; c < reader.getClassesCount(); c++) {
+			String className = reader.getSymbol(reader.getClassId(c));
+			assertEquals(data.getClassFingerprints().get(className), reader.getClassFingerprint(c), className);
+		}
+	}
+
+	@Test
+	void emptyData() throws IOException {
+		MagicStringsData read = MagicStringsData.readFrom(map(write(new MagicStringsData())));
+		assertTrue(read.getMethodCandidates().isEmpty());
+		assertTrue(read.getAllStrings().isEmpty());
+		assertTrue(read.getFilteredCandidates().isEmpty());
+	}
+
+	@Test
+	void wrongVersion() throws IOException {
+		byte[] bytes = Files.readAllBytes(write(createData()));
+		ByteBuffer.wrap(bytes).putInt(4, MagicStringsFormat.VERSION + 1);
+		IOException e = assertThrows(IOException.class, () -> MagicStringsData.readFrom(map(rewrite(bytes))));
+		assertTrue(e.getMessage().contains("version"), e.getMessage());
+	}
+
+	@Test
+	void truncatedFile() throws IOException {
+		byte[] bytes = Files.readAllBytes(write(createData()));
+		// Cut inside the last section
+		byte[] truncated = Arrays.copyOf(bytes, bytes.length - 3);
+		assertThrows(IOException.class, () -> MagicStringsData.readFrom(map(rewrite(truncated))));
+	}
+
+	@Test
+	void truncatedSection() throws IOException {
+		byte[] bytes = Files.readAllBytes(write(createData()));
+		// One record less in the candidates section, method ranges now point past its end
+		ByteBuffer buf = ByteBuffer.wrap(bytes);
+		int entry = sectionEntry(buf, MagicStringsFormat.CANDIDATES);
+		buf.putInt(entry + 8, buf.getInt(entry + 8) - MagicStringsFormat.CANDIDATE_RECORD);
+		assertThrows(IOException.class, () -> MagicStringsData.readFrom(map(rewrite(bytes))));
+	}
+
+	@Test
+	void sectionLengthNotRecordMultiple() throws IOException {
+		byte[] bytes = Files.readAllBytes(write(createData()));
+		ByteBuffer buf = ByteBuffer.wrap(bytes);
+		int entry = sectionEntry(buf, MagicStringsFormat.STRINGS);
+		buf.putInt(entry + 8, buf.getInt(entry + 8) - 4);
+		assertThrows(IOException.class, () -> MagicStringsData.readFrom(map(rewrite(bytes))));
+	}
+
+	private static MagicStringsData createData() {
+		Random random = new Random(8);
+		MagicStringsData data = new MagicStringsData();
+		List<String> retracted = new ArrayList<>();
+		for (int c = 0; c < CLASSES_COUNT; c++) {
+			String className = "com.example.pkg" + (c % 7) + ".Cls" + c;
+			for (int m = 0; m < METHODS_PER_CLASS; m++) {
+				String methodRef = className + ".m" + m + "(I)V";
+				int stringsCount = random.nextInt(4);
+				for (int s = 0; s < stringsCount; s++) {
+					String candidate = CANDIDATES[random.nextInt(CANDIDATES.length)];
+					String value = candidate + ": value " + random.nextInt(50);
+					data.addString(value, methodRef, className);
+					data.addCandidate(methodRef, candidate, random.nextInt(200) - 50, value);
+					if (random.nextInt(5) == 0) {
+						data.addSourceFileRef("src/main/java/Cls" + (c % 9) + ".java", methodRef, "m" + m, value);
+					}
+				}
+			}
+			if (c % 3 != 0) {
+				// Negative and small fingerprints, high and low ints are stored separately
+				data.setClassFingerprint(className, c % 4 == 0 ? -random.nextLong() : random.nextLong() >>> (c % 64));
+			}
+			if (c % 11 == 5) {
+				retracted.add(className);
+			}
+		}
+		data.processFilteredCandidates();
+		// Retracted classes leave unused symbols in the table and change rarity of the remaining methods
+		data.retractClasses(retracted);
+		data.updateFilteredCandidates();
+		assertFalse(data.getFilteredCandidates().isEmpty());
+		return data;
+	}
+
+	private Path write(MagicStringsData data) throws IOException {
+		Path file = Files.createTempFile(tempDir, "data", ".bin");
+		try (OutputStream out = Files.newOutputStream(file)) {
+			data.writeTo(out);
+		}
+		return file;
+	}
+
+	private Path rewrite(byte[] bytes) throws IOException {
+		Path file = Files.createTempFile(tempDir, "data", ".bin");
+		Files.write(file, bytes);
+		return file;
+	}
+
+	private static MappedByteBuffer map(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+	}
+
+	private static int sectionEntry(ByteBuffer buf, int section) {
+		int sectionsCount = buf.getInt(8);
+		for (int i = 0; i < sectionsCount; i++) {
+			int entry = MagicStringsFormat.HEADER_SIZE + i * MagicStringsFormat.SECTION_ENTRY_SIZE;
+			if (buf.getInt(entry) == section) {
+				return entry;
+			}
+		}
+		throw new AssertionError("No section " + section);
+	}
+
+	private static Map<String, Set<String>> copyOf(Map<String, Set<String>> view) {
+		Map<String, Set<String>> copy = new HashMap<>();
+		view.forEach((key, value) -> copy.put(key, new HashSet<>(value)));
+		return copy;
+	}
+
+	private static Map<String, Map<String, Integer>> scoresOf(MagicStringsData data) {
+		Map<String, Map<String, Integer>> copy = new HashMap<>();
+		data.getCandidateScores().forEach((key, value) -> copy.put(key, new HashMap<>(value)));
+		return copy;
+	}
+
+	private static Map<String, List<String>> sourceFilesOf(MagicStringsData data) {
+		Map<String, List<String>> copy = new HashMap<>();
+		data.getSourceFiles().forEach((file, refs) -> {
+			List<String> list = new ArrayList<>();
+			for (MagicStringsData.SourceFileReference ref : refs) {
+				list.add(ref.getMethodId() + " " + ref.getMethodRef() + " " + ref.getMethodName() + " " + ref.getStringData());
+			}
+			copy.put(file, list);
+		});
+		return copy;
+	}
+
+	private static List<String> allStringsOf(MagicStringsData data) {
+		List<String> list = new ArrayList<>();
+		for (MagicStringsData.StringInfo info : data.getAllStrings()) {
+			list.add(info.getValue() + " " + info.getMethodId() + " " + info.getMethodRef() + " " + info.getClassName());
+		}
+		return list;
+	}
+
+	private static List<String> filteredOf(MagicStringsData data) {
+		List<String> list = new ArrayList<>();
+		for (MagicStringsData.MethodCandidate candidate : data.getFilteredCandidates()) {
+			list.add(candidate.getMethodId() + " " + candidate.getMethodRef() + " " + candidate.getCandidate()
+					+ " " + new HashSet<>(candidate.getRawStrings()));
+		}
+		return list;
+	}
+}
@@ -0,0 +1,98 @@
+/**
+ * Property-based differential test of {@link CamelCaseScanner} against the regexes it replaces.
+ *
+ * Word boundaries of java.util.regex differ between JDK versions, the scanner must follow
+ * the regexes of the JDK the test runs on.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.pass;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CamelCaseScannerTest {
+	// The replaced patterns, both were applied to a view of the token
+	private static final Pattern METHOD_NAMES_REGEXP = Pattern.compile(
+			"^[a-z][a-z0-9_]*([A-Z][a-z0-9_]*)*$");
+	private static final Pattern METHOD_NAMES_FIND_PATTERN = Pattern.compile(
+			"\\b[a-z][a-z0-9_]*(?:[A-Z][a-z0-9_]*)+\\b");
+
+	private static final int RANDOM_STRINGS_COUNT = 200_000;
+	private static final int MAX_PARTS = 10;
+
+	// Building blocks of generated strings: ASCII word chars and names, separators, line terminators,
+	// letters and digits of other scripts (word chars for \b on some JDKs), non-spacing marks
+	// (word chars after a letter or digit), a spacing mark, surrogate pairs and lone surrogates
+	private static final String[] PARTS = {
+			"a", "z", "A", "Z", "0", "9", "_", "get", "Value", "getValue", "is_valid", "onCreate2", "URL", "x",
+			" ", ".", ",", ":", "-", "/", "$", "(", ")", "\n", "\r\n", "\u0085", "\u2028", "\t",
+			"\u00e9", "\u00c9", "\u03a9", "\u0436", "\u4e2d", "\u0663", "\u212a", "\u017f", "\u0131",
+			"\u0301", "\u0301\u0301", "e\u0301", "\u0903", "\u00a0",
+			"\ud835\udc9c", "\ud835\udfce", "\ud83d\ude00", "\ud835", "\udc9c",
+	};
+
+	@Test
+	void fixedCases() {
+		String[] cases = {
+				"", "a", "A", "getValue", "GetValue", "get_value", "getValue2", "get value", "a.getValue()",
+				"xgetValue", "_getValue", "getValue_", "getValue\n", "\u00e9getValue", "getValue\u00e9",
+				"getValue\u0301", "\u0301getValue", "e\u0301getValue", "getValue\ud835\udc9c", "\ud835\udc9cgetValue",
+				"getValue\ud835", "\udc9cgetValue", "call getValue and setName", "aB cD eF",
+		};
+		for (String str : cases) {
+			assertSameAsRegex(str, 0, str.length());
+		}
+	}
+
+	@Test
+	void randomRegions() {
+		Random random = new Random(15);
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < RANDOM_STRINGS_COUNT; i++) {
+			sb.setLength(0);
+			int parts = 1 + random.nextInt(MAX_PARTS);
+			for (int p = 0; p < parts; p++) {
+				if (random.nextInt(8) == 0) {
+					// Any char, to reach what the parts don't cover
+					sb.append((char) random.nextInt(0x10000));
+				} else {
+					sb.append(PARTS[random.nextInt(PARTS.length)]);
+				}
+			}
+			String str = sb.toString();
+			// Tokens are regions of a longer string, chars around them must not affect the result
+			int start = random.nextInt(3) == 0 ? random.nextInt(str.length() + 1) : 0;
+			int end = random.nextInt(3) == 0 ? start + random.nextInt(str.length() - start + 1) : str.length();
+			assertSameAsRegex(str, start, end);
+		}
+	}
+
+	private static void assertSameAsRegex(String str, int start, int end) {
+		String token = str.substring(start, end);
+		String message = "Input: " + SourcePathDetectorTest.escape(str) + " [" + start + ", " + end + ")";
+
+		assertEquals(METHOD_NAMES_REGEXP.matcher(token).matches(),
+				CamelCaseScanner.isMethodName(str, start, end), message);
+
+		List<String> expected = new ArrayList<>();
+		Matcher matcher = METHOD_NAMES_FIND_PATTERN.matcher(token);
+		while (matcher.find()) {
+			expected.add((start + matcher.start()) + "-" + (start + matcher.end()));
+		}
+		List<String> found = new ArrayList<>();
+		CamelCaseScanner scanner = new CamelCaseScanner().reset(str, start, end);
+		while (scanner.find()) {
+			found.add(scanner.start() + "-" + scanner.end());
+		}
+		assertEquals(expected, found, message);
+	}
+}
@@ -0,0 +1,100 @@
+/**
+ * Differential test of {@link SourcePathDetector} against the regex it replaces.
+ *
+ * @author 0rshemesh
+ * @license Apache License 2.0
+ */
+package jadx.plugins.magicstrings.pass;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SourcePathDetectorTest {
+	// The replaced pattern, detector results must be the same as find() + group(1)
+	private static final Pattern SOURCE_FILES_REGEXP = Pattern.compile(
+			"([a-z_/\\\\][a-z0-9_/\\\\:\\-\\.@]+\\.(java|kt|kts|scala|groovy))($|:| )",
+			Pattern.CASE_INSENSITIVE);
+
+	private static final int RANDOM_STRINGS_COUNT = 200_000;
+	private static final int MAX_PARTS = 12;
+
+	// Building blocks of generated strings: path chars, extensions and their fragments in mixed case,
+	// terminators (including every line terminator '$' accepts before the end) and non-ASCII chars
+	// which case-insensitive matching could fold onto ASCII (Kelvin sign, long s, dotless i)
+	private static final String[] PARTS = {
+			"a", "Z", "_", "/", "\\", "0", "9", ":", "-", ".", "@", "src/main/", "C:\\dir\\",
+			".java", ".JAVA", ".Java", ".kt", ".KT", ".kts", ".kTs", ".scala", ".groovy", ".GrOoVy",
+			"java", "kt", "kts", "ts", "jav", ".ja", ".k", ".ktsx", ".kt.kts", "..",
+			" ", ":", "\n", "\r", "\r\n", "\u0085", "\u2028", "\u2029", "\t", ",", "(", ")", "\"",
+			"\u212A", "\u212At", ".\u212At", ".\u212Ats", "\u017F", ".\u017Fcala", ".java\u017F",
+			"\u0131", "\u0130", "\u00e9", "\u00c9", "\u0436", "\ud83d\ude00", "\u0301",
+	};
+
+	@Test
+	void fixedCases() {
+		String[] cases = {
+				"", "Foo.java", "Foo.kt", "Foo.kts", "Foo.kt:12", "at Foo.kts:3", "a.kt ", "a.kt\n", "a.kt\n\n",
+				"a.kt\r\n", "a.kt\n\r", "a.kt\u0085", "a.kt\u2028", "x.ktsx.kt", "x.kt.kts", "/a.java.java b.kt",
+				".java", "a.java", "ab.java", "_.java", "a..java", "\u212Aotlin.kt", "Main.\u212At", "Main.\u017Fcala",
+				"com/example/MainActivity.java:42", "C:\\src\\App.groovy", "file:Main.scala", "@a.kt",
+				"\u00e9Foo.java", "Foo.java\u00e9", "Foo.javaX Bar.kt",
+		};
+		for (String str : cases) {
+			assertSameAsRegex(str);
+		}
+	}
+
+	@Test
+	void randomStrings() {
+		Random random = new Random(12);
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < RANDOM_STRINGS_COUNT; i++) {
+			sb.setLength(0);
+			int parts = 1 + random.nextInt(MAX_PARTS);
+			for (int p = 0; p < parts; p++) {
+				if (random.nextInt(8) == 0) {
+					// Any char, to reach what the parts don't cover
+					sb.append((char) random.nextInt(0x3000));
+				} else {
+					sb.append(PARTS[random.nextInt(PARTS.length)]);
+				}
+			}
+			assertSameAsRegex(sb.toString());
+		}
+	}
+
+	@Test
+	void longPathWithoutMatch() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 2000; i++) {
+			sb.append("a/b.kt-");
+		}
+		assertSameAsRegex(sb.toString());
+		sb.append(".kts");
+		assertSameAsRegex(sb.toString());
+	}
+
+	private static void assertSameAsRegex(String str) {
+		Matcher matcher = SOURCE_FILES_REGEXP.matcher(str);
+		String expected = matcher.find() ? matcher.group(1) : null;
+		assertEquals(expected, SourcePathDetector.find(str), () -> "Input: " + escape(str));
+	}
+
+	static String escape(String str) {
+		StringBuilder sb = new StringBuilder(str.length() + 2).append('"');
+		for (int i = 0; i < str.length(); i++) {
+			char c = str.charAt(i);
+			if (c >= 0x20 && c < 0x7F) {
+				sb.append(c);
+			} else {
+				sb.append(String.format("\\u%04x", (int) c));
+			}
+		}
+		return sb.append('"').toString();
+	}
+}